@@ -10,6 +10,7 @@ public class DisplayPreferences {
     private boolean showGrid = false;
     private boolean showDSO = true;
     private boolean showPlanets = true;
+    private double maxFrameRate = 60.0;  // Cap on frames per second while time is animated
 
     private DisplayPreferences() {}
 
@@ -52,5 +53,18 @@ public class DisplayPreferences {
     public void setShowPlanets(boolean showPlanets) {
         this.showPlanets = showPlanets;
     }
-}
 
+    public double getMaxFrameRate() {
+        return maxFrameRate;
+    }
+
+    /**
+     * @param maxFrameRate frames per second, positive
+     */
+    public void setMaxFrameRate(double maxFrameRate) {
+        if (!(maxFrameRate > 0) || Double.isInfinite(maxFrameRate)) {
+            throw new IllegalArgumentException("Frame rate cap must be positive: " + maxFrameRate);
+        }
+        this.maxFrameRate = maxFrameRate;
+    }
+}
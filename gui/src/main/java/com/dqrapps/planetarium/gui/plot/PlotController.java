@@ -10,16 +10,25 @@ import com.dqrapps.planetarium.logic.model.DeepSkyObject;
 import com.dqrapps.planetarium.logic.model.MoonPosition;
 import com.dqrapps.planetarium.logic.model.Planet;
 import com.dqrapps.planetarium.logic.model.Star;
-import com.dqrapps.planetarium.logic.model.Stars;
+import com.dqrapps.planetarium.logic.model.StarStore;
 import com.dqrapps.planetarium.logic.model.SunPosition;
+import com.dqrapps.planetarium.logic.model.TimeLapseSequence;
+import com.dqrapps.planetarium.logic.render.StarPalette;
+import com.dqrapps.planetarium.logic.render.TimeLapseExporter;
 import com.dqrapps.planetarium.logic.service.AstroService;
+import com.dqrapps.planetarium.logic.service.CatalogSnapshot;
+import com.dqrapps.planetarium.logic.service.CatalogLoadProgress;
 import com.dqrapps.planetarium.logic.service.ConfigService;
 import com.dqrapps.planetarium.logic.service.ConstellationService;
+import com.dqrapps.planetarium.logic.service.HorizonClassification;
 import com.dqrapps.planetarium.logic.service.MoonCalculator;
 import com.dqrapps.planetarium.logic.service.PlanetService;
 import com.dqrapps.planetarium.logic.service.SkyProjection;
 import com.dqrapps.planetarium.logic.service.StarService;
 import com.dqrapps.planetarium.logic.service.SunCalculator;
+import com.dqrapps.planetarium.logic.service.VisibleStarCollector;
+import com.dqrapps.planetarium.logic.service.VisibleStars;
+import com.dqrapps.planetarium.logic.type.DomeResolution;
 import com.dqrapps.planetarium.logic.type.SkyViewMode;
 import com.dqrapps.planetarium.logic.type.StarCatalog;
 import javafx.animation.AnimationTimer;
@@ -40,6 +49,7 @@ import javafx.scene.image.WritableImage;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import lombok.SneakyThrows;
 import lombok.extern.java.Log;
@@ -49,12 +59,17 @@ import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 public class PlotController {
 
@@ -125,14 +140,16 @@ public class PlotController {
     @FXML
     private javafx.scene.control.RadioMenuItem fullSkyMenuItem;
 
-    private GraphicsContext gc;
+    @FXML
+    private javafx.scene.control.RadioMenuItem horizonMenuItem;
+
+    private GraphicsContext gc;  // Context of the layer being painted
     private ConfigService configService;
     private StarService starService;
     private AstroService astroService;
     private ConstellationService constellationService;
     private PlanetService planetService;
     private Config config;
-    private Stars stars;
     private Constellations constellations;
     private List<DeepSkyObject> deepSkyObjects;
     private List<Planet> planets;
@@ -143,18 +160,33 @@ public class PlotController {
 
     // Enhanced catalog management (Multiple HYG catalogs)
     private StarCatalog currentCatalog = StarCatalog.HYG_5000;  // Default: 5K stars for good balance
+    private CompletableFuture<CatalogSnapshot> pendingCatalogLoad;   // In-flight background catalog load
     private int currentStarCount = 0;
 
     // Performance optimization fields (Phase 2 & 3)
     private AnimationTimer renderTimer;
     private ExecutorService calculationExecutor;
-    private long lastFrameTime = 0;
-    private static final long FRAME_INTERVAL = 16_666_667L; // 60 FPS (nanoseconds)
+    private VisibleStarCollector visibleStarCollector;  // Used only on the calculation thread
+    private long lastAnimationTick = 0;                 // Pulse time the animation clock last advanced at, 0 if stopped
+    private static final long IDLE_REFRESH_INTERVAL = 1_000_000_000L; // Redraw once a second when nothing changed
+    private static final Integer[] FRAME_RATE_CHOICES = {15, 24, 30, 60, 120};
+    private RenderScheduler renderScheduler;            // Renders only dirty frames, animation capped
     private boolean needsRecalculation = true;
-    private List<Star> visibleStarsCache;
-    private int frameCount = 0;
-    private long fpsStartTime = 0;
-    private double currentFPS = 0;
+    private boolean needsTimeRecalculation = false;     // Only the animation clock moved since the last pass
+    private StarSpriteAtlas starSprites;                // Star images for the current zoom bucket
+    private final RasterStarLayer rasterStarLayer = new RasterStarLayer();
+    private static final int RASTER_STAR_THRESHOLD = 5000;  // Catalogs from this size may splat into one image
+    private static final double RASTER_MAX_DOT = 2.0;       // ...while their faintest stars are at most this wide
+    private VisibleStars visibleStarsCache;
+    private boolean rasterStarsCache;                        // Whether visibleStarsCache is drawn as a raster
+
+    // Stacked canvases, bottom to top, each repainted only when its inputs change; stars are on starCanvas
+    private PlotLayer constellationLayer;
+    private PlotLayer gridLayer;
+    private PlotLayer deepSkyLayer;
+    private PlotLayer starLayer;
+    private PlotLayer solarSystemLayer;
+    private PlotLayer overlayLayer;
 
     // Interaction smoothing (Phase 5 fix)
     private long lastInteractionTime = 0;
@@ -170,7 +202,11 @@ public class PlotController {
     private double lastMouseX = 0;
     private double lastMouseY = 0;
     private boolean isDragging = false;
-    private Star hoveredStar = null;
+    private int hoveredStarId = -1;
+    private static final double HOVER_RADIUS_PIXELS = 15.0;  // Max distance from the mouse to a hovered star
+    private static final java.time.Duration TIME_LAPSE_LENGTH = java.time.Duration.ofHours(12);  // A night
+    private static final java.time.Duration TIME_LAPSE_STEP = java.time.Duration.ofMinutes(1);
+    private final int[] hoverCandidates = new int[4];  // Nearest drawn stars to the mouse, closest first
 
     // Time animation fields (Phase 5)
     private boolean timeAnimationRunning = false;
@@ -188,7 +224,10 @@ public class PlotController {
     private LocalDateTime lastSunMoonUpdate = null; // Cache to avoid recalculating every frame
 
     // Star search fields (Phase 5)
-    private Star highlightedStar = null;
+    private int highlightedStarId = -1;
+
+    // Constellation endpoint names resolved to star IDs, for one catalog snapshot
+    private volatile ConstellationStars constellationStars;
 
     // Planet hover and orbital path fields (Phase Enhancement)
     private Planet hoveredPlanet = null;
@@ -211,6 +250,7 @@ public class PlotController {
         planetService = PlanetService.getInstance();
         astroService = new AstroService(null);
         displayPrefs = DisplayPreferences.getInstance();
+        renderScheduler = new RenderScheduler(displayPrefs.getMaxFrameRate(), IDLE_REFRESH_INTERVAL);
 
         // Initialize view center from config
         if (config != null && config.getLatitudeDegrees() != null) {
@@ -222,6 +262,7 @@ public class PlotController {
         }
 
         // Initialize background calculation executor
+        visibleStarCollector = new VisibleStarCollector(astroService);
         calculationExecutor = Executors.newSingleThreadExecutor(r -> {
             Thread t = new Thread(r, "StarCalculationThread");
             t.setDaemon(true);
@@ -229,11 +270,8 @@ public class PlotController {
         });
 
         if (starService.defaultStarsExists()) {
-            stars = starService.getStars();
-            if (stars != null && stars.getStarList() != null) {
-                currentStarCount = stars.getStarList().size();
-                log.info("Loaded catalog with " + currentStarCount + " stars");
-            }
+            currentStarCount = starService.getCurrentStarCount();
+            log.info("Loaded catalog with " + currentStarCount + " stars");
         }
 
         // Load constellation data
@@ -253,6 +291,12 @@ public class PlotController {
         // Initialize canvas
         if (starCanvas != null) {
             gc = starCanvas.getGraphicsContext2D();
+            starLayer = new PlotLayer("stars", starCanvas);
+            constellationLayer = createLayer("constellations", false);
+            gridLayer = createLayer("grid", false);
+            deepSkyLayer = createLayer("deep sky", false);
+            solarSystemLayer = createLayer("solar system", true);
+            overlayLayer = createLayer("overlay", true);
 
             // Make canvas responsive to pane size
             if (canvasPane != null) {
@@ -279,7 +323,7 @@ public class PlotController {
                 searchField.textProperty().addListener((obs, oldVal, newVal) -> {
                     // Clear highlight when search field is cleared
                     if (newVal == null || newVal.trim().isEmpty()) {
-                        highlightedStar = null;
+                        highlightedStarId = -1;
                     }
                 });
             }
@@ -292,6 +336,22 @@ public class PlotController {
         }
     }
 
+    /**
+     * Create a layer canvas stacked right below or above the star canvas, sized with the pane. Layers let mouse
+     * events through to the star canvas, which handles them all.
+     */
+    private PlotLayer createLayer(String name, boolean aboveStars) {
+        Canvas canvas = new Canvas(starCanvas.getWidth(), starCanvas.getHeight());
+        canvas.setMouseTransparent(true);
+        if (canvasPane != null) {
+            canvas.widthProperty().bind(canvasPane.widthProperty());
+            canvas.heightProperty().bind(canvasPane.heightProperty());
+            int starIndex = canvasPane.getChildren().indexOf(starCanvas);
+            canvasPane.getChildren().add(aboveStars ? canvasPane.getChildren().size() : starIndex, canvas);
+        }
+        return new PlotLayer(name, canvas);
+    }
+
     /**
      * Synchronize menu item states with current application settings.
      */
@@ -328,6 +388,9 @@ public class PlotController {
         if (fullSkyMenuItem != null) {
             fullSkyMenuItem.setSelected(currentViewMode == SkyViewMode.FULL_SKY_MERCATOR);
         }
+        if (horizonMenuItem != null) {
+            horizonMenuItem.setSelected(currentViewMode == SkyViewMode.HORIZON);
+        }
     }
 
     /**
@@ -343,14 +406,11 @@ public class PlotController {
 
         starCanvas.setOnMouseDragged(e -> {
             if (isDragging) {
-                double deltaX = e.getX() - lastMouseX;
-                double deltaY = e.getY() - lastMouseY;
-
                 // Pan the view
-                panView(deltaX, deltaY);
+                panView(lastMouseX, lastMouseY, e.getX(), e.getY());
 
                 // Clear search highlight when user manually pans (Phase 5 fix)
-                highlightedStar = null;
+                highlightedStarId = -1;
 
                 lastMouseX = e.getX();
                 lastMouseY = e.getY();
@@ -370,28 +430,29 @@ public class PlotController {
         // Mouse move for star hover detection
         starCanvas.setOnMouseMoved(e -> {
             updateHoveredStar(e.getX(), e.getY());
+            renderScheduler.requestRender(RenderScheduler.Reason.HOVER);
         });
     }
 
     /**
-     * Pan the view based on mouse drag (Phase 3, Phase 5 fix).
+     * Pan the view based on mouse drag (Phase 3, Phase 5 fix). The sky point under the pointer follows it, using
+     * the exact inverse projection.
      */
-    private void panView(double deltaX, double deltaY) {
-        // Convert pixel delta to sky coordinates
-        double scale = fieldOfView / Math.min(starCanvas.getWidth(), starCanvas.getHeight());
-
-        // Pan RA (horizontal)
-        viewCenterRA -= (deltaX * scale) / 15.0;  // Convert degrees to hours
-
-        // Wrap RA to 0-24 range
-        while (viewCenterRA < 0) viewCenterRA += 24.0;
-        while (viewCenterRA >= 24.0) viewCenterRA -= 24.0;
-
-        // Pan Dec (vertical)
-        viewCenterDec += deltaY * scale;
+    private void panView(double fromX, double fromY, double toX, double toY) {
+        if (currentViewMode == SkyViewMode.HORIZON) {
+            return;  // The horizon view stays centered on the zenith
+        }
+        SkyProjection view = viewProjection();
+        double[] from = view.screenToRaDec(fromX, fromY);
+        double[] to = view.screenToRaDec(toX, toY);
 
-        // Clamp Dec to -90 to +90
-        viewCenterDec = Math.max(-90, Math.min(90, viewCenterDec));
+        if (currentViewMode == SkyViewMode.SINGLE_HEMISPHERE && from != null && to != null) {
+            moveViewCenter(from[0] - to[0], from[1] - to[1]);
+        } else {
+            // Off the sky: convert the pixel delta with the scale at the view center
+            double scale = view.getDegreesPerPixel();
+            moveViewCenter(-((toX - fromX) * scale) / 15.0, (toY - fromY) * scale);
+        }
 
         // Trigger recalculation (debounced)
         lastInteractionTime = System.nanoTime();
@@ -399,28 +460,64 @@ public class PlotController {
     }
 
     /**
-     * Zoom the view (Phase 3, Phase 5 fix).
+     * Zoom the view (Phase 3, Phase 5 fix), keeping the sky point under the pointer in place.
      */
     private void zoom(double factor, double mouseX, double mouseY) {
+        double[] before = viewProjection().screenToRaDec(mouseX, mouseY);
+
         // Adjust zoom level
         zoomLevel *= factor;
         zoomLevel = Math.max(0.1, Math.min(10.0, zoomLevel));  // Clamp 0.1x to 10x
 
         // Adjust field of view
         fieldOfView /= factor;
-        fieldOfView = Math.max(10.0, Math.min(170.0, fieldOfView));  // Clamp 10° to 170°
+        // Clamp 10° to 170°, or to 180° in the horizon view so the whole horizon fits
+        fieldOfView = Math.max(10.0, Math.min(currentViewMode == SkyViewMode.HORIZON ? 180.0 : 170.0, fieldOfView));
+
+        double[] after = viewProjection().screenToRaDec(mouseX, mouseY);
+        if (currentViewMode == SkyViewMode.SINGLE_HEMISPHERE && before != null && after != null) {
+            moveViewCenter(before[0] - after[0], before[1] - after[1]);
+        }
 
         // Trigger recalculation (debounced)
         lastInteractionTime = System.nanoTime();
         needsRecalculation = true;
     }
 
+    /**
+     * Shift the view center, wrapping RA to 0-24h and clamping Dec to the poles.
+     */
+    private void moveViewCenter(double deltaRAHours, double deltaDecDeg) {
+        // Take the short way around when the shift crosses 0h
+        if (deltaRAHours > 12.0) deltaRAHours -= 24.0;
+        if (deltaRAHours < -12.0) deltaRAHours += 24.0;
+
+        viewCenterRA += deltaRAHours;
+        while (viewCenterRA < 0) viewCenterRA += 24.0;
+        while (viewCenterRA >= 24.0) viewCenterRA -= 24.0;
+
+        viewCenterDec = Math.max(-90, Math.min(90, viewCenterDec + deltaDecDeg));
+    }
+
+    /**
+     * Projection for the current view center, field of view and canvas, which may be ahead of the last
+     * calculated frame while the user is dragging or zooming.
+     */
+    private SkyProjection viewProjection() {
+        SkyProjection view = new SkyProjection(viewCenterRA, viewCenterDec, fieldOfView,
+            starCanvas.getWidth(), starCanvas.getHeight());
+        view.setViewMode(currentViewMode);
+        view.setLatitude(parseLatitude());
+        view.setLocalSiderealTime(parseSiderealTime());
+        return view;
+    }
+
     /**
      * Update hovered star and planet based on mouse position (Phase 3, Enhanced).
      */
     private void updateHoveredStar(double mouseX, double mouseY) {
         // Clear previous hover states
-        hoveredStar = null;
+        hoveredStarId = -1;
         if (hoveredPlanet != null) {
             hoveredPlanet.setHovered(false);
             hoveredPlanet = null;
@@ -446,23 +543,37 @@ public class PlotController {
         }
 
         // Find closest star to mouse position
-        Star closest = null;
-        double minDist = 15.0;  // Max 15 pixels away
-
-        for (Star star : visibleStarsCache) {
-            if (star.isPositionCached()) {
-                double dx = star.getScreenX() - mouseX;
-                double dy = star.getScreenY() - mouseY;
+        VisibleStars visible = visibleStarsCache;
+        int closest = -1;
+        double minDist = HOVER_RADIUS_PIXELS;
+
+        double[] sky = projection != null ? projection.screenToRaDec(mouseX, mouseY) : null;
+        if (sky != null) {
+            // Nearest drawn star via the index; screen distance is never smaller than angle times scale
+            double radiusDeg = HOVER_RADIUS_PIXELS * projection.getDegreesPerPixel();
+            int found = visible.getSnapshot().findNearestStars(sky[0], sky[1], radiusDeg, visible::contains, hoverCandidates);
+            for (int i = 0; i < found; i++) {
+                int slot = visible.slotOf(hoverCandidates[i]);
+                double dist = Math.hypot(visible.getX(slot) - mouseX, visible.getY(slot) - mouseY);
+                if (dist < minDist) {
+                    minDist = dist;
+                    closest = hoverCandidates[i];
+                }
+            }
+        } else {
+            for (int slot = 0; slot < visible.size(); slot++) {
+                double dx = visible.getX(slot) - mouseX;
+                double dy = visible.getY(slot) - mouseY;
                 double dist = Math.sqrt(dx * dx + dy * dy);
 
                 if (dist < minDist) {
                     minDist = dist;
-                    closest = star;
+                    closest = visible.getId(slot);
                 }
             }
         }
 
-        hoveredStar = closest;
+        hoveredStarId = closest;
         hidePlanetTooltip(); // Hide planet tooltip when hovering over stars
     }
 
@@ -495,27 +606,24 @@ public class PlotController {
     }
 
     /**
-     * Start the animation timer for smooth 60 FPS rendering (Phase 2).
+     * Start the animation timer (Phase 2). It runs on every pulse but renders only when the scheduler finds the
+     * plot dirty, with time animation frames capped at the preferred frame rate.
      */
     private void startRenderLoop() {
-        fpsStartTime = System.nanoTime();
-
         renderTimer = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                // Frame rate control - only render at 60 FPS
-                if (now - lastFrameTime >= FRAME_INTERVAL) {
-                    renderFrame();
-                    lastFrameTime = now;
-
-                    // Calculate FPS
-                    frameCount++;
-                    if (frameCount >= 60) {
-                        long elapsed = now - fpsStartTime;
-                        currentFPS = frameCount / (elapsed / 1_000_000_000.0);
-                        frameCount = 0;
-                        fpsStartTime = now;
-                    }
+                // Anything that changes the picture marks it dirty; a clean pulse draws nothing (Phase 2)
+                if (needsRecalculation) {
+                    renderScheduler.requestRender(RenderScheduler.Reason.VIEW);
+                }
+                if (timeAnimationRunning || needsTimeRecalculation) {
+                    renderScheduler.requestRender(RenderScheduler.Reason.TIME);
+                }
+
+                if (renderScheduler.beginFrame(now)) {
+                    renderFrame(now);
+                    renderScheduler.endFrame(System.nanoTime() - now);
                 }
             }
         };
@@ -538,15 +646,21 @@ public class PlotController {
 
     /**
      * Render a single frame (Phase 2, Phase 5 fix).
+     *
+     * @param pulse time of the render loop pulse drawing the frame, in nanoseconds
      */
-    private void renderFrame() {
+    private void renderFrame(long pulse) {
         long now = System.nanoTime();
 
-        // Update time animation if running (Phase 5)
+        // Update time animation if running (Phase 5). The clock advances by the time since it last did, which
+        // spans any pulses the frame rate cap skipped, and starts afresh whenever the animation is started
         if (timeAnimationRunning) {
-            long deltaTimeNanos = now - lastFrameTime;
-            double deltaSeconds = deltaTimeNanos / 1_000_000_000.0;
-            updateAnimationTime(deltaSeconds);
+            if (lastAnimationTick != 0) {
+                updateAnimationTime((pulse - lastAnimationTick) / 1_000_000_000.0);
+            }
+            lastAnimationTick = pulse;
+        } else {
+            lastAnimationTick = 0;
         }
 
         // Only recalculate if needed and debounce period has passed (Phase 5 fix)
@@ -557,9 +671,14 @@ public class PlotController {
             // Always recalculate immediately if time animation is running
             // Otherwise wait for interaction to finish
             if (timeAnimationRunning || !isInteracting) {
-                calculateVisibleStars();
+                calculateVisibleStars(RenderScheduler.Reason.VIEW);
                 needsRecalculation = false;
+                needsTimeRecalculation = false;
             }
+        } else if (needsTimeRecalculation) {
+            // The clock alone moved: the new stars are drawn under the animation frame rate cap
+            calculateVisibleStars(RenderScheduler.Reason.TIME);
+            needsTimeRecalculation = false;
         }
 
         renderStarfield();
@@ -591,19 +710,17 @@ public class PlotController {
             }
 
             // Trigger recalculation for new time
-            needsRecalculation = true;
+            needsTimeRecalculation = true;
         }
     }
 
     /**
      * Calculate visible stars on background thread for performance (Phase 2 & 3).
      * Uses spatial indexing for fast queries.
+     *
+     * @param reason why the stars are recalculated, requested as the render reason once they are ready
      */
-    private void calculateVisibleStars() {
-        if (stars == null || stars.getStarList() == null) {
-            return;
-        }
-
+    private void calculateVisibleStars(RenderScheduler.Reason reason) {
         double width = starCanvas.getWidth();
         double height = starCanvas.getHeight();
 
@@ -614,6 +731,14 @@ public class PlotController {
         // Do expensive calculations on background thread
         calculationExecutor.submit(() -> {
             try {
+                // One consistent catalog for the whole pass, even if a new one is published meanwhile
+                CatalogSnapshot snapshot = starService.getSnapshot();
+
+                ConstellationStars tracked = constellationStars;
+                if (tracked == null || tracked.snapshot != snapshot) {
+                    constellationStars = resolveConstellationStars(snapshot);
+                }
+
                 // Parse configuration
                 double latitude = parseLatitude();
                 double lst = parseSiderealTime();
@@ -628,39 +753,20 @@ public class PlotController {
                 skyProj.setLocalSiderealTime(lst);
                 skyProj.setViewMode(currentViewMode); // Set current hemisphere view mode
 
-                // Calculate query region for spatial index
-                double raRadius = (fov / 2.0) / 15.0;  // Convert degrees to hours
-                double decRadius = fov / 2.0;
-
-                // Query spatial index for stars in visible region
-                List<Star> candidateStars = starService.getStarsInRadius(
-                    centerRA, centerDec, Math.max(raRadius, decRadius)
-                );
-
-                // Filter and cache visible stars
-                List<Star> visible = candidateStars.stream()
-                    .filter(star -> star.hasValidCoordinates())
-                    .filter(star -> {
-                        // Check visibility
-                        boolean isVisible = astroService.isVisible(star.getRa(), star.getDec(), lst, latitude);
-                        if (!isVisible) return false;
-
-                        // Calculate screen position
-                        double[] coords = skyProj.raDecToScreen(star.getRa(), star.getDec());
-                        if (coords == null) return false;
-
-                        // Cache the position
-                        star.cachePosition(coords[0], coords[1], true);
-                        return true;
-                    })
-                    .sorted(Comparator.comparingDouble(Star::getMag)) // Sort by brightness
-                    .limit((int)(2000 * zoomLevel)) // Dynamic LOD based on zoom
-                    .collect(Collectors.toList());
+                // Brightest stars in the exact footprint of the view, up to the zoom-dependent limit. While only
+                // the time changes the collector reuses the projected view and just re-tests the horizon of stars
+                // that rise and set; the classification is rebuilt only when the latitude or catalog changes
+                HorizonClassification horizon = starService.getHorizonClassification(snapshot, latitude);
+                boolean rasterStars = isRasterField(snapshot, zoomLevel);
+                VisibleStars visible = visibleStarCollector.collect(snapshot, skyProj, lst, horizon,
+                    rasterStars ? snapshot.size() : (int) (2000 * zoomLevel));
 
                 // Update cache on JavaFX thread
                 Platform.runLater(() -> {
                     visibleStarsCache = visible;
+                    rasterStarsCache = rasterStars;
                     projection = skyProj;
+                    renderScheduler.requestRender(reason);
                 });
 
             } catch (Exception e) {
@@ -671,6 +777,9 @@ public class PlotController {
 
     /**
      * Render the starfield on the canvas (Phase 1, optimized in Phase 2).
+     * <p>
+     * The plot is a stack of layers, each repainted only when the inputs it is drawn from change: on an idle
+     * screen nothing is repainted, and moving the mouse over stars repaints just the overlay.
      */
     private void renderStarfield() {
         if (gc == null || visibleStarsCache == null) {
@@ -684,54 +793,122 @@ public class PlotController {
             return;
         }
 
-        // Clear canvas with dark blue background
-        gc.setFill(Color.rgb(0, 0, 35));
-        gc.fillRect(0, 0, width, height);
+        VisibleStars visible = visibleStarsCache;
+        SkyProjection view = projection;
+
+        // Sun, Moon and orbital paths follow the clock; refresh them before their layer checks its inputs
+        updateSunMoonPositions();
+        if (displayPrefs.isShowPlanets() && showOrbitalPaths && planets != null) {
+            updateOrbitalPaths();
+        }
 
         // Draw constellation lines first (behind stars) (Phase 4)
-        drawConstellationLines();
+        paintLayer(constellationLayer, Arrays.asList(width, height, visible, constellations,
+            displayPrefs.isShowConstellations(), fieldOfView), this::drawConstellationLines);
 
         // Draw coordinate grid (Phase 6 - optional)
-        drawCoordinateGrid();
+        paintLayer(gridLayer, Arrays.asList(width, height, viewKey(view), displayPrefs.isShowGrid()),
+            this::drawCoordinateGrid);
 
         // Draw deep sky objects (Phase 8)
-        drawDeepSkyObjects();
-
-        // Draw Sun and Moon positions (Phase 5 Enhancement)
-        updateSunMoonPositions();
-        drawSun();
-        drawMoon();
-
-        // Render cached visible stars
-        for (Star star : visibleStarsCache) {
-            if (star.isPositionCached()) {
-                drawStar(star, star.getScreenX(), star.getScreenY());
+        paintLayer(deepSkyLayer, Arrays.asList(width, height, viewKey(view), deepSkyObjects,
+            displayPrefs.isShowDSO()),
+            this::drawDeepSkyObjects);
+
+        // Render cached visible stars, blitted from sprites pre-rendered for the current zoom
+        starSprites = StarSpriteAtlas.forZoom(starSprites, zoomLevel);
+        boolean rasterStars = rasterStarsCache;
+        paintLayer(starLayer, Arrays.asList(width, height, visible, rasterStars, starSprites, highlightedStarId),
+            () -> drawStars(visible, rasterStars, width, height));
+
+        // Draw Sun and Moon positions (Phase 5 Enhancement) and planets (Phase 8) - on top of stars
+        paintLayer(solarSystemLayer, Arrays.asList(width, height, viewKey(view), showSun, currentSunPosition, showMoon,
+            currentMoonPosition, displayPrefs.isShowPlanets(), planets, showOrbitalPaths, lastOrbitalPathUpdate,
+            hoveredPlanet), () -> {
+                drawSun();
+                drawMoon();
+                drawPlanets();
+            });
 
-                // Draw labels for bright stars (Phase 3)
-                if (star.getMag() < 1.5 && star.getName() != null && !star.getName().isEmpty()) {
-                    drawStarLabel(star, star.getScreenX(), star.getScreenY());
+        // Draw hover tooltip (Phase 3) and info overlay
+        double latitude = parseLatitude();
+        double lst = parseSiderealTime();
+        paintLayer(overlayLayer, Arrays.asList(width, height, visible, hoveredStarId, latitude, lst, animationTime,
+            timeAnimationRunning, timeAnimationSpeed, viewCenterRA, viewCenterDec, fieldOfView, zoomLevel,
+            renderScheduler.getRenderRate(), renderScheduler.getSkipRate(), config, currentStarCount, currentCatalog, currentSunPosition, currentMoonPosition,
+            displayPrefs.isShowPlanets(), planets, showOrbitalPaths, currentViewMode), () -> {
+                int hoveredSlot = visible.slotOf(hoveredStarId);
+                if (hoveredSlot >= 0) {
+                    drawHoverTooltip(visible.getStore(), hoveredStarId, visible.getX(hoveredSlot),
+                        visible.getY(hoveredSlot));
                 }
+                drawInfo(latitude, lst, visible.size());
+            });
+    }
 
-                // Highlight searched star (Phase 5)
-                if (highlightedStar != null && star.getName() != null &&
-                    star.getName().equalsIgnoreCase(highlightedStar.getName())) {
-                    drawSearchHighlight(star.getScreenX(), star.getScreenY());
-                }
-            }
+    /**
+     * Layer key for where a projection puts the sky: center, field of view and mode, plus the sidereal time and
+     * latitude only in the horizon view, so layers drawn through the projection keep still while the clock runs.
+     */
+    private static List<Object> viewKey(SkyProjection view) {
+        List<Object> key = new ArrayList<>(Arrays.asList(view.getCenterRA(), view.getCenterDec(),
+            view.getFieldOfView(), view.getViewMode()));
+        if (view.dependsOnTime()) {
+            key.add(view.getLocalSiderealTime());
+            key.add(view.getLatitude());
         }
+        return key;
+    }
+
+    /**
+     * Paint a layer with the draw methods, which all draw through the gc field, if its inputs changed.
+     */
+    private void paintLayer(PlotLayer layer, List<?> key, Runnable painter) {
+        layer.paint(key, context -> {
+            gc = context;
+            painter.run();
+        });
+    }
 
-        // Draw planets (Phase 8) - on top of stars
-        drawPlanets();
+    /**
+     * Whether a catalog at a zoom level is a dense field of dots, drawn by splatting every on-screen star into one
+     * raster: a large catalog whose faintest stars are still only a pixel or two wide. The raster costs the same
+     * per star however many there are, so such fields are not cut to the brightest stars; otherwise the per-star
+     * draw calls are bounded by a limit that grows with the zoom.
+     */
+    private static boolean isRasterField(CatalogSnapshot snapshot, double zoomLevel) {
+        int faintest = StarPalette.MAG_BUCKETS - 1;
+        double faintestDiameter = StarPalette.getDiameter(faintest) * StarSpriteAtlas.scaleForZoom(zoomLevel);
+        return snapshot.size() >= RASTER_STAR_THRESHOLD && faintestDiameter <= RASTER_MAX_DOT;
+    }
 
-        // Draw hover tooltip (Phase 3)
-        if (hoveredStar != null && hoveredStar.isPositionCached()) {
-            drawHoverTooltip(hoveredStar, hoveredStar.getScreenX(), hoveredStar.getScreenY());
+    /**
+     * Draw the visible stars with their labels and the search highlight (Phase 1, optimized in Phase 2).
+     */
+    private void drawStars(VisibleStars visible, boolean rasterStars, double width, double height) {
+        StarStore store = visible.getStore();
+        if (rasterStars) {
+            rasterStarLayer.draw(gc, visible, starSprites, (int) Math.ceil(width), (int) Math.ceil(height));
         }
+        for (int slot = 0; slot < visible.size(); slot++) {
+            int id = visible.getId(slot);
+            double x = visible.getX(slot);
+            double y = visible.getY(slot);
 
-        // Draw info overlay
-        double latitude = parseLatitude();
-        double lst = parseSiderealTime();
-        drawInfo(latitude, lst, visibleStarsCache.size());
+            if (!rasterStars) {
+                starSprites.draw(gc, store, id, x, y);
+            }
+
+            // Draw labels for bright stars (Phase 3)
+            if (store.getMag(id) < 1.5 && store.hasName(id)) {
+                drawStarLabel(store, id, x, y);
+            }
+
+            // Highlight searched star (Phase 5)
+            if (id == highlightedStarId) {
+                drawSearchHighlight(x, y);
+            }
+        }
     }
 
     /**
@@ -762,21 +939,21 @@ public class PlotController {
             int validLines = 0;
 
             for (ConstellationLine line : constellation.getLines()) {
-                // Find stars by name
-                Star star1 = findStarByName(line.getStar1Name());
-                Star star2 = findStarByName(line.getStar2Name());
-
-                // Draw line if both stars are visible and cached
-                if (star1 != null && star2 != null &&
-                    star1.isPositionCached() && star2.isPositionCached()) {
-                    gc.strokeLine(
-                        star1.getScreenX(), star1.getScreenY(),
-                        star2.getScreenX(), star2.getScreenY()
-                    );
+                // Find visible slots of the endpoint stars
+                int slot1 = findVisibleSlotByName(line.getStar1Name());
+                int slot2 = findVisibleSlotByName(line.getStar2Name());
+
+                // Draw line if both stars are visible
+                if (slot1 >= 0 && slot2 >= 0) {
+                    double x1 = visibleStarsCache.getX(slot1);
+                    double y1 = visibleStarsCache.getY(slot1);
+                    double x2 = visibleStarsCache.getX(slot2);
+                    double y2 = visibleStarsCache.getY(slot2);
+                    gc.strokeLine(x1, y1, x2, y2);
 
                     // Accumulate positions for center calculation
-                    sumX += (star1.getScreenX() + star2.getScreenX()) / 2.0;
-                    sumY += (star1.getScreenY() + star2.getScreenY()) / 2.0;
+                    sumX += (x1 + x2) / 2.0;
+                    sumY += (y1 + y2) / 2.0;
                     validLines++;
                 }
             }
@@ -863,16 +1040,57 @@ public class PlotController {
     }
 
     /**
-     * Find a star by name in the visible stars cache (Phase 4).
+     * Find the visible slot of a constellation star by name (Phase 4), or -1 if it is not visible.
+     */
+    private int findVisibleSlotByName(String name) {
+        ConstellationStars tracked = constellationStars;
+        if (name == null || visibleStarsCache == null || tracked == null ||
+            tracked.snapshot != visibleStarsCache.getSnapshot()) return -1;
+
+        Integer id = tracked.ids.get(name.toUpperCase());
+        return id != null ? visibleStarsCache.slotOf(id) : -1;
+    }
+
+    /**
+     * Constellation endpoint names resolved to star IDs within one catalog snapshot.
+     */
+    private static final class ConstellationStars {
+        final CatalogSnapshot snapshot;
+        final Map<String, Integer> ids;
+
+        ConstellationStars(CatalogSnapshot snapshot, Map<String, Integer> ids) {
+            this.snapshot = snapshot;
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * Resolve constellation endpoint names to star IDs in a catalog snapshot (brightest match wins).
      */
-    private Star findStarByName(String name) {
-        if (name == null || visibleStarsCache == null) return null;
+    private ConstellationStars resolveConstellationStars(CatalogSnapshot snapshot) {
+        Map<String, Integer> ids = new HashMap<>();
+        StarStore store = snapshot.getStore();
+        if (constellations != null && constellations.getConstellations() != null) {
+            for (Constellation constellation : constellations.getConstellations()) {
+                if (constellation.getLines() == null) continue;
+                for (ConstellationLine line : constellation.getLines()) {
+                    if (line.getStar1Name() != null) ids.put(line.getStar1Name().toUpperCase(), -1);
+                    if (line.getStar2Name() != null) ids.put(line.getStar2Name().toUpperCase(), -1);
+                }
+            }
+
+            for (int id = 0; id < store.size() && !ids.isEmpty(); id++) {
+                if (!store.hasName(id)) continue;
+                String name = store.getName(id).toUpperCase();
+                Integer existing = ids.get(name);
+                if (existing != null && (existing < 0 || store.getMag(id) < store.getMag(existing))) {
+                    ids.put(name, id);
+                }
+            }
+            ids.values().removeIf(id -> id < 0);
+        }
 
-        return visibleStarsCache.stream()
-            .filter(s -> s.getName() != null)
-            .filter(s -> s.getName().equalsIgnoreCase(name))
-            .findFirst()
-            .orElse(null);
+        return new ConstellationStars(snapshot, ids);
     }
 
     /**
@@ -994,116 +1212,31 @@ public class PlotController {
         }
     }
 
-    /**
-     * Draw a single star (Phase 1, Phase 4 spectral colors).
-     */
-    private void drawStar(Star star, double x, double y) {
-        // Calculate star size based on magnitude (brighter = larger)
-        double mag = star.getMag();
-        double size;
-
-        if (mag < 0) {
-            size = 6.0;  // Very bright (e.g., Sirius)
-        } else if (mag < 1.0) {
-            size = 5.0;
-        } else if (mag < 2.0) {
-            size = 4.0;
-        } else if (mag < 3.0) {
-            size = 3.0;
-        } else if (mag < 4.0) {
-            size = 2.0;
-        } else if (mag < 5.0) {
-            size = 1.5;
-        } else {
-            size = 1.0;
-        }
-
-        // Adjust size with zoom
-        size *= Math.sqrt(zoomLevel);
-
-        // Calculate brightness (alpha) based on magnitude
-        double brightness = Math.max(0.2, Math.min(1.0, 1.0 - (mag / 6.0)));
-
-        // Get color (with spectral type support) (Phase 4)
-        Color starColor = getStarColor(star, brightness);
-
-        // Draw star with glow for bright stars
-        if (mag < 2.0) {
-            // Draw glow
-            double glowSize = size * 2.5;
-            gc.setFill(new Color(starColor.getRed(), starColor.getGreen(), starColor.getBlue(), 0.3));
-            gc.fillOval(x - glowSize / 2, y - glowSize / 2, glowSize, glowSize);
-        }
-
-        // Draw main star
-        gc.setFill(starColor);
-        gc.fillOval(x - size / 2, y - size / 2, size, size);
-    }
-
-    /**
-     * Get star color based on spectral type and magnitude (Phase 4).
-     */
-    private Color getStarColor(Star star, double brightness) {
-        // If spectral type is available, use it for realistic colors
-        if (star.getSpectralType() != null && !star.getSpectralType().isEmpty()) {
-            char type = star.getSpectralType().charAt(0);
-
-            switch (type) {
-                case 'W': // Wolf-Rayet stars (extremely hot, >25,000 K)
-                    return Color.rgb(140, 160, 255, brightness);
-                case 'O': // Very hot blue stars (30,000-60,000 K)
-                    return Color.rgb(155, 176, 255, brightness);
-                case 'B': // Hot blue-white stars (10,000-30,000 K)
-                    return Color.rgb(170, 191, 255, brightness);
-                case 'A': // White stars (7,500-10,000 K)
-                    return Color.rgb(202, 215, 255, brightness);
-                case 'F': // Yellow-white stars (6,000-7,500 K)
-                    return Color.rgb(248, 247, 255, brightness);
-                case 'G': // Yellow stars like our Sun (5,000-6,000 K)
-                    return Color.rgb(255, 244, 234, brightness);
-                case 'K': // Orange stars (3,500-5,000 K)
-                    return Color.rgb(255, 210, 161, brightness);
-                case 'M': // Cool red stars (2,000-3,500 K)
-                    return Color.rgb(255, 204, 111, brightness);
-            }
-        }
-
-        // Fallback: use magnitude-based colors
-        double mag = star.getMag();
-        if (mag < 1.0) {
-            return Color.rgb(200, 220, 255, brightness);
-        } else if (mag < 3.0) {
-            return Color.rgb(255, 255, 255, brightness);
-        } else {
-            return Color.rgb(255, 250, 240, brightness);
-        }
-    }
-
     /**
      * Draw label for a bright star (Phase 3).
      */
-    private void drawStarLabel(Star star, double x, double y) {
+    private void drawStarLabel(StarStore store, int id, double x, double y) {
         gc.setFill(Color.rgb(200, 200, 200, 0.9));
         gc.setFont(javafx.scene.text.Font.font("Arial", 10));
 
         // Draw label slightly offset from star
-        String label = star.getName().replaceAll("[^A-Za-z0-9 ]", ""); // Clean name
+        String label = store.getName(id).replaceAll("[^A-Za-z0-9 ]", ""); // Clean name
         gc.fillText(label, x + 8, y - 3);
     }
 
     /**
      * Draw hover tooltip for star under mouse (Phase 3).
      */
-    private void drawHoverTooltip(Star star, double x, double y) {
+    private void drawHoverTooltip(StarStore store, int id, double x, double y) {
         // Highlight the star
         gc.setStroke(Color.rgb(255, 255, 0, 0.8));
         gc.setLineWidth(2);
         gc.strokeOval(x - 10, y - 10, 20, 20);
 
         // Draw tooltip box
-        String name = star.getName() != null ? star.getName() : "Unnamed";
+        String name = store.hasName(id) ? store.getName(id) : "Unnamed";
         String info = String.format("%s\nRA: %.2fh  Dec: %.1f°\nMag: %.1f",
-                                   name, star.getRa(), star.getDec(), star.getMag());
+                                   name, store.getRa(id), store.getDec(id), store.getMag(id));
 
         String[] lines = info.split("\n");
         double boxWidth = 150;
@@ -1653,12 +1786,14 @@ public class PlotController {
             gc.fillText(String.format("Center: RA %.2fh, Dec %.1f°", viewCenterRA, viewCenterDec), 10, 65);
             gc.fillText(String.format("FOV: %.1f°  Zoom: %.1fx", fieldOfView, zoomLevel), 10, 80);
             gc.fillText(String.format("Visible Stars: %d", visibleStars), 10, 95);
-            gc.fillText(String.format("FPS: %.1f", currentFPS), 10, 110);
+            gc.fillText(String.format("FPS: %.1f  Skipped: %.0f/s", renderScheduler.getRenderRate(),
+                renderScheduler.getSkipRate()), 10, 110);
         } else {
             gc.fillText(String.format("Center: RA %.2fh, Dec %.1f°", viewCenterRA, viewCenterDec), 10, 50);
             gc.fillText(String.format("FOV: %.1f°  Zoom: %.1fx", fieldOfView, zoomLevel), 10, 65);
             gc.fillText(String.format("Visible Stars: %d", visibleStars), 10, 80);
-            gc.fillText(String.format("FPS: %.1f", currentFPS), 10, 95);
+            gc.fillText(String.format("FPS: %.1f  Skipped: %.0f/s", renderScheduler.getRenderRate(),
+                renderScheduler.getSkipRate()), 10, 95);
         }
 
         int yOffset = animationTime != null ? 125 : 110;
@@ -1669,9 +1804,11 @@ public class PlotController {
             gc.fillText(String.format("Catalog: %,d stars (%s)", currentStarCount, getCatalogDisplayName()), 10, yOffset + 30);
         }
 
-        // Performance indicator
-        Color perfColor = currentFPS >= 55 ? Color.GREEN :
-                         currentFPS >= 30 ? Color.YELLOW : Color.RED;
+        // Performance indicator: whether frames render within the time the frame rate cap allows
+        double frameBudgetMillis = 1000.0 / renderScheduler.getMaxAnimationFps();
+        double renderMillis = renderScheduler.getAverageRenderMillis();
+        Color perfColor = renderMillis <= frameBudgetMillis / 2 ? Color.GREEN :
+                         renderMillis <= frameBudgetMillis ? Color.YELLOW : Color.RED;
         gc.setFill(perfColor);
         gc.fillOval(10, yOffset + 45, 10, 10);
 
@@ -1741,6 +1878,8 @@ public class PlotController {
             instructions += " | View: Dual Hemisphere";
         } else if (currentViewMode == SkyViewMode.FULL_SKY_MERCATOR) {
             instructions += " | View: Full Sky Map";
+        } else if (currentViewMode == SkyViewMode.HORIZON) {
+            instructions = "Scroll: Zoom | Hover: Info | Search: Find stars | View: Horizon";
         }
         gc.fillText(instructions, 10, starCanvas.getHeight() - 10);
 
@@ -1801,9 +1940,10 @@ public class PlotController {
      * Parse sidereal time from config or calculate from animation time (Phase 5).
      */
     private double parseSiderealTime() {
-        // If time animation is active or time has been set, calculate LST from animation time
+        // If time animation is active or time has been set, calculate LST from animation time, the same way the
+        // time-lapse export does
         if (animationTime != null) {
-            return calculateLocalSiderealTime(animationTime);
+            return SunCalculator.calculateLocalSiderealTime(animationTime, parseLongitude());
         }
 
         // Otherwise use config
@@ -1818,38 +1958,6 @@ public class PlotController {
         return 12.0; // Default
     }
 
-    /**
-     * Calculate Local Sidereal Time from date/time and longitude (Phase 5).
-     */
-    private double calculateLocalSiderealTime(LocalDateTime dateTime) {
-        // Get Julian Date (simplified)
-        double jd = dateTime.toLocalDate().toEpochDay() + 2440587.5;
-
-        // Calculate Greenwich Mean Sidereal Time (GMST)
-        double t = (jd - 2451545.0) / 36525.0;
-        double gmst = 280.46061837 + 360.98564736629 * (jd - 2451545.0) +
-                     0.000387933 * t * t - t * t * t / 38710000.0;
-
-        // Normalize to 0-360
-        gmst = gmst % 360.0;
-        if (gmst < 0) gmst += 360.0;
-
-        // Add local time of day
-        double hoursToday = dateTime.getHour() + dateTime.getMinute() / 60.0 +
-                           dateTime.getSecond() / 3600.0;
-        double lstDegrees = gmst + 15.0 * hoursToday;
-
-        // Add longitude correction
-        double longitude = parseLongitude();
-        lstDegrees += longitude;
-
-        // Normalize and convert to hours
-        lstDegrees = lstDegrees % 360.0;
-        if (lstDegrees < 0) lstDegrees += 360.0;
-
-        return lstDegrees / 15.0;
-    }
-
     /**
      * Parse longitude from config (Phase 5).
      */
@@ -1891,27 +1999,21 @@ public class PlotController {
         final String query = searchQuery.trim();
 
         // Search in all stars (not just visible)
-        if (stars == null || stars.getStarList() == null) {
+        CatalogSnapshot snapshot = starService.getSnapshot();
+        if (snapshot.size() == 0) {
             showSearchError("No star catalog loaded");
             return;
         }
 
-        List<Star> matches = stars.getStarList().stream()
-            .filter(s -> s.getName() != null)
-            .filter(s -> s.getName().toLowerCase().contains(query.toLowerCase()))
-            .sorted(Comparator.comparingDouble(Star::getMag)) // Brightest first
-            .limit(10)
-            .collect(Collectors.toList());
+        int[] matches = snapshot.searchByName(query, 10); // Brightest first
 
-        if (matches.isEmpty()) {
+        if (matches.length == 0) {
             showSearchError("No stars found matching: " + query);
             return;
         }
 
-        Star star = matches.get(0); // Take brightest match
-
-        // Store reference for lambda
-        final Star foundStar = star;
+        // Take brightest match
+        final Star foundStar = snapshot.getStore().getStar(matches[0]);
 
         // Center view on star
         viewCenterRA = foundStar.getRa();
@@ -1924,7 +2026,7 @@ public class PlotController {
         }
 
         // Highlight the star
-        highlightedStar = foundStar;
+        highlightedStarId = matches[0];
 
         // Trigger recalculation
         needsRecalculation = true;
@@ -1963,7 +2065,8 @@ public class PlotController {
         if (searchField != null) {
             searchField.clear();
         }
-        highlightedStar = null;
+        highlightedStarId = -1;
+        renderScheduler.requestRender(RenderScheduler.Reason.PREFERENCES);
         log.info("Search cleared");
     }
 
@@ -1973,6 +2076,7 @@ public class PlotController {
     @FXML
     private void toggleTimeAnimation() {
         timeAnimationRunning = !timeAnimationRunning;
+        lastAnimationTick = 0;  // The clock starts from the first frame, not from whenever it last advanced
 
         if (timeAnimationRunning) {
             // Start animation
@@ -1990,6 +2094,7 @@ public class PlotController {
             }
             log.info("Time animation paused");
         }
+        renderScheduler.requestRender(RenderScheduler.Reason.TIME);
     }
 
     /**
@@ -2023,6 +2128,7 @@ public class PlotController {
             speedSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
                 timeAnimationSpeed = newVal.doubleValue();
                 updateSpeedLabel(timeAnimationSpeed);
+                renderScheduler.requestRender(RenderScheduler.Reason.PREFERENCES);
             });
         }
     }
@@ -2152,6 +2258,7 @@ public class PlotController {
         if (sunMenuItem != null) {
             sunMenuItem.setSelected(showSun);
         }
+        renderScheduler.requestRender(RenderScheduler.Reason.PREFERENCES);
         log.info("Sun display " + (showSun ? "enabled" : "disabled"));
     }
 
@@ -2164,6 +2271,7 @@ public class PlotController {
         if (moonMenuItem != null) {
             moonMenuItem.setSelected(showMoon);
         }
+        renderScheduler.requestRender(RenderScheduler.Reason.PREFERENCES);
         log.info("Moon display " + (showMoon ? "enabled" : "disabled"));
     }
 
@@ -2176,6 +2284,7 @@ public class PlotController {
         if (planetsMenuItem != null) {
             planetsMenuItem.setSelected(displayPrefs.isShowPlanets());
         }
+        renderScheduler.requestRender(RenderScheduler.Reason.PREFERENCES);
         log.info("Planets " + (displayPrefs.isShowPlanets() ? "enabled" : "disabled"));
     }
 
@@ -2188,6 +2297,7 @@ public class PlotController {
         if (constellationsMenuItem != null) {
             constellationsMenuItem.setSelected(displayPrefs.isShowConstellations());
         }
+        renderScheduler.requestRender(RenderScheduler.Reason.PREFERENCES);
         log.info("Constellations " + (displayPrefs.isShowConstellations() ? "enabled" : "disabled"));
     }
 
@@ -2200,6 +2310,7 @@ public class PlotController {
         if (gridMenuItem != null) {
             gridMenuItem.setSelected(displayPrefs.isShowGrid());
         }
+        renderScheduler.requestRender(RenderScheduler.Reason.PREFERENCES);
         log.info("RA/Dec grid " + (displayPrefs.isShowGrid() ? "enabled" : "disabled"));
     }
 
@@ -2212,9 +2323,32 @@ public class PlotController {
         if (dsoMenuItem != null) {
             dsoMenuItem.setSelected(displayPrefs.isShowDSO());
         }
+        renderScheduler.requestRender(RenderScheduler.Reason.PREFERENCES);
         log.info("Deep Sky Objects " + (displayPrefs.isShowDSO() ? "enabled" : "disabled"));
     }
 
+    /**
+     * Choose the frame rate cap applied while time is animated.
+     */
+    @FXML
+    private void chooseFrameRate() {
+        List<Integer> rates = new ArrayList<>(Arrays.asList(FRAME_RATE_CHOICES));
+        int current = (int) Math.round(displayPrefs.getMaxFrameRate());
+        if (!rates.contains(current)) {
+            rates.add(current);
+            rates.sort(null);
+        }
+        ChoiceDialog<Integer> dialog = new ChoiceDialog<>(current, rates);
+        dialog.setTitle("Frame Rate Cap");
+        dialog.setHeaderText("Maximum frames per second while time is animated");
+        dialog.setContentText("Frames per second:");
+        dialog.showAndWait().ifPresent(rate -> {
+            displayPrefs.setMaxFrameRate(rate);
+            renderScheduler.setMaxAnimationFps(rate);
+            log.info("Animation frame rate capped at " + rate + " fps");
+        });
+    }
+
     /**
      * Toggle Orbital Paths on/off (Planet Enhancement).
      */
@@ -2233,6 +2367,7 @@ public class PlotController {
             lastOrbitalPathUpdate = null;
         }
 
+        renderScheduler.requestRender(RenderScheduler.Reason.PREFERENCES);
         log.info("Orbital Paths " + (showOrbitalPaths ? "enabled" : "disabled"));
     }
 
@@ -2266,6 +2401,16 @@ public class PlotController {
         log.info("View mode set to: Full Sky Mercator");
     }
 
+    /**
+     * Set horizon (alt-azimuth) view mode, the local sky around the zenith.
+     */
+    @FXML
+    private void setHorizonView() {
+        currentViewMode = SkyViewMode.HORIZON;
+        updateViewMode();
+        log.info("View mode set to: Horizon");
+    }
+
     /**
      * Update projection and trigger re-rendering when view mode changes.
      */
@@ -2423,45 +2568,84 @@ public class PlotController {
     }
 
     /**
-     * Load a new star catalog (enhanced version with StarCatalog enum)
+     * Load a new star catalog (enhanced version with StarCatalog enum).
+     * The catalog is streamed and indexed in the background; the current catalog keeps rendering until it is swapped in.
      */
     private void loadCatalog(StarCatalog catalog) {
         log.info("Loading catalog: " + catalog.getDisplayName());
 
-        // Show loading dialog for large catalogs
+        if (pendingCatalogLoad != null && !pendingCatalogLoad.isDone()) {
+            pendingCatalogLoad.cancel(false);
+        }
+
+        // Show progress dialog for large catalogs, closing it cancels the load
         javafx.scene.control.Alert loadingAlert = null;
         if (catalog.getStarCount() > 25000) {
-            loadingAlert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
+            loadingAlert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION,
+                "", ButtonType.CANCEL);
             loadingAlert.setTitle("Loading Catalog");
             loadingAlert.setHeaderText("Loading " + catalog.getDisplayName());
             loadingAlert.setContentText("Please wait while " + String.format("%,d", catalog.getStarCount()) + " stars are loaded...");
-            loadingAlert.show();
         }
+        final javafx.scene.control.Alert progressAlert = loadingAlert;
 
-        try {
-            // Load the catalog in the star service
-            starService.loadCatalog(catalog);
-
-            // Get the actual loaded catalog from StarService (in case it fell back)
-            this.currentCatalog = starService.getCurrentCatalog();
-            this.stars = starService.getStars();
-            this.currentStarCount = starService.getCurrentStarCount();
-
-            // Verify we actually loaded the requested catalog
-            if (this.currentCatalog != catalog) {
-                throw new RuntimeException("Failed to load requested catalog. Currently loaded: " +
-                    this.currentCatalog.getDisplayName() + " with " + this.currentStarCount + " stars");
+        // Progress arrives on loader threads, coalesce it into one pending UI update
+        AtomicReference<CatalogLoadProgress> latestProgress = new AtomicReference<>();
+        Consumer<CatalogLoadProgress> progressListener = progress -> {
+            if (progressAlert != null && latestProgress.getAndSet(progress) == null) {
+                Platform.runLater(() -> {
+                    CatalogLoadProgress latest = latestProgress.getAndSet(null);
+                    if (latest != null && progressAlert.isShowing()) {
+                        progressAlert.setContentText(String.format("Loaded %,d of %,d stars (%.0f%%)...",
+                            latest.getStarsLoaded(), catalog.getStarCount(), latest.getFraction() * 100.0));
+                    }
+                });
             }
+        };
 
-            // Force complete recalculation
-            needsRecalculation = true;
-            visibleStarsCache = null;
+        CompletableFuture<CatalogSnapshot> load = starService.loadCatalogAsync(catalog, progressListener);
+        pendingCatalogLoad = load;
+
+        if (progressAlert != null) {
+            progressAlert.setOnHidden(event -> load.cancel(false));
+            progressAlert.show();
+        }
 
-            // Close loading dialog
-            if (loadingAlert != null) {
-                loadingAlert.close();
+        load.whenComplete((loaded, error) -> Platform.runLater(() -> {
+            if (progressAlert != null) {
+                progressAlert.setOnHidden(null);
+                progressAlert.close();
+            }
+            if (load.isCancelled()) {
+                log.info("Catalog load cancelled: " + catalog.getDisplayName());
+                return;
+            }
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+
+                javafx.scene.control.Alert errorAlert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
+                errorAlert.setTitle("Catalog Load Failed");
+                errorAlert.setHeaderText("Failed to load " + catalog.getDisplayName());
+                errorAlert.setContentText("Error: " + cause.getMessage() + "\n\nPlease check console for details.");
+                errorAlert.showAndWait();
+
+                log.warning("Failed to load catalog: " + cause.getMessage());
+                cause.printStackTrace();
+                return;
             }
 
+            // The snapshot is already published, the next calculation pass picks it up
+            this.currentCatalog = loaded.getCatalog();
+            this.currentStarCount = loaded.size();
+
+            // Force complete recalculation (star IDs refer to the old catalog)
+            needsRecalculation = true;
+            visibleStarsCache = null;
+            hoveredStarId = -1;
+            highlightedStarId = -1;
+            renderScheduler.requestRender(RenderScheduler.Reason.CATALOG);
+
             // Show success message with actual loaded data
             javafx.scene.control.Alert successAlert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
             successAlert.setTitle("Catalog Loaded");
@@ -2469,21 +2653,7 @@ public class PlotController {
             successAlert.setContentText(String.format("Loaded %,d stars. Performance: %s",
                 currentStarCount, this.currentCatalog.getPerformanceCategory()));
             successAlert.showAndWait();
-
-        } catch (Exception e) {
-            if (loadingAlert != null) {
-                loadingAlert.close();
-            }
-
-            javafx.scene.control.Alert errorAlert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
-            errorAlert.setTitle("Catalog Load Failed");
-            errorAlert.setHeaderText("Failed to load " + catalog.getDisplayName());
-            errorAlert.setContentText("Error: " + e.getMessage() + "\n\nPlease check console for details.");
-            errorAlert.showAndWait();
-
-            log.warning("Failed to load catalog: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }));
     }
 
     /**
@@ -2598,8 +2768,8 @@ public class PlotController {
 
         if (file != null) {
             try {
-                // Capture canvas as image
-                WritableImage image = starCanvas.snapshot(null, null);
+                // Capture all layers over the sky background as one image
+                WritableImage image = (canvasPane != null ? canvasPane : starCanvas).snapshot(null, null);
 
                 // Determine format from extension
                 String format = file.getName().toLowerCase().endsWith(".jpg") ? "jpg" : "png";
@@ -2632,6 +2802,192 @@ public class PlotController {
         }
     }
 
+    /**
+     * Export a time-lapse of dome master frames: the user picks the start, end, step and resolution, by default
+     * the next 12 hours from the displayed time one frame per simulated minute, and a folder. Frames are rendered
+     * headlessly in the background while a progress dialog shows, and closing it cancels the export.
+     */
+    @FXML
+    private void exportTimeLapse() {
+        LocalDateTime displayed = animationTime != null ? animationTime : LocalDateTime.now().withNano(0);
+        javafx.scene.control.Dialog<TimeLapseSequence> dialog = new javafx.scene.control.Dialog<>();
+        dialog.setTitle("Export Time-Lapse");
+        dialog.setHeaderText("Choose the frames to render");
+
+        javafx.scene.layout.GridPane grid = new javafx.scene.layout.GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new javafx.geometry.Insets(20, 20, 10, 10));
+
+        javafx.scene.control.DatePicker startDate = new javafx.scene.control.DatePicker(displayed.toLocalDate());
+        javafx.scene.control.Spinner<Integer> startHour = timeSpinner(23, displayed.getHour());
+        javafx.scene.control.Spinner<Integer> startMinute = timeSpinner(59, displayed.getMinute());
+        LocalDateTime defaultEnd = displayed.plus(TIME_LAPSE_LENGTH);
+        javafx.scene.control.DatePicker endDate = new javafx.scene.control.DatePicker(defaultEnd.toLocalDate());
+        javafx.scene.control.Spinner<Integer> endHour = timeSpinner(23, defaultEnd.getHour());
+        javafx.scene.control.Spinner<Integer> endMinute = timeSpinner(59, defaultEnd.getMinute());
+        javafx.scene.control.Spinner<Integer> stepMinutes =
+            new javafx.scene.control.Spinner<>(1, 24 * 60, (int) TIME_LAPSE_STEP.toMinutes());
+        stepMinutes.setEditable(true);
+        stepMinutes.setPrefWidth(80);
+        javafx.scene.control.ChoiceBox<DomeResolution> resolution =
+            new javafx.scene.control.ChoiceBox<>(javafx.collections.FXCollections.observableArrayList(
+                DomeResolution.values()));
+        resolution.setValue(DomeResolution.DOME_2K);
+        resolution.setConverter(new javafx.util.StringConverter<>() {
+            @Override
+            public String toString(DomeResolution value) {
+                return value == null ? "" : value.getDisplayName() + " - " + value.getDescription();
+            }
+
+            @Override
+            public DomeResolution fromString(String text) {
+                return null;
+            }
+        });
+        javafx.scene.control.Label frameCount = new javafx.scene.control.Label();
+
+        grid.add(new javafx.scene.control.Label("Start (UT):"), 0, 0);
+        grid.add(startDate, 1, 0);
+        grid.add(startHour, 2, 0);
+        grid.add(startMinute, 3, 0);
+        grid.add(new javafx.scene.control.Label("End (UT):"), 0, 1);
+        grid.add(endDate, 1, 1);
+        grid.add(endHour, 2, 1);
+        grid.add(endMinute, 3, 1);
+        grid.add(new javafx.scene.control.Label("Step (minutes):"), 0, 2);
+        grid.add(stepMinutes, 1, 2);
+        grid.add(new javafx.scene.control.Label("Resolution:"), 0, 3);
+        grid.add(resolution, 1, 3, 3, 1);
+        grid.add(frameCount, 0, 4, 4, 1);
+        dialog.getDialogPane().setContent(grid);
+
+        ButtonType exportButtonType =
+            new ButtonType("Export...", javafx.scene.control.ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(exportButtonType, ButtonType.CANCEL);
+        javafx.scene.Node exportButton = dialog.getDialogPane().lookupButton(exportButtonType);
+
+        // The sequence as currently entered, or null while the end is before the start
+        java.util.function.Supplier<TimeLapseSequence> entered = () -> {
+            if (startDate.getValue() == null || endDate.getValue() == null) {
+                return null;
+            }
+            TimeLapseSequence sequence = TimeLapseSequence.builder()
+                .start(LocalDateTime.of(startDate.getValue(),
+                    java.time.LocalTime.of(startHour.getValue(), startMinute.getValue())))
+                .end(LocalDateTime.of(endDate.getValue(),
+                    java.time.LocalTime.of(endHour.getValue(), endMinute.getValue())))
+                .step(java.time.Duration.ofMinutes(stepMinutes.getValue()))
+                .latitude(parseLatitude())
+                .longitude(parseLongitude())
+                .resolution(resolution.getValue())
+                .build();
+            return sequence.getEnd().isBefore(sequence.getStart()) ? null : sequence;
+        };
+        Runnable validate = () -> {
+            TimeLapseSequence sequence = entered.get();
+            exportButton.setDisable(sequence == null);
+            frameCount.setText(sequence == null ? "The end must not be before the start"
+                : String.format("%,d frames", sequence.getFrameCount()));
+        };
+        startDate.valueProperty().addListener((obs, old, value) -> validate.run());
+        startHour.valueProperty().addListener((obs, old, value) -> validate.run());
+        startMinute.valueProperty().addListener((obs, old, value) -> validate.run());
+        endDate.valueProperty().addListener((obs, old, value) -> validate.run());
+        endHour.valueProperty().addListener((obs, old, value) -> validate.run());
+        endMinute.valueProperty().addListener((obs, old, value) -> validate.run());
+        stepMinutes.valueProperty().addListener((obs, old, value) -> validate.run());
+        validate.run();
+
+        dialog.setResultConverter(button -> button == exportButtonType ? entered.get() : null);
+        dialog.showAndWait().ifPresent(sequence -> {
+            DirectoryChooser directoryChooser = new DirectoryChooser();
+            directoryChooser.setTitle("Choose Time-Lapse Folder");
+            File directory = directoryChooser.showDialog(starCanvas.getScene().getWindow());
+            if (directory != null) {
+                runTimeLapseExport(sequence, directory);
+            }
+        });
+    }
+
+    /**
+     * Render a time-lapse into a folder on a thread of its own, with a progress dialog whose Cancel button
+     * interrupts the export.
+     */
+    private void runTimeLapseExport(TimeLapseSequence sequence, File directory) {
+        CatalogSnapshot snapshot = starService.getSnapshot();
+        int frameCount = sequence.getFrameCount();
+        log.info("Exporting " + frameCount + " time-lapse frames to " + directory.getAbsolutePath());
+
+        javafx.scene.control.ProgressBar progressBar = new javafx.scene.control.ProgressBar(0.0);
+        progressBar.setPrefWidth(300);
+        javafx.scene.control.Label progressLabel = new javafx.scene.control.Label(
+            String.format("Rendering %,d frames...", frameCount));
+        javafx.scene.layout.VBox progressPane = new javafx.scene.layout.VBox(10, progressLabel, progressBar);
+        progressPane.setPadding(new javafx.geometry.Insets(10));
+        Alert progressAlert = new Alert(Alert.AlertType.INFORMATION, "", ButtonType.CANCEL);
+        progressAlert.setTitle("Time-Lapse Export");
+        progressAlert.setHeaderText("Exporting to " + directory.getName());
+        progressAlert.getDialogPane().setContent(progressPane);
+
+        // Progress arrives on encoder threads, coalesce it into one pending UI update
+        java.util.concurrent.atomic.AtomicInteger latestCount = new java.util.concurrent.atomic.AtomicInteger(-1);
+        java.util.function.IntConsumer progress = count -> {
+            if (latestCount.getAndSet(count) < 0) {
+                Platform.runLater(() -> {
+                    int latest = latestCount.getAndSet(-1);
+                    progressBar.setProgress((double) latest / frameCount);
+                    progressLabel.setText(String.format("Written %,d of %,d frames", latest, frameCount));
+                });
+            }
+        };
+
+        // A thread of its own: the export blocks until the last frame is written
+        Thread exportThread = new Thread(() -> {
+            String message;
+            Alert.AlertType alertType;
+            try {
+                int written = new TimeLapseExporter().export(snapshot, sequence, directory.toPath(), progress);
+                message = written + " frames saved to:\n" + directory.getName();
+                alertType = Alert.AlertType.INFORMATION;
+            } catch (InterruptedException e) {
+                message = null;
+                alertType = null;
+            } catch (IOException e) {
+                log.warning("Failed to export time-lapse: " + e.getMessage());
+                message = e.getMessage();
+                alertType = Alert.AlertType.ERROR;
+            }
+
+            String text = message;
+            Alert.AlertType type = alertType;
+            Platform.runLater(() -> {
+                progressAlert.setOnHidden(null);
+                progressAlert.close();
+                if (type == null) {
+                    return;  // Cancelled
+                }
+                Alert alert = new Alert(type);
+                alert.setTitle("Time-Lapse Export");
+                alert.setHeaderText(null);
+                alert.setContentText(text);
+                alert.showAndWait();
+            });
+        }, "TimeLapseExport");
+        exportThread.setDaemon(true);
+
+        progressAlert.setOnHidden(event -> exportThread.interrupt());
+        progressAlert.show();
+        exportThread.start();
+    }
+
+    private static javafx.scene.control.Spinner<Integer> timeSpinner(int max, int value) {
+        javafx.scene.control.Spinner<Integer> spinner = new javafx.scene.control.Spinner<>(0, max, value);
+        spinner.setEditable(true);
+        spinner.setPrefWidth(70);
+        return spinner;
+    }
+
     @FXML
     private void switchToConfig(ActionEvent event) throws IOException {
         Main.setRoot("config");
@@ -0,0 +1,57 @@
+package com.dqrapps.planetarium.gui.plot;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * One canvas of the stacked plot. Each layer is painted from a few inputs, given as an invalidation key
+ * compared by equals: while the key stays the same the canvas keeps what it shows and painting it costs nothing.
+ */
+public class PlotLayer {
+
+    private final String name;
+    private final Canvas canvas;
+    private Object key;  // Inputs of the current content; null until first painted or after invalidation
+
+    public PlotLayer(String name, Canvas canvas) {
+        this.name = name;
+        this.canvas = canvas;
+    }
+
+    /**
+     * Clear and repaint the layer if its inputs changed since it was last painted.
+     *
+     * @param key     the layer's inputs, e.g. a list of the values it is drawn from; never null
+     * @param painter draws the layer onto the cleared canvas
+     * @return whether the layer was repainted
+     */
+    public boolean paint(Object key, Consumer<GraphicsContext> painter) {
+        Objects.requireNonNull(key, "key");
+        if (key.equals(this.key)) {
+            return false;
+        }
+        GraphicsContext context = canvas.getGraphicsContext2D();
+        context.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        painter.accept(context);
+        this.key = key;
+        return true;
+    }
+
+    /**
+     * Repaint on the next paint whatever the key.
+     */
+    public void invalidate() {
+        key = null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+}
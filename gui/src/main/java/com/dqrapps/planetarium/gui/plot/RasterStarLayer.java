@@ -0,0 +1,153 @@
+package com.dqrapps.planetarium.gui.plot;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.render.StarPalette;
+import com.dqrapps.planetarium.logic.service.VisibleStars;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Star layer for dense fields, where most stars are single-pixel dots and a draw call per star dominates the
+ * frame. Stars are splatted into an ARGB raster with the sprite atlas masks as their point spread functions,
+ * added up like light, and the raster goes to the canvas as one image per frame.
+ * <p>
+ * The raster is split into horizontal bands splatted in parallel. Stars are sorted into the band holding their
+ * center, and each band takes the stars of its neighbours as well, clipped to its own rows, so no two threads
+ * ever write the same pixel.
+ */
+public class RasterStarLayer {
+
+    private static final int BAND = 64;  // Rows per band; larger than half of the biggest sprite at full zoom
+    private static final PixelFormat<IntBuffer> FORMAT = PixelFormat.getIntArgbPreInstance();
+
+    private final ForkJoinPool pool;
+    private int width;
+    private int height;
+    private int[] pixels = new int[0];  // Premultiplied ARGB, row by row
+    private IntBuffer buffer;
+    private WritableImage image;
+    private int[] slotBand = new int[0];
+    private int[] slotsByBand = new int[0];
+
+    public RasterStarLayer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool pool the bands are splatted on
+     */
+    public RasterStarLayer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Splat the visible stars into the layer and draw it over the canvas, from the top-left corner.
+     */
+    public void draw(GraphicsContext gc, VisibleStars visible, StarSpriteAtlas sprites, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        resize(width, height);
+        render(visible, sprites);
+        image.getPixelWriter().setPixels(0, 0, width, height, FORMAT, buffer, width);
+        gc.drawImage(image, 0, 0);
+    }
+
+    private void resize(int width, int height) {
+        if (image != null && this.width == width && this.height == height) {
+            return;
+        }
+        this.width = width;
+        this.height = height;
+        pixels = new int[width * height];
+        buffer = IntBuffer.wrap(pixels);
+        image = new WritableImage(width, height);
+    }
+
+    private void render(VisibleStars visible, StarSpriteAtlas sprites) {
+        int count = visible.size();
+        int bands = (height + BAND - 1) / BAND;
+        if (slotBand.length < count) {
+            slotBand = new int[count];
+            slotsByBand = new int[count];
+        }
+
+        // Counting sort of the stars by the band holding their center
+        int[] start = new int[bands + 1];
+        for (int slot = 0; slot < count; slot++) {
+            float y = visible.getY(slot);
+            if (y < -BAND || y >= height + BAND) {
+                slotBand[slot] = -1;
+                continue;
+            }
+            slotBand[slot] = Math.max(0, Math.min(bands - 1, (int) Math.floor(y / BAND)));
+            start[slotBand[slot] + 1]++;
+        }
+        for (int band = 0; band < bands; band++) {
+            start[band + 1] += start[band];
+        }
+        int[] next = start.clone();
+        for (int slot = 0; slot < count; slot++) {
+            if (slotBand[slot] >= 0) {
+                slotsByBand[next[slotBand[slot]]++] = slot;
+            }
+        }
+
+        pool.submit(() -> IntStream.range(0, bands).parallel().forEach(band ->
+            renderBand(visible, sprites, start, band, bands))).join();
+    }
+
+    private void renderBand(VisibleStars visible, StarSpriteAtlas sprites, int[] start, int band, int bands) {
+        int top = band * BAND;
+        int bottom = Math.min(height, top + BAND);
+        Arrays.fill(pixels, top * width, bottom * width, 0);
+
+        StarStore store = visible.getStore();
+        for (int k = start[Math.max(0, band - 1)]; k < start[Math.min(bands, band + 2)]; k++) {
+            int slot = slotsByBand[k];
+            int id = visible.getId(slot);
+            int bucket = StarPalette.magnitudeBucket(store.getMag(id));
+            int size = sprites.getCellSize(bucket);
+            int left = Math.round(visible.getX(slot) - size / 2f);
+            int spriteTop = Math.round(visible.getY(slot) - size / 2f);
+            splat(sprites.getMask(bucket), size, left, spriteTop,
+                StarPalette.getRgb(store.getSpectralCode(id), bucket), top, bottom);
+        }
+    }
+
+    /**
+     * Add a sprite mask in one color to the rows from top to bottom. Premultiplied channels and alpha saturate at
+     * full, so overlapping stars brighten instead of covering each other.
+     */
+    private void splat(int[] mask, int size, int left, int spriteTop, int rgb, int top, int bottom) {
+        int red = rgb >> 16 & 0xFF;
+        int green = rgb >> 8 & 0xFF;
+        int blue = rgb & 0xFF;
+        int fromX = Math.max(0, left);
+        int toX = Math.min(width, left + size);
+        int fromY = Math.max(top, spriteTop);
+        int toY = Math.min(bottom, spriteTop + size);
+
+        for (int py = fromY; py < toY; py++) {
+            int maskRow = (py - spriteTop) * size - left;
+            int rowStart = py * width;
+            for (int px = fromX; px < toX; px++) {
+                int m = mask[maskRow + px];
+                if (m == 0) continue;
+
+                int pixel = pixels[rowStart + px];
+                int a = Math.min(255, (pixel >>> 24) + m);
+                int r = Math.min(255, (pixel >> 16 & 0xFF) + red * m / 255);
+                int g = Math.min(255, (pixel >> 8 & 0xFF) + green * m / 255);
+                int b = Math.min(255, (pixel & 0xFF) + blue * m / 255);
+                pixels[rowStart + px] = a << 24 | r << 16 | g << 8 | b;
+            }
+        }
+    }
+}
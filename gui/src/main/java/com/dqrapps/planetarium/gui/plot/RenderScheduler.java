@@ -0,0 +1,141 @@
+package com.dqrapps.planetarium.gui.plot;
+
+import java.util.EnumSet;
+
+/**
+ * Decides on each pulse of the render loop whether a frame is drawn at all. Anything that changes what is on
+ * screen marks the plot dirty with a reason; clean pulses are skipped, so an idle plot costs nothing but a
+ * refresh now and then for what follows the wall clock.
+ * <p>
+ * Input (view changes, hover, toggles, a new catalog) is drawn on the next pulse. Frames driven only by the
+ * time animation are capped at a maximum rate.
+ */
+public class RenderScheduler {
+
+    /**
+     * What made the plot dirty.
+     */
+    public enum Reason {
+        VIEW,         // Pan, zoom, resize, view mode, or newly calculated stars
+        TIME,         // Time animation tick
+        HOVER,        // Star or planet under the mouse changed
+        CATALOG,      // Another star catalog was loaded
+        PREFERENCES   // A display toggle or setting changed
+    }
+
+    private static final long STATS_WINDOW = 1_000_000_000L;  // Rates are measured over one second
+
+    private final EnumSet<Reason> dirty = EnumSet.noneOf(Reason.class);
+    private final long idleRefreshInterval;
+    private long animationInterval;
+    private double maxAnimationFps;
+    private long lastRender;
+    private boolean rendered;
+
+    // Statistics of the current window and the last complete one
+    private long windowStart;
+    private int renderedInWindow;
+    private int skippedInWindow;
+    private long renderNanosInWindow;
+    private double renderRate;
+    private double skipRate;
+    private double averageRenderMillis;
+
+    /**
+     * @param maxAnimationFps     cap on frames driven by the time animation
+     * @param idleRefreshInterval nanoseconds between frames while nothing is dirty
+     */
+    public RenderScheduler(double maxAnimationFps, long idleRefreshInterval) {
+        this.idleRefreshInterval = idleRefreshInterval;
+        setMaxAnimationFps(maxAnimationFps);
+    }
+
+    public void setMaxAnimationFps(double maxAnimationFps) {
+        if (!(maxAnimationFps > 0)) {
+            throw new IllegalArgumentException("Frame rate cap must be positive: " + maxAnimationFps);
+        }
+        this.maxAnimationFps = maxAnimationFps;
+        this.animationInterval = (long) (1_000_000_000L / maxAnimationFps);
+    }
+
+    public double getMaxAnimationFps() {
+        return maxAnimationFps;
+    }
+
+    /**
+     * Mark the plot dirty; it is drawn on the next pulse that may render.
+     */
+    public void requestRender(Reason reason) {
+        dirty.add(reason);
+    }
+
+    /**
+     * Called on every pulse. Returns whether to render a frame now, clearing the dirty reasons if so, and counts
+     * the pulse as rendered or skipped.
+     */
+    public boolean beginFrame(long now) {
+        // Close the statistics window before counting this pulse, so a frame's render time lands in its window
+        long elapsed = now - windowStart;
+        if (rendered && elapsed >= STATS_WINDOW) {
+            double seconds = elapsed / 1_000_000_000.0;
+            renderRate = renderedInWindow / seconds;
+            skipRate = skippedInWindow / seconds;
+            averageRenderMillis = renderedInWindow > 0 ? renderNanosInWindow / 1_000_000.0 / renderedInWindow : 0.0;
+            renderedInWindow = 0;
+            skippedInWindow = 0;
+            renderNanosInWindow = 0;
+            windowStart = now;
+        }
+
+        boolean due;
+        if (!rendered) {
+            windowStart = now;
+            due = true;
+        } else if (dirty.isEmpty()) {
+            due = now - lastRender >= idleRefreshInterval;
+        } else if (dirty.size() == 1 && dirty.contains(Reason.TIME)) {
+            due = now - lastRender >= animationInterval;
+        } else {
+            due = true;
+        }
+
+        if (due) {
+            dirty.clear();
+            lastRender = now;
+            rendered = true;
+            renderedInWindow++;
+        } else {
+            skippedInWindow++;
+        }
+
+        return due;
+    }
+
+    /**
+     * Record how long a rendered frame took.
+     */
+    public void endFrame(long renderNanos) {
+        renderNanosInWindow += renderNanos;
+    }
+
+    /**
+     * Frames rendered per second over the last second.
+     */
+    public double getRenderRate() {
+        return renderRate;
+    }
+
+    /**
+     * Pulses skipped per second over the last second, because nothing was dirty or the cap held a frame back.
+     */
+    public double getSkipRate() {
+        return skipRate;
+    }
+
+    /**
+     * Mean time to render a frame over the last second, in milliseconds.
+     */
+    public double getAverageRenderMillis() {
+        return averageRenderMillis;
+    }
+}
@@ -0,0 +1,137 @@
+package com.dqrapps.planetarium.gui.plot;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.render.StarPalette;
+import com.dqrapps.planetarium.logic.type.SpectralClass;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Pre-rendered star sprites for one zoom bucket: a glow-plus-core image for every magnitude bucket and spectral
+ * class, packed into a single image. Drawing a star is then one sub-rectangle blit from a texture the graphics
+ * pipeline already holds, instead of building and filling one or two oval paths per star per frame.
+ * <p>
+ * Rows are the palette's magnitude buckets, columns spectral class codes. Each row is just wide enough for its
+ * sprites, so faint stars blit only a few pixels. The sprite shapes are kept as alpha masks as well, which the
+ * raster star layer splats directly.
+ */
+public class StarSpriteAtlas {
+
+    private static final int MAG_BUCKETS = StarPalette.MAG_BUCKETS;
+    private static final int CLASSES = SpectralClass.values().length;
+    private static final double ZOOM_STEPS = 8.0;      // Scale buckets per doubling of the sprite size
+    private static final int PADDING = 1;              // Transparent border so smoothing never bleeds cells
+
+    private final double scale;
+    private final WritableImage image;
+    private final int[] rowTop = new int[MAG_BUCKETS];
+    private final int[] cellSize = new int[MAG_BUCKETS];
+    private final int[][] masks = new int[MAG_BUCKETS][];
+
+    private StarSpriteAtlas(double scale) {
+        this.scale = scale;
+
+        int width = 0;
+        int height = 0;
+        for (int bucket = 0; bucket < MAG_BUCKETS; bucket++) {
+            double core = StarPalette.getDiameter(bucket) * scale;
+            double extent = StarPalette.hasGlow(bucket) ? core * StarPalette.GLOW_SCALE : core;
+            cellSize[bucket] = (int) Math.ceil(extent) + 1 + 2 * PADDING;
+            rowTop[bucket] = height;
+            height += cellSize[bucket];
+            width = Math.max(width, cellSize[bucket] * CLASSES);
+        }
+
+        image = new WritableImage(width, height);
+        PixelWriter writer = image.getPixelWriter();
+        for (int bucket = 0; bucket < MAG_BUCKETS; bucket++) {
+            double coreRadius = StarPalette.getDiameter(bucket) * scale / 2;
+            double glowRadius = StarPalette.hasGlow(bucket) ? coreRadius * StarPalette.GLOW_SCALE : 0.0;
+            double brightness = StarPalette.getBrightness(bucket);
+            int size = cellSize[bucket];
+            int[] mask = spriteMask(size, coreRadius, glowRadius, brightness);
+            masks[bucket] = mask;
+            for (int code = 0; code < CLASSES; code++) {
+                int rgb = StarPalette.getRgb(code, bucket);
+                for (int py = 0; py < size; py++) {
+                    for (int px = 0; px < size; px++) {
+                        writer.setArgb(code * size + px, rowTop[bucket] + py, mask[py * size + px] << 24 | rgb);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Atlas for a zoom level, reusing the given one while the zoom stays within its bucket.
+     *
+     * @param current atlas drawn with so far; may be null
+     */
+    public static StarSpriteAtlas forZoom(StarSpriteAtlas current, double zoomLevel) {
+        double scale = scaleForZoom(zoomLevel);
+        return current != null && current.scale == scale ? current : new StarSpriteAtlas(scale);
+    }
+
+    /**
+     * Sprite scale drawn at a zoom level, rounded to its zoom bucket.
+     */
+    public static double scaleForZoom(double zoomLevel) {
+        // Star sizes grow with the square root of the zoom (Phase 3)
+        return Math.pow(2.0, Math.round(Math.log(Math.sqrt(zoomLevel)) / Math.log(2.0) * ZOOM_STEPS) / ZOOM_STEPS);
+    }
+
+    /**
+     * Draw a star centered on (x, y).
+     */
+    public void draw(GraphicsContext gc, StarStore store, int id, double x, double y) {
+        int bucket = StarPalette.magnitudeBucket(store.getMag(id));
+        int size = cellSize[bucket];
+        double half = size / 2.0;
+        gc.drawImage(image, store.getSpectralCode(id) * size, rowTop[bucket], size, size,
+            x - half, y - half, size, size);
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public WritableImage getImage() {
+        return image;
+    }
+
+    /**
+     * Edge in pixels of the square sprites of a magnitude bucket, their center at half of it.
+     */
+    int getCellSize(int bucket) {
+        return cellSize[bucket];
+    }
+
+    /**
+     * Alpha of a magnitude bucket's sprite, 0 to 255, row by row; not a copy.
+     */
+    int[] getMask(int bucket) {
+        return masks[bucket];
+    }
+
+    /**
+     * Antialiased core over a faint glow, both fading out over their last pixel, composited the way two filled
+     * ovals would be.
+     */
+    private static int[] spriteMask(int size, double coreRadius, double glowRadius, double brightness) {
+        int[] mask = new int[size * size];
+        double center = size / 2.0;
+        for (int py = 0; py < size; py++) {
+            double dy = py + 0.5 - center;
+            for (int px = 0; px < size; px++) {
+                double dx = px + 0.5 - center;
+                double d = Math.sqrt(dx * dx + dy * dy);
+                double core = brightness * Math.min(1.0, Math.max(0.0, coreRadius + 0.5 - d));
+                double glow = glowRadius > 0
+                    ? StarPalette.GLOW_ALPHA * Math.min(1.0, Math.max(0.0, glowRadius + 0.5 - d)) : 0.0;
+                mask[py * size + px] = (int) Math.round(255 * (core + (1.0 - core) * glow));
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,93 @@
+package com.dqrapps.planetarium.gui.plot;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RenderSchedulerTest {
+
+    private static final long MS = 1_000_000L;
+    private static final long IDLE_REFRESH = 1000 * MS;
+
+    @Test
+    public void idlePulsesAreSkippedTest() {
+        RenderScheduler scheduler = new RenderScheduler(50.0, IDLE_REFRESH);
+        Assertions.assertTrue(scheduler.beginFrame(0));  // The first pulse always draws
+
+        // Nothing dirty: only the wall clock refresh draws
+        for (long now = 16 * MS; now < IDLE_REFRESH; now += 16 * MS) {
+            Assertions.assertFalse(scheduler.beginFrame(now));
+        }
+        Assertions.assertTrue(scheduler.beginFrame(IDLE_REFRESH));
+        Assertions.assertFalse(scheduler.beginFrame(IDLE_REFRESH + 16 * MS));
+    }
+
+    @Test
+    public void timeOnlyFramesAreCappedTest() {
+        RenderScheduler scheduler = new RenderScheduler(50.0, IDLE_REFRESH);  // One frame per 20 ms
+        Assertions.assertTrue(scheduler.beginFrame(0));
+
+        scheduler.requestRender(RenderScheduler.Reason.TIME);
+        Assertions.assertFalse(scheduler.beginFrame(10 * MS));
+        scheduler.requestRender(RenderScheduler.Reason.TIME);
+        Assertions.assertFalse(scheduler.beginFrame(19 * MS));
+        scheduler.requestRender(RenderScheduler.Reason.TIME);
+        Assertions.assertTrue(scheduler.beginFrame(20 * MS));
+
+        // A lower cap spaces the frames further apart
+        scheduler.setMaxAnimationFps(10.0);
+        scheduler.requestRender(RenderScheduler.Reason.TIME);
+        Assertions.assertFalse(scheduler.beginFrame(60 * MS));
+        Assertions.assertTrue(scheduler.beginFrame(120 * MS));
+    }
+
+    @Test
+    public void inputRendersImmediatelyTest() {
+        RenderScheduler scheduler = new RenderScheduler(50.0, IDLE_REFRESH);
+        Assertions.assertTrue(scheduler.beginFrame(0));
+
+        for (RenderScheduler.Reason reason : RenderScheduler.Reason.values()) {
+            if (reason == RenderScheduler.Reason.TIME) {
+                continue;
+            }
+            long now = (reason.ordinal() + 1) * MS;
+            scheduler.requestRender(reason);
+            Assertions.assertTrue(scheduler.beginFrame(now), reason.name());
+            Assertions.assertFalse(scheduler.beginFrame(now), reason.name() + " is cleared once drawn");
+        }
+
+        // Input during time animation is not held back by the cap
+        scheduler.requestRender(RenderScheduler.Reason.TIME);
+        scheduler.requestRender(RenderScheduler.Reason.HOVER);
+        Assertions.assertTrue(scheduler.beginFrame(10 * MS));
+    }
+
+    @Test
+    public void rateCountersTest() {
+        RenderScheduler scheduler = new RenderScheduler(25.0, IDLE_REFRESH);  // One frame per 40 ms
+
+        // One second of 10 ms pulses with the time animation running: every fourth pulse draws
+        for (long now = 0; now < IDLE_REFRESH; now += 10 * MS) {
+            scheduler.requestRender(RenderScheduler.Reason.TIME);
+            if (scheduler.beginFrame(now)) {
+                scheduler.endFrame(2 * MS);
+            }
+        }
+        Assertions.assertEquals(0.0, scheduler.getRenderRate());  // The window is not complete yet
+
+        // The pulse closing the window counts towards the next one
+        scheduler.requestRender(RenderScheduler.Reason.TIME);
+        Assertions.assertTrue(scheduler.beginFrame(IDLE_REFRESH));
+        scheduler.endFrame(8 * MS);
+        Assertions.assertEquals(25.0, scheduler.getRenderRate(), 1e-9);
+        Assertions.assertEquals(75.0, scheduler.getSkipRate(), 1e-9);
+        Assertions.assertEquals(2.0, scheduler.getAverageRenderMillis(), 1e-9);
+    }
+
+    @Test
+    public void capMustBePositiveTest() {
+        RenderScheduler scheduler = new RenderScheduler(60.0, IDLE_REFRESH);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> scheduler.setMaxAnimationFps(0.0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> scheduler.setMaxAnimationFps(Double.NaN));
+        Assertions.assertEquals(60.0, scheduler.getMaxAnimationFps());
+    }
+}
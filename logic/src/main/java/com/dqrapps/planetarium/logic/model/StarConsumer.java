@@ -0,0 +1,11 @@
+package com.dqrapps.planetarium.logic.model;
+
+/**
+ * Receives stars from a query as a row of a {@link StarStore}, read column by column without materializing a
+ * {@link Star}.
+ */
+@FunctionalInterface
+public interface StarConsumer {
+
+    void accept(StarStore store, int id);
+}
@@ -0,0 +1,356 @@
+package com.dqrapps.planetarium.logic.model;
+
+import com.dqrapps.planetarium.logic.type.SpectralClass;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Struct-of-arrays star catalog addressed by int star ID (0 to size - 1).
+ * <p>
+ * Each field is a primitive column, so a catalog costs a few dozen bytes per star instead of a full {@link Star}
+ * object, and linear scans walk contiguous memory. Names and spectral types live in a shared UTF-8 string pool
+ * referenced by int offsets (-1 meaning absent). Each pool entry is a little-endian unsigned short length followed
+ * by the bytes, the same layout as the binary catalog's string table.
+ * <p>
+ * Each star's Cartesian unit vector (x to RA 0h, y to RA 6h, z to the north pole) is computed once when the store
+ * is created, so projection and horizon tests can work with dot products instead of per-frame trigonometry. The
+ * vectors are kept once, in single precision, and the spatial indexes and batch kernels all read this one copy.
+ */
+public class StarStore {
+
+    public static final int NO_STRING = -1;
+
+    private final int size;
+    private final double[] ra;              // Right Ascension in hours (0-24)
+    private final double[] dec;             // Declination in degrees (-90 to 90)
+    private final float[] mag;              // Apparent magnitude
+    private final byte[] spectralClass;     // SpectralClass code
+    private final int[] nameOffset;         // Offset into stringPool
+    private final int[] spectralTypeOffset; // Offset into stringPool
+    private final byte[] stringPool;
+    private final float[] unitX;            // Unit vector, NaN for stars without coordinates
+    private final float[] unitY;
+    private final float[] unitZ;
+
+    public StarStore(int size, double[] ra, double[] dec, float[] mag, byte[] spectralClass,
+                     int[] nameOffset, int[] spectralTypeOffset, byte[] stringPool) {
+        this.size = size;
+        this.ra = ra;
+        this.dec = dec;
+        this.mag = mag;
+        this.spectralClass = spectralClass;
+        this.nameOffset = nameOffset;
+        this.spectralTypeOffset = spectralTypeOffset;
+        this.stringPool = stringPool;
+        this.unitX = new float[size];
+        this.unitY = new float[size];
+        this.unitZ = new float[size];
+        for (int id = 0; id < size; id++) {
+            double raRad = Math.toRadians(ra[id] * 15.0);
+            double decRad = Math.toRadians(dec[id]);
+            double cosDec = Math.cos(decRad);
+            unitX[id] = (float) (cosDec * Math.cos(raRad));
+            unitY[id] = (float) (cosDec * Math.sin(raRad));
+            unitZ[id] = (float) Math.sin(decRad);
+        }
+    }
+
+    /**
+     * Build a store from a list of stars.
+     */
+    public static StarStore fromStars(Stars stars) {
+        List<Star> starList = stars != null && stars.getStarList() != null ? stars.getStarList() : new ArrayList<>();
+        Builder builder = new Builder(starList.size());
+        for (Star star : starList) {
+            builder.add(star.getRa(), star.getDec(), star.getMag(), star.getName(), star.getSpectralType());
+        }
+        return builder.build();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Column access
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public int size() {
+        return size;
+    }
+
+    public double getRa(int id) {
+        return ra[id];
+    }
+
+    public double getDec(int id) {
+        return dec[id];
+    }
+
+    public float getMag(int id) {
+        return mag[id];
+    }
+
+    public float getUnitX(int id) {
+        return unitX[id];
+    }
+
+    public float getUnitY(int id) {
+        return unitY[id];
+    }
+
+    public float getUnitZ(int id) {
+        return unitZ[id];
+    }
+
+    /**
+     * The x components of all unit vectors, for the batch projection kernels. Shared, not a copy: never modify it.
+     */
+    public float[] getUnitVectorX() {
+        return unitX;
+    }
+
+    /**
+     * The y components of all unit vectors. Shared, not a copy: never modify it.
+     */
+    public float[] getUnitVectorY() {
+        return unitY;
+    }
+
+    /**
+     * The z components of all unit vectors. Shared, not a copy: never modify it.
+     */
+    public float[] getUnitVectorZ() {
+        return unitZ;
+    }
+
+    public byte getSpectralCode(int id) {
+        return spectralClass[id];
+    }
+
+    public SpectralClass getSpectralClass(int id) {
+        return SpectralClass.fromCode(spectralClass[id]);
+    }
+
+    public boolean hasName(int id) {
+        return nameOffset[id] != NO_STRING;
+    }
+
+    public String getName(int id) {
+        return readString(nameOffset[id]);
+    }
+
+    public String getSpectralType(int id) {
+        return readString(spectralTypeOffset[id]);
+    }
+
+    public boolean hasValidCoordinates(int id) {
+        return !Double.isNaN(ra[id]) && !Double.isNaN(dec[id]) && !Float.isNaN(mag[id]);
+    }
+
+    /**
+     * Materialize a single star, e.g. for display in a tooltip.
+     */
+    public Star getStar(int id) {
+        return Star.builder()
+            .ra(ra[id])
+            .dec(dec[id])
+            .mag(mag[id])
+            .name(getName(id))
+            .spectralType(getSpectralType(id))
+            .build();
+    }
+
+    /**
+     * Materialize the whole catalog as a {@link Stars} list.
+     */
+    public Stars toStars() {
+        List<Star> starList = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            starList.add(getStar(id));
+        }
+        return Stars.builder().starList(starList).build();
+    }
+
+    /**
+     * Sort a range of star IDs in place, brightest (lowest magnitude) first.
+     */
+    public void sortByMagnitude(int[] ids, int from, int to) {
+        int count = to - from;
+        if (count < 2) {
+            return;
+        }
+        // Pack a sortable magnitude key above the ID so a primitive sort does the work
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int id = ids[from + i];
+            keys[i] = ((long) sortableMagnitude(mag[id]) << 32) | (id & 0xFFFFFFFFL);
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < count; i++) {
+            ids[from + i] = (int) keys[i];
+        }
+    }
+
+    /**
+     * Map a float magnitude to an int with the same ordering.
+     */
+    public static int sortableMagnitude(float magnitude) {
+        int bits = Float.floatToIntBits(magnitude);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    /**
+     * Read-only view of the RA column for bulk copies.
+     */
+    public DoubleBuffer raColumn() {
+        return DoubleBuffer.wrap(ra).asReadOnlyBuffer();
+    }
+
+    /**
+     * Read-only view of the Dec column for bulk copies.
+     */
+    public DoubleBuffer decColumn() {
+        return DoubleBuffer.wrap(dec).asReadOnlyBuffer();
+    }
+
+    /**
+     * Read-only view of the magnitude column for bulk copies.
+     */
+    public FloatBuffer magColumn() {
+        return FloatBuffer.wrap(mag).asReadOnlyBuffer();
+    }
+
+    /**
+     * Read-only view of the name offset column.
+     */
+    public IntBuffer nameOffsetColumn() {
+        return IntBuffer.wrap(nameOffset).asReadOnlyBuffer();
+    }
+
+    /**
+     * Read-only view of the spectral type offset column.
+     */
+    public IntBuffer spectralTypeOffsetColumn() {
+        return IntBuffer.wrap(spectralTypeOffset).asReadOnlyBuffer();
+    }
+
+    /**
+     * Read-only view of the string pool, laid out like the binary catalog's string table.
+     */
+    public ByteBuffer stringPool() {
+        return ByteBuffer.wrap(stringPool).asReadOnlyBuffer();
+    }
+
+    /**
+     * Approximate heap footprint of the columns, unit vectors and string pool.
+     */
+    public long getMemoryBytes() {
+        return (long) size * (Double.BYTES * 2 + Float.BYTES + 1 + Integer.BYTES * 2 + Float.BYTES * 3)
+            + stringPool.length;
+    }
+
+    private String readString(int offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        int length = (stringPool[offset] & 0xFF) | ((stringPool[offset + 1] & 0xFF) << 8);
+        return new String(stringPool, offset + 2, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Incrementally builds a {@link StarStore}; columns grow as stars are added. Spatial indexes are bulk-built from
+     * the finished store.
+     */
+    public static class Builder {
+
+        private int size;
+        private double[] ra;
+        private double[] dec;
+        private float[] mag;
+        private byte[] spectralClass;
+        private int[] nameOffset;
+        private int[] spectralTypeOffset;
+        private byte[] stringPool = new byte[1024];
+        private int stringPoolLength;
+        private final Map<String, Integer> spectralTypes = new HashMap<>();
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            ra = new double[capacity];
+            dec = new double[capacity];
+            mag = new float[capacity];
+            spectralClass = new byte[capacity];
+            nameOffset = new int[capacity];
+            spectralTypeOffset = new int[capacity];
+        }
+
+        public Builder add(double starRa, double starDec, double starMag, String name, String spectralType) {
+            if (size == ra.length) {
+                int capacity = size * 2;
+                ra = Arrays.copyOf(ra, capacity);
+                dec = Arrays.copyOf(dec, capacity);
+                mag = Arrays.copyOf(mag, capacity);
+                spectralClass = Arrays.copyOf(spectralClass, capacity);
+                nameOffset = Arrays.copyOf(nameOffset, capacity);
+                spectralTypeOffset = Arrays.copyOf(spectralTypeOffset, capacity);
+            }
+            ra[size] = starRa;
+            dec[size] = starDec;
+            mag[size] = (float) starMag;
+            spectralClass[size] = SpectralClass.codeOf(spectralType);
+            nameOffset[size] = appendString(name);
+
+            // Spectral types repeat heavily, so share them in the pool
+            Integer typeOffset = spectralType != null ? spectralTypes.get(spectralType) : null;
+            if (typeOffset == null) {
+                typeOffset = appendString(spectralType);
+                if (spectralType != null) {
+                    spectralTypes.put(spectralType, typeOffset);
+                }
+            }
+            spectralTypeOffset[size] = typeOffset;
+
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public StarStore build() {
+            return new StarStore(size,
+                Arrays.copyOf(ra, size),
+                Arrays.copyOf(dec, size),
+                Arrays.copyOf(mag, size),
+                Arrays.copyOf(spectralClass, size),
+                Arrays.copyOf(nameOffset, size),
+                Arrays.copyOf(spectralTypeOffset, size),
+                Arrays.copyOf(stringPool, stringPoolLength));
+        }
+
+        private int appendString(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, 0xFFFF);
+            int required = stringPoolLength + 2 + length;
+            if (required > stringPool.length) {
+                stringPool = Arrays.copyOf(stringPool, Math.max(required, stringPool.length * 2));
+            }
+            int offset = stringPoolLength;
+            stringPool[offset] = (byte) length;
+            stringPool[offset + 1] = (byte) (length >>> 8);
+            System.arraycopy(bytes, 0, stringPool, offset + 2, length);
+            stringPoolLength = required;
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.dqrapps.planetarium.logic.model;
+
+import com.dqrapps.planetarium.logic.type.DomeResolution;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * A pre-rendered time-lapse: dome master frames from start to end, one per step, for an observer location.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeLapseSequence {
+
+    private LocalDateTime start;    // First frame, universal time
+    private LocalDateTime end;      // Last frame at or before this time
+    private Duration step;          // Simulated time between frames
+    private double latitude;        // Observer latitude in degrees
+    private double longitude;       // Observer longitude in degrees, east positive
+    @Builder.Default
+    private DomeResolution resolution = DomeResolution.DOME_2K;
+    @Builder.Default
+    private String filePrefix = "frame";
+
+    /**
+     * Number of frames, counting both ends.
+     */
+    public int getFrameCount() {
+        if (step == null || step.isNegative() || step.isZero()) {
+            throw new IllegalArgumentException("Time-lapse step must be positive: " + step);
+        }
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Time-lapse ends before it starts: " + start + " to " + end);
+        }
+        return Math.toIntExact(Duration.between(start, end).toNanos() / step.toNanos() + 1);
+    }
+
+    public LocalDateTime getFrameTime(int index) {
+        return start.plus(step.multipliedBy(index));
+    }
+
+    /**
+     * Numbered file name of a frame, e.g. frame_00042.png, so the frames sort in order.
+     */
+    public String getFileName(int index) {
+        return String.format("%s_%05d.png", filePrefix, index);
+    }
+}
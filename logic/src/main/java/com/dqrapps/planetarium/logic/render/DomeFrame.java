@@ -0,0 +1,68 @@
+package com.dqrapps.planetarium.logic.render;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * One square dome master frame as a packed ARGB raster, row by row from the top-left corner. The zenith is at
+ * the center and the horizon on the inscribed circle.
+ * <p>
+ * Frames are plain buffers: a renderer overwrites every pixel, so a frame can be reused for the next one once
+ * its pixels have been consumed.
+ */
+public final class DomeFrame {
+
+    private final int size;
+    private final int[] pixels;
+
+    public DomeFrame(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Frame size must be positive: " + size);
+        }
+        this.size = size;
+        this.pixels = new int[Math.multiplyExact(size, size)];
+    }
+
+    /**
+     * Width and height in pixels.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * The raster itself, not a copy: pixel (x, y) is at y * size + x, as 0xAARRGGBB.
+     */
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    public int getPixel(int x, int y) {
+        return pixels[y * size + x];
+    }
+
+    /**
+     * Write the frame as a PNG file. The image wraps the raster without copying it; frames are opaque, so only
+     * the color channels are stored.
+     */
+    public void writePng(Path file) throws IOException {
+        DirectColorModel colorModel = new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF);
+        WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(pixels, pixels.length), size, size,
+            size, colorModel.getMasks(), null);
+        BufferedImage image = new BufferedImage(colorModel, raster, false, null);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            if (!ImageIO.write(image, "png", out)) {
+                throw new IOException("No PNG writer available for " + file);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.dqrapps.planetarium.logic.render;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.service.CatalogSnapshot;
+import com.dqrapps.planetarium.logic.service.SkyProjection;
+import com.dqrapps.planetarium.logic.type.DomeResolution;
+import com.dqrapps.planetarium.logic.type.SkyViewMode;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Renders dome masters headlessly: square azimuthal-equidistant fisheye frames of the sky above an observer, for
+ * projection onto a planetarium dome. The zenith is at the center and the horizon on the inscribed circle, with
+ * north up and east to the left, exactly as in the horizon view of {@link SkyProjection}, which does the
+ * projection.
+ * <p>
+ * A frame is rendered in parallel on a fork/join pool in three steps. Every star is projected in word-aligned
+ * chunks with the batch kernels, the stars on the dome are binned by square tile, and then each tile is cleared
+ * and has the stars of its own and the neighboring bins splatted into it, clipped to the tile. Tiles own disjoint
+ * pixels, so no step needs locking, and no JavaFX canvas is involved.
+ */
+public class DomeMasterRenderer {
+
+    private static final Logger log = Logger.getLogger(DomeMasterRenderer.class.getName());
+
+    private static final int TILE = 256;                  // Tile edge in pixels; splats never reach further
+    private static final int PROJECT_CHUNK = 8192;        // Stars projected per task, a multiple of 64
+    private static final double REFERENCE_SIZE = 1024.0;  // Frame size at which stars get their on-screen sizes
+    private static final int BACKGROUND = 0xFF000000;
+
+    private final ForkJoinPool pool;
+
+    public DomeMasterRenderer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool pool the projection and tile tasks run on
+     */
+    public DomeMasterRenderer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Render the sky of a catalog at a sidereal time and latitude into a new frame.
+     */
+    public DomeFrame render(CatalogSnapshot snapshot, double lst, double latitude, DomeResolution resolution) {
+        DomeFrame frame = new DomeFrame(resolution.getSize());
+        render(snapshot, lst, latitude, frame);
+        return frame;
+    }
+
+    /**
+     * Render the sky of a catalog at a sidereal time and latitude into an existing frame, overwriting all of its
+     * pixels. Frames of any size work; several threads may render different frames at once.
+     */
+    public void render(CatalogSnapshot snapshot, double lst, double latitude, DomeFrame frame) {
+        long start = System.nanoTime();
+        StarStore store = snapshot.getStore();
+        float[] unitX = store.getUnitVectorX();
+        float[] unitY = store.getUnitVectorY();
+        float[] unitZ = store.getUnitVectorZ();
+        int starCount = store.size();
+        int size = frame.getSize();
+
+        // The horizon view at 180 degrees puts the horizon exactly on the inscribed circle
+        SkyProjection projection = new SkyProjection(0.0, 0.0, 180.0, size, size);
+        projection.setViewMode(SkyViewMode.HORIZON);
+        projection.setLatitude(latitude);
+        projection.setLocalSiderealTime(lst);
+
+        float[] x = new float[starCount];
+        float[] y = new float[starCount];
+        long[] visible = new long[(starCount + 63) >> 6];
+        int chunks = (starCount + PROJECT_CHUNK - 1) / PROJECT_CHUNK;
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * PROJECT_CHUNK;
+            projection.project(unitX, unitY, unitZ, from, Math.min(starCount, from + PROJECT_CHUNK), x, y, visible);
+        })).join();
+
+        TileBins bins = binByTile(store, x, y, visible, size);
+        int tiles = bins.tilesPerSide;
+        pool.submit(() -> IntStream.range(0, tiles * tiles).parallel().forEach(tile ->
+            renderTile(store, x, y, bins, tile % tiles, tile / tiles, frame))).join();
+
+        log.fine(String.format("Rendered %dx%d dome master with %,d stars in %d ms", size, size,
+            bins.ids.length, (System.nanoTime() - start) / 1_000_000));
+    }
+
+    /**
+     * Counting sort of the projected stars inside the dome's circle by the tile holding their center.
+     */
+    private static TileBins binByTile(StarStore store, float[] x, float[] y, long[] visible, int size) {
+        int tiles = (size + TILE - 1) / TILE;
+        float center = size / 2f;
+        float radiusSq = center * center;
+        int[] starTile = new int[store.size()];
+        int[] start = new int[tiles * tiles + 1];
+
+        for (int id = 0; id < starTile.length; id++) {
+            float dx = x[id] - center;
+            float dy = y[id] - center;
+            if ((visible[id >> 6] & (1L << id)) == 0 || dx * dx + dy * dy > radiusSq) {
+                starTile[id] = -1;
+                continue;
+            }
+            int column = Math.min(tiles - 1, (int) (x[id] / TILE));
+            int row = Math.min(tiles - 1, (int) (y[id] / TILE));
+            starTile[id] = row * tiles + column;
+            start[starTile[id] + 1]++;
+        }
+        for (int tile = 0; tile < tiles * tiles; tile++) {
+            start[tile + 1] += start[tile];
+        }
+
+        int[] ids = new int[start[tiles * tiles]];
+        int[] next = start.clone();
+        for (int id = 0; id < starTile.length; id++) {
+            if (starTile[id] >= 0) {
+                ids[next[starTile[id]]++] = id;
+            }
+        }
+        return new TileBins(tiles, start, ids);
+    }
+
+    private static void renderTile(StarStore store, float[] x, float[] y, TileBins bins, int column, int row,
+                                   DomeFrame frame) {
+        int size = frame.getSize();
+        int[] pixels = frame.getPixels();
+        int left = column * TILE;
+        int top = row * TILE;
+        int right = Math.min(size, left + TILE);
+        int bottom = Math.min(size, top + TILE);
+        for (int py = top; py < bottom; py++) {
+            Arrays.fill(pixels, py * size + left, py * size + right, BACKGROUND);
+        }
+
+        double scale = size / REFERENCE_SIZE;
+        int tiles = bins.tilesPerSide;
+        for (int binRow = Math.max(0, row - 1); binRow <= Math.min(tiles - 1, row + 1); binRow++) {
+            for (int binColumn = Math.max(0, column - 1); binColumn <= Math.min(tiles - 1, column + 1); binColumn++) {
+                int bin = binRow * tiles + binColumn;
+                for (int k = bins.start[bin]; k < bins.start[bin + 1]; k++) {
+                    int id = bins.ids[k];
+                    int bucket = StarPalette.magnitudeBucket(store.getMag(id));
+                    float coreRadius = (float) Math.max(0.5, StarPalette.getDiameter(bucket) * scale / 2.0);
+                    float glowRadius = StarPalette.hasGlow(bucket)
+                        ? Math.min(TILE - 1, coreRadius * StarPalette.GLOW_SCALE) : 0f;
+                    splat(pixels, size, x[id], y[id], Math.min(TILE - 1, coreRadius), glowRadius,
+                        StarPalette.getRgb(store.getSpectralCode(id), bucket), StarPalette.getBrightness(bucket),
+                        left, top, right, bottom);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add an antialiased disc, with an optional faint glow around it, to the pixels of one tile. Channels
+     * saturate at full brightness, so overlapping stars add up like light instead of covering each other.
+     */
+    private static void splat(int[] pixels, int size, float cx, float cy, float coreRadius, float glowRadius,
+                              int rgb, float intensity, int left, int top, int right, int bottom) {
+        float reach = Math.max(coreRadius, glowRadius) + 0.5f;
+        int fromX = Math.max(left, (int) Math.floor(cx - reach));
+        int toX = Math.min(right, (int) Math.ceil(cx + reach));
+        int fromY = Math.max(top, (int) Math.floor(cy - reach));
+        int toY = Math.min(bottom, (int) Math.ceil(cy + reach));
+        float red = (rgb >> 16 & 0xFF) * intensity;
+        float green = (rgb >> 8 & 0xFF) * intensity;
+        float blue = (rgb & 0xFF) * intensity;
+
+        for (int py = fromY; py < toY; py++) {
+            float dy = py + 0.5f - cy;
+            int rowStart = py * size;
+            for (int px = fromX; px < toX; px++) {
+                float dx = px + 0.5f - cx;
+                float d = (float) Math.sqrt(dx * dx + dy * dy);
+                // Full inside the radius, fading out over the last pixel
+                float core = Math.min(1f, Math.max(0f, coreRadius + 0.5f - d));
+                float glow = StarPalette.GLOW_ALPHA * Math.min(1f, Math.max(0f, glowRadius + 0.5f - d));
+                float alpha = core + (1f - core) * glow;
+                if (alpha <= 0f) continue;
+
+                int pixel = pixels[rowStart + px];
+                int r = Math.min(255, (pixel >> 16 & 0xFF) + (int) (red * alpha + 0.5f));
+                int g = Math.min(255, (pixel >> 8 & 0xFF) + (int) (green * alpha + 0.5f));
+                int b = Math.min(255, (pixel & 0xFF) + (int) (blue * alpha + 0.5f));
+                pixels[rowStart + px] = 0xFF000000 | r << 16 | g << 8 | b;
+            }
+        }
+    }
+
+    /**
+     * Star IDs grouped by tile: those of tile t are ids[start[t]] up to ids[start[t + 1]].
+     */
+    private static final class TileBins {
+        private final int tilesPerSide;
+        private final int[] start;
+        private final int[] ids;
+
+        TileBins(int tilesPerSide, int[] start, int[] ids) {
+            this.tilesPerSide = tilesPerSide;
+            this.start = start;
+            this.ids = ids;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.dqrapps.planetarium.logic.render;
+
+import com.dqrapps.planetarium.logic.type.SpectralClass;
+
+/**
+ * Star colors for every renderer, precomputed once: packed ARGB by spectral class code, brightness bucket and
+ * whether it is the core or the faint glow around it. Spectral classes are resolved to their one-byte code when
+ * a catalog loads, so a star's color is an array lookup with nothing allocated.
+ * <p>
+ * Brightness buckets are magnitude steps of a quarter magnitude between 0 and 5, one bucket for everything
+ * brighter and one for everything fainter. Brightness falls linearly to a floor of 0.2 at magnitude 4.8. Star
+ * sizes step by whole magnitudes, on bucket edges, so the on-screen and dome renderers size stars by bucket too.
+ */
+public final class StarPalette {
+
+    public static final int MAG_BUCKETS = 22;      // Brighter than 0, 0.25 steps up to 5, fainter than 5
+    public static final float GLOW_ALPHA = 0.3f;   // Opacity of the glow around bright stars
+    public static final float GLOW_SCALE = 2.5f;   // Glow diameter relative to the core
+
+    private static final double MAG_STEP = 0.25;
+    private static final int CLASSES = SpectralClass.values().length;
+
+    // Colors by spectral class code as drawn on screen; 0 where the star falls back to a color by magnitude
+    private static final int[] SPECTRAL_RGB = new int[CLASSES];
+
+    static {
+        SPECTRAL_RGB[SpectralClass.W.getCode()] = 0x8CA0FF;  // Wolf-Rayet stars (extremely hot, >25,000 K)
+        SPECTRAL_RGB[SpectralClass.O.getCode()] = 0x9BB0FF;  // Very hot blue stars (30,000-60,000 K)
+        SPECTRAL_RGB[SpectralClass.B.getCode()] = 0xAABFFF;  // Hot blue-white stars (10,000-30,000 K)
+        SPECTRAL_RGB[SpectralClass.A.getCode()] = 0xCAD7FF;  // White stars (7,500-10,000 K)
+        SPECTRAL_RGB[SpectralClass.F.getCode()] = 0xF8F7FF;  // Yellow-white stars (6,000-7,500 K)
+        SPECTRAL_RGB[SpectralClass.G.getCode()] = 0xFFF4EA;  // Yellow stars like our Sun (5,000-6,000 K)
+        SPECTRAL_RGB[SpectralClass.K.getCode()] = 0xFFD2A1;  // Orange stars (3,500-5,000 K)
+        SPECTRAL_RGB[SpectralClass.M.getCode()] = 0xFFCC6F;  // Cool red stars (2,000-3,500 K)
+    }
+
+    private static final float[] BRIGHTNESS = new float[MAG_BUCKETS];
+    private static final double[] DIAMETER = new double[MAG_BUCKETS];
+    private static final int[] ARGB = new int[CLASSES * MAG_BUCKETS * 2];  // Core and glow per class and bucket
+
+    static {
+        int glowAlpha = Math.round(GLOW_ALPHA * 255);
+        for (int bucket = 0; bucket < MAG_BUCKETS; bucket++) {
+            double mag = getBucketMagnitude(bucket);
+            BRIGHTNESS[bucket] = (float) Math.max(0.2, Math.min(1.0, 1.0 - mag / 6.0));
+            DIAMETER[bucket] = diameter(mag);
+            int coreAlpha = Math.round(BRIGHTNESS[bucket] * 255);
+            for (int code = 0; code < CLASSES; code++) {
+                int rgb = resolveRgb(code, mag);
+                ARGB[index(code, bucket, false)] = coreAlpha << 24 | rgb;
+                ARGB[index(code, bucket, true)] = glowAlpha << 24 | rgb;
+            }
+        }
+    }
+
+    private StarPalette() {
+    }
+
+    public static int magnitudeBucket(double mag) {
+        if (mag < 0) {
+            return 0;
+        } else if (mag >= 5.0) {
+            return MAG_BUCKETS - 1;
+        }
+        return 1 + (int) (mag / MAG_STEP);
+    }
+
+    /**
+     * Magnitude a bucket stands for: the middle of its step, or the nearest edge for the open-ended buckets.
+     */
+    public static double getBucketMagnitude(int bucket) {
+        if (bucket == 0) {
+            return -1.0;
+        } else if (bucket == MAG_BUCKETS - 1) {
+            return 5.0;
+        }
+        return (bucket - 1 + 0.5) * MAG_STEP;
+    }
+
+    /**
+     * Opacity of a star's core, 0.2 to 1.
+     */
+    public static float getBrightness(int bucket) {
+        return BRIGHTNESS[bucket];
+    }
+
+    /**
+     * Diameter of a star's core in pixels at zoom 1 on screen, and on a 1024 pixel dome frame; brighter stars are
+     * larger (Phase 1).
+     */
+    public static double getDiameter(int bucket) {
+        return DIAMETER[bucket];
+    }
+
+    /**
+     * Whether stars of a bucket are drawn with a glow, GLOW_SCALE times the core's diameter: those brighter than
+     * magnitude 2.
+     */
+    public static boolean hasGlow(int bucket) {
+        return getBucketMagnitude(bucket) < 2.0;
+    }
+
+    /**
+     * Packed ARGB of a star's core, or of its glow, with the opacity it is drawn at.
+     */
+    public static int getArgb(int spectralCode, int bucket, boolean glow) {
+        return ARGB[index(spectralCode, bucket, glow)];
+    }
+
+    /**
+     * Packed RGB of a star, without opacity.
+     */
+    public static int getRgb(int spectralCode, int bucket) {
+        return ARGB[index(spectralCode, bucket, false)] & 0xFFFFFF;
+    }
+
+    private static int index(int spectralCode, int bucket, boolean glow) {
+        return (spectralCode * MAG_BUCKETS + bucket) * 2 + (glow ? 1 : 0);
+    }
+
+    private static double diameter(double mag) {
+        if (mag < 0) {
+            return 6.0;  // Very bright (e.g., Sirius)
+        } else if (mag < 1.0) {
+            return 5.0;
+        } else if (mag < 2.0) {
+            return 4.0;
+        } else if (mag < 3.0) {
+            return 3.0;
+        } else if (mag < 4.0) {
+            return 2.0;
+        } else if (mag < 5.0) {
+            return 1.5;
+        }
+        return 1.0;
+    }
+
+    private static int resolveRgb(int spectralCode, double mag) {
+        int rgb = SPECTRAL_RGB[spectralCode];
+        if (rgb != 0) {
+            return rgb;
+        }
+        // Fallback: use magnitude-based colors
+        if (mag < 1.0) {
+            return 0xC8DCFF;
+        }
+        return mag < 3.0 ? 0xFFFFFF : 0xFFFAF0;
+    }
+}
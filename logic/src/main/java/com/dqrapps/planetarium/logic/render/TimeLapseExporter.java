@@ -0,0 +1,157 @@
+package com.dqrapps.planetarium.logic.render;
+
+import com.dqrapps.planetarium.logic.model.TimeLapseSequence;
+import com.dqrapps.planetarium.logic.service.CatalogSnapshot;
+import com.dqrapps.planetarium.logic.service.SunCalculator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Exports a time-lapse as numbered dome master PNG files, e.g. a whole night for a planetarium show.
+ * <p>
+ * Each frame depends only on its timestamp, so frames are rendered in parallel by render threads, and finished
+ * frames pass through a bounded queue to PNG encoder threads, since encoding costs about as much as rendering.
+ * A fixed set of rasters circulates between the two stages and rendering waits for an encoder to hand one back,
+ * so memory stays flat however long the sequence is.
+ */
+public class TimeLapseExporter {
+
+    private static final Logger log = Logger.getLogger(TimeLapseExporter.class.getName());
+
+    private static final int HEAP_SHARE = 2;  // Rasters in flight may use up to 1 / HEAP_SHARE of the heap
+
+    private final DomeMasterRenderer renderer;
+    private final int threads;
+
+    public TimeLapseExporter() {
+        this(new DomeMasterRenderer(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads render threads, and as many encoder threads
+     */
+    public TimeLapseExporter(DomeMasterRenderer renderer, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Time-lapse export needs at least one thread: " + threads);
+        }
+        this.renderer = renderer;
+        this.threads = threads;
+    }
+
+    /**
+     * Render and write every frame of a sequence into a directory, created if needed. Returns once all frames
+     * are written, or fails with the first error after the frames in flight have finished.
+     * <p>
+     * Interrupting the calling thread cancels the export: frames not yet started are dropped, the ones in flight
+     * are finished so no file is left half written, and the interruption is rethrown.
+     *
+     * @param progress receives the number of frames written so far, from encoder threads; may be null
+     * @return number of frames written
+     */
+    public int export(CatalogSnapshot snapshot, TimeLapseSequence sequence, Path directory, IntConsumer progress)
+            throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        int frameCount = sequence.getFrameCount();
+        int size = sequence.getResolution().getSize();
+        int inFlight = framesInFlight(size);
+        Files.createDirectories(directory);
+
+        BlockingQueue<DomeFrame> rasters = new ArrayBlockingQueue<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            rasters.add(new DomeFrame(size));
+        }
+        ExecutorService renderers = Executors.newFixedThreadPool(threads, named("timelapse-render"));
+        // Never more frames waiting than rasters exist, so the bounded queue never rejects one
+        ThreadPoolExecutor encoders = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(inFlight), named("timelapse-encode"));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger written = new AtomicInteger();
+
+        try {
+            for (int i = 0; i < frameCount && failure.get() == null; i++) {
+                DomeFrame frame = rasters.take();  // Waits while every raster is being rendered or encoded
+                int index = i;
+                double lst = SunCalculator.calculateLocalSiderealTime(sequence.getFrameTime(i),
+                    sequence.getLongitude());
+                renderers.execute(() -> {
+                    try {
+                        renderer.render(snapshot, lst, sequence.getLatitude(), frame);
+                        encoders.execute(() -> {
+                            try {
+                                frame.writePng(directory.resolve(sequence.getFileName(index)));
+                                int count = written.incrementAndGet();
+                                if (progress != null) {
+                                    progress.accept(count);
+                                }
+                            } catch (Throwable e) {
+                                failure.compareAndSet(null, e);
+                            } finally {
+                                rasters.add(frame);
+                            }
+                        });
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                        rasters.add(frame);
+                    }
+                });
+            }
+            renderers.shutdown();
+            renderers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            encoders.shutdown();
+            encoders.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            renderers.shutdownNow();
+            renderers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            // Not interrupted: an interrupt would close the file channel of a PNG being written
+            encoders.getQueue().clear();
+            encoders.shutdown();
+            encoders.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            log.info(String.format("Time-lapse export cancelled after %d of %d frames", written.get(), frameCount));
+            throw e;
+        } finally {
+            renderers.shutdownNow();
+            encoders.shutdownNow();
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        } else if (error != null) {
+            throw new IOException("Time-lapse export failed: " + error.getMessage(), error);
+        }
+        log.info(String.format("Exported %d time-lapse frames (%dx%d) to %s in %d ms", written.get(), size, size,
+            directory, System.currentTimeMillis() - start));
+        return written.get();
+    }
+
+    /**
+     * Rasters kept in flight: enough to keep every render and encoder thread busy, within the heap share.
+     */
+    private int framesInFlight(int size) {
+        long frameBytes = 4L * size * size;
+        long budget = Runtime.getRuntime().maxMemory() / HEAP_SHARE;
+        return (int) Math.max(1, Math.min(2L * threads, budget / frameBytes));
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
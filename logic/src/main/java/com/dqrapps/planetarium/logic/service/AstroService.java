@@ -18,6 +18,7 @@ public class AstroService {
     private static double DAYS_PER_HOUR = 1.0 / 24.0;
     private static double SIXTY = 60.0;
     private static double THIRTY_SIX_HUNDRED = 3600.0;
+    private static final double MIN_SIN_ALTITUDE = Math.sin(Math.toRadians(-0.5)); // Refraction margin
     private static double SCREEN_RATIO = 279.0 / 191.0;
     /*
         1.78   5.00       x(1.78)  5.00            5.0 x 191
@@ -214,27 +215,48 @@ LT = Latitude (DEG 0 - 90)
      * @return true if the star is above the horizon
      */
     public boolean isVisible(double ra, double dec, double lst, double lat) {
-        // Calculate hour angle (LST - RA)
-        double hourAngle = lst - ra;
-
-        // Normalize hour angle to 0-24 range
-        while (hourAngle < 0) hourAngle += 24.0;
-        while (hourAngle >= 24.0) hourAngle -= 24.0;
-
-        // Convert to radians
+        // Hour angle (LST - RA); its cosine is periodic, so it needs no normalization
+        double hourAngleRad = toRadians((lst - ra) * 15.0);
         double latRad = toRadians(lat);
         double decRad = toRadians(dec);
-        double hourAngleRad = toRadians(hourAngle * 15.0); // Convert hours to degrees to radians
 
         // Calculate altitude using the altitude formula:
         // sin(alt) = sin(lat) * sin(dec) + cos(lat) * cos(dec) * cos(HA)
         double sinAltitude = Math.sin(latRad) * Math.sin(decRad) +
                            Math.cos(latRad) * Math.cos(decRad) * Math.cos(hourAngleRad);
 
-        // Star is visible if altitude > 0 (above horizon)
-        // Adding small margin for atmospheric refraction
-        double altitude = Math.asin(sinAltitude);
-        return altitude > Math.toRadians(-0.5); // -0.5 degrees accounts for refraction
+        // Star is visible if altitude > -0.5 degrees, the margin for atmospheric refraction. Comparing sines
+        // avoids the asin, since sine increases over the range of altitudes
+        return sinAltitude > MIN_SIN_ALTITUDE;
+    }
+
+    /**
+     * Batch form of {@link #isVisible} over the single-precision star unit vectors the batch projection works on.
+     * The zenith is computed once, so each star costs one dot product: sin(altitude) is its vector dotted with the
+     * zenith.
+     *
+     * @param x       unit vector components, read at [from, to)
+     * @param visible bitset over the same indexes, bit i in word i / 64; bits of stars below the horizon are cleared
+     * @return number of stars in [from, to) whose bit is still set
+     */
+    public int cullBelowHorizon(float[] x, float[] y, float[] z, int from, int to, double lst, double lat,
+                                long[] visible) {
+        double latRad = toRadians(lat);
+        double lstRad = toRadians(lst * 15.0);
+        float zenithX = (float) (Math.cos(latRad) * Math.cos(lstRad));
+        float zenithY = (float) (Math.cos(latRad) * Math.sin(lstRad));
+        float zenithZ = (float) Math.sin(latRad);
+        float minSinAltitude = (float) MIN_SIN_ALTITUDE;
+
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            float sinAltitude = x[i] * zenithX + y[i] * zenithY + z[i] * zenithZ;
+            long bit = sinAltitude > minSinAltitude ? 1L << i : 0L;
+            long word = visible[i >> 6] & (~(1L << i) | bit);
+            visible[i >> 6] = word;
+            count += (int) (word >>> i) & 1;
+        }
+        return count;
     }
 
     public double toRadians(double degrees) {
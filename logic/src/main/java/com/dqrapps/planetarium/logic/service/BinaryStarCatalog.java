@@ -0,0 +1,421 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.Star;
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.model.Stars;
+import com.dqrapps.planetarium.logic.type.SpectralClass;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mapped binary star catalog.
+ * <p>
+ * The file is a fixed header followed by one column per field, so a catalog can be opened with
+ * {@link FileChannel#map} and queried in place without parsing. Mapped pages live in the OS page cache
+ * and are shared by every process on the host that opens the same file.
+ * <pre>
+ *   header   magic "PSTC", version, starCount, stringTableOffset, stringTableLength (32 bytes)
+ *   double[] ra                 Right Ascension in hours
+ *   double[] dec                Declination in degrees
+ *   float[]  mag                Apparent magnitude
+ *   int[]    nameOffset         Offset into the string table, -1 if unnamed
+ *   int[]    spectralTypeOffset Offset into the string table, -1 if unknown
+ *   byte[]   spectralClass      First letter of the spectral type (ASCII), 0 if unknown
+ *   byte[]   string table       Deduplicated strings, each an unsigned short length plus UTF-8 bytes
+ * </pre>
+ * All values are little-endian.
+ */
+public class BinaryStarCatalog {
+
+    public static final String EXTENSION = ".bin";
+
+    private static final int MAGIC = 0x43545350; // "PSTC" read little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int NO_STRING = -1;
+
+    private final ByteBuffer buffer;
+    private final int starCount;
+    private final int raOffset;
+    private final int decOffset;
+    private final int magOffset;
+    private final int nameOffset;
+    private final int spectralTypeOffset;
+    private final int spectralClassOffset;
+    private final int stringTableOffset;
+
+    private BinaryStarCatalog(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary star catalog");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary catalog version " + version + " (expected " + VERSION + ")");
+        }
+
+        this.starCount = buffer.getInt(8);
+        this.raOffset = HEADER_SIZE;
+        this.decOffset = raOffset + starCount * Double.BYTES;
+        this.magOffset = decOffset + starCount * Double.BYTES;
+        this.nameOffset = magOffset + starCount * Float.BYTES;
+        this.spectralTypeOffset = nameOffset + starCount * Integer.BYTES;
+        this.spectralClassOffset = spectralTypeOffset + starCount * Integer.BYTES;
+        this.stringTableOffset = (int) buffer.getLong(12);
+
+        if (stringTableOffset < spectralClassOffset + starCount ||
+            stringTableOffset + buffer.getInt(20) > buffer.capacity()) {
+            throw new IOException("Binary star catalog is truncated or corrupt");
+        }
+    }
+
+    /**
+     * Map a binary catalog file read-only.
+     */
+    public static BinaryStarCatalog open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new BinaryStarCatalog(mapped);
+        }
+    }
+
+    /**
+     * Binary catalog path for a JSON catalog path (stars_1k.json -> stars_1k.bin).
+     */
+    public static Path binaryPathFor(Path jsonPath) {
+        String name = jsonPath.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return jsonPath.resolveSibling(base + EXTENSION);
+    }
+
+    /**
+     * Check whether a binary catalog exists and is at least as new as its JSON source.
+     */
+    public static boolean isUpToDate(Path binaryPath, Path jsonPath) {
+        try {
+            return Files.exists(binaryPath) &&
+                Files.getLastModifiedTime(binaryPath).compareTo(Files.getLastModifiedTime(jsonPath)) >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Write stars to a binary catalog.
+     * The file is written to a temporary file and moved into place so other processes never map a partial file.
+     */
+    public static void write(Stars stars, Path path) throws IOException {
+        List<Star> starList = stars.getStarList() != null ? stars.getStarList() : new ArrayList<>();
+        int count = starList.size();
+
+        // Build deduplicated string table
+        Map<String, Integer> stringOffsets = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] nameOffsets = new int[count];
+        int[] spectralTypeOffsets = new int[count];
+        int stringTableLength = 0;
+
+        for (int i = 0; i < count; i++) {
+            Star star = starList.get(i);
+            for (int pass = 0; pass < 2; pass++) {
+                String value = pass == 0 ? star.getName() : star.getSpectralType();
+                int offset = NO_STRING;
+                if (value != null) {
+                    Integer existing = stringOffsets.get(value);
+                    if (existing != null) {
+                        offset = existing;
+                    } else {
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        if (bytes.length > 0xFFFF) {
+                            throw new IOException("String too long for binary catalog: " + value.substring(0, 32) + "...");
+                        }
+                        offset = stringTableLength;
+                        stringOffsets.put(value, offset);
+                        strings.add(bytes);
+                        stringTableLength += Short.BYTES + bytes.length;
+                    }
+                }
+                if (pass == 0) {
+                    nameOffsets[i] = offset;
+                } else {
+                    spectralTypeOffsets[i] = offset;
+                }
+            }
+        }
+
+        ByteBuffer out = allocate(count, stringTableLength);
+        for (Star star : starList) {
+            out.putDouble(star.getRa());
+        }
+        for (Star star : starList) {
+            out.putDouble(star.getDec());
+        }
+        for (Star star : starList) {
+            out.putFloat((float) star.getMag());
+        }
+        for (int offset : nameOffsets) {
+            out.putInt(offset);
+        }
+        for (int offset : spectralTypeOffsets) {
+            out.putInt(offset);
+        }
+        for (Star star : starList) {
+            out.put(spectralClassOf(star.getSpectralType()));
+        }
+        for (byte[] bytes : strings) {
+            out.putShort((short) bytes.length);
+            out.put(bytes);
+        }
+        out.flip();
+        writeFile(out, path);
+    }
+
+    /**
+     * Write a loaded star store to a binary catalog, one bulk copy per column. The store's string pool already has
+     * the layout of the string table, so it is copied as is.
+     * The file is written to a temporary file and moved into place so other processes never map a partial file.
+     */
+    public static void write(StarStore store, Path path) throws IOException {
+        int count = store.size();
+        ByteBuffer pool = store.stringPool();
+        ByteBuffer out = allocate(count, pool.remaining());
+
+        out.asDoubleBuffer().put(store.raColumn());
+        out.position(out.position() + count * Double.BYTES);
+        out.asDoubleBuffer().put(store.decColumn());
+        out.position(out.position() + count * Double.BYTES);
+        out.asFloatBuffer().put(store.magColumn());
+        out.position(out.position() + count * Float.BYTES);
+        out.asIntBuffer().put(store.nameOffsetColumn());
+        out.position(out.position() + count * Integer.BYTES);
+        IntBuffer spectralTypes = store.spectralTypeOffsetColumn();
+        out.asIntBuffer().put(spectralTypes.duplicate());
+        out.position(out.position() + count * Integer.BYTES);
+
+        // The file stores the first letter of the spectral type, which is the first byte of its pool entry
+        for (int i = 0; i < count; i++) {
+            int offset = spectralTypes.get(i);
+            boolean empty = offset == NO_STRING || pool.getShort(offset) == 0;
+            byte first = empty ? 0 : pool.get(offset + Short.BYTES);
+            out.put(first >= 0 ? first : 0);
+        }
+        out.put(pool);
+        out.flip();
+        writeFile(out, path);
+    }
+
+    /**
+     * Buffer for a catalog image of the given size with its header written, positioned at the first column.
+     */
+    private static ByteBuffer allocate(int count, int stringTableLength) throws IOException {
+        long columnsSize = (long) count * (Double.BYTES * 2 + Float.BYTES + Integer.BYTES * 2 + 1);
+        long stringTableOffset = HEADER_SIZE + columnsSize;
+        long totalSize = stringTableOffset + stringTableLength;
+        if (totalSize > Integer.MAX_VALUE) {
+            throw new IOException("Catalog too large for binary format: " + count + " stars");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) totalSize).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putInt(count);
+        out.putLong(stringTableOffset);
+        out.putInt(stringTableLength);
+        out.position(HEADER_SIZE);
+        return out;
+    }
+
+    /**
+     * Write a finished catalog image through a temporary file of its own in the target directory, so concurrent
+     * writers never share one, then move it into place. The move is atomic where the file system supports it;
+     * the temporary file never outlives a failed write.
+     */
+    private static void writeFile(ByteBuffer out, Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static byte spectralClassOf(String spectralType) {
+        if (spectralType == null || spectralType.isEmpty()) {
+            return 0;
+        }
+        char c = spectralType.charAt(0);
+        return c < 128 ? (byte) c : 0;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Column access
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public int size() {
+        return starCount;
+    }
+
+    public double getRa(int index) {
+        return buffer.getDouble(raOffset + index * Double.BYTES);
+    }
+
+    public double getDec(int index) {
+        return buffer.getDouble(decOffset + index * Double.BYTES);
+    }
+
+    public float getMag(int index) {
+        return buffer.getFloat(magOffset + index * Float.BYTES);
+    }
+
+    /**
+     * Spectral class letter (O, B, A, F, G, K, M, ...) or 0 if unknown.
+     */
+    public char getSpectralClass(int index) {
+        return (char) (buffer.get(spectralClassOffset + index) & 0xFF);
+    }
+
+    public String getName(int index) {
+        return readString(buffer.getInt(nameOffset + index * Integer.BYTES));
+    }
+
+    public String getSpectralType(int index) {
+        return readString(buffer.getInt(spectralTypeOffset + index * Integer.BYTES));
+    }
+
+    /**
+     * Read-only view of the RA column for bulk copies.
+     */
+    public DoubleBuffer raColumn() {
+        return slice(raOffset, starCount * Double.BYTES).asDoubleBuffer();
+    }
+
+    /**
+     * Read-only view of the Dec column for bulk copies.
+     */
+    public DoubleBuffer decColumn() {
+        return slice(decOffset, starCount * Double.BYTES).asDoubleBuffer();
+    }
+
+    /**
+     * Read-only view of the magnitude column for bulk copies.
+     */
+    public FloatBuffer magColumn() {
+        return slice(magOffset, starCount * Float.BYTES).asFloatBuffer();
+    }
+
+    /**
+     * Read-only view of the name offset column.
+     */
+    public IntBuffer nameOffsetColumn() {
+        return slice(nameOffset, starCount * Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Read-only view of the spectral type offset column.
+     */
+    public IntBuffer spectralTypeOffsetColumn() {
+        return slice(spectralTypeOffset, starCount * Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Copy the catalog into a {@link StarStore} with one bulk copy per column and no per-star parsing.
+     */
+    public StarStore toStarStore() {
+        double[] ra = new double[starCount];
+        double[] dec = new double[starCount];
+        float[] mag = new float[starCount];
+        int[] names = new int[starCount];
+        int[] spectralTypes = new int[starCount];
+        byte[] spectralClasses = new byte[starCount];
+        byte[] stringPool = new byte[buffer.getInt(20)];
+
+        raColumn().get(ra);
+        decColumn().get(dec);
+        magColumn().get(mag);
+        nameOffsetColumn().get(names);
+        spectralTypeOffsetColumn().get(spectralTypes);
+        slice(spectralClassOffset, starCount).get(spectralClasses);
+        slice(stringTableOffset, stringPool.length).get(stringPool);
+
+        // The file stores the class letter; the store uses SpectralClass codes
+        for (int i = 0; i < starCount; i++) {
+            spectralClasses[i] = SpectralClass.codeOf((char) (spectralClasses[i] & 0xFF));
+        }
+
+        return new StarStore(starCount, ra, dec, mag, spectralClasses, names, spectralTypes, stringPool);
+    }
+
+    /**
+     * Materialize a single star.
+     */
+    public Star getStar(int index) {
+        return Star.builder()
+            .ra(getRa(index))
+            .dec(getDec(index))
+            .mag(getMag(index))
+            .name(getName(index))
+            .spectralType(getSpectralType(index))
+            .build();
+    }
+
+    /**
+     * Materialize the whole catalog as a {@link Stars} list.
+     */
+    public Stars toStars() {
+        List<Star> starList = new ArrayList<>(starCount);
+        for (int i = 0; i < starCount; i++) {
+            starList.add(getStar(i));
+        }
+        return Stars.builder().starList(starList).build();
+    }
+
+    private ByteBuffer slice(int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.limit(offset + length);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private String readString(int offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        int position = stringTableOffset + offset;
+        int length = buffer.getShort(position) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + Short.BYTES);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,53 @@
+package com.dqrapps.planetarium.logic.service;
+
+/**
+ * Progress of an asynchronous catalog load, published after each indexed batch.
+ */
+public class CatalogLoadProgress {
+
+    private final long starsLoaded;
+    private final long expectedStars;
+    private final long bytesRead;
+    private final long totalBytes;
+
+    public CatalogLoadProgress(long starsLoaded, long expectedStars, long bytesRead, long totalBytes) {
+        this.starsLoaded = starsLoaded;
+        this.expectedStars = expectedStars;
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+    }
+
+    public long getStarsLoaded() {
+        return starsLoaded;
+    }
+
+    public long getExpectedStars() {
+        return expectedStars;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Fraction complete (0-1), by bytes read when the file size is known, else by star count.
+     */
+    public double getFraction() {
+        if (totalBytes > 0) {
+            return Math.min(1.0, (double) bytesRead / totalBytes);
+        }
+        if (expectedStars > 0) {
+            return Math.min(1.0, (double) starsLoaded / expectedStars);
+        }
+        return 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d stars (%.0f%%)", starsLoaded, getFraction() * 100.0);
+    }
+}
@@ -0,0 +1,286 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.spatial.SkyIndex;
+import com.dqrapps.planetarium.logic.type.SpatialIndexType;
+import com.dqrapps.planetarium.logic.type.StarCatalog;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Loads star catalogs off the calling thread.
+ * <p>
+ * JSON catalogs are read with Jackson's streaming parser: one thread parses the {@code objects} array into
+ * fixed-size batches while a second thread appends each batch to a {@link StarStore.Builder}, so the columns are
+ * filled in parallel with parsing. The spatial index is bulk-built once the store is complete. Loads complete with a
+ * {@link CatalogSnapshot} that nothing else references yet, ready to be published. Progress is published after every
+ * batch. Cancelling the returned future stops both threads at the next batch boundary.
+ */
+public class CatalogLoader {
+
+    private static final Logger log = Logger.getLogger(CatalogLoader.class.getName());
+
+    public static final int BATCH_SIZE = 2048;
+    private static final int QUEUE_CAPACITY = 8;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ExecutorService executor;
+    private volatile ForkJoinPool indexPool = ForkJoinPool.commonPool();
+
+    /**
+     * Parsed stars handed from the parser thread to the index thread.
+     */
+    private static class Batch {
+        static final Batch END = new Batch(0);
+
+        final double[] ra;
+        final double[] dec;
+        final double[] mag;
+        final String[] name;
+        final String[] spectralType;
+        int count;
+        long bytesRead;
+
+        Batch(int capacity) {
+            ra = new double[capacity];
+            dec = new double[capacity];
+            mag = new double[capacity];
+            name = new String[capacity];
+            spectralType = new String[capacity];
+        }
+
+        boolean isFull() {
+            return count == ra.length;
+        }
+    }
+
+    public CatalogLoader() {
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "CatalogLoaderThread");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Pool that builds the spatial index of each load; its parallelism bounds index construction.
+     */
+    public void setIndexPool(ForkJoinPool pool) {
+        this.indexPool = pool;
+    }
+
+    /**
+     * Stream a JSON catalog into a snapshot.
+     *
+     * @param catalog   catalog metadata for the snapshot, also used to size the store; may be null
+     * @param indexType spatial index to build once parsing ends
+     * @param listener  receives progress on a loader thread, may be null
+     */
+    public CompletableFuture<CatalogSnapshot> loadJson(Path json, StarCatalog catalog, SpatialIndexType indexType,
+                                                       Consumer<CatalogLoadProgress> listener) {
+        CompletableFuture<CatalogSnapshot> result = new CompletableFuture<>();
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        executor.execute(() -> parse(json, queue, result));
+        executor.execute(() -> index(json, catalog, indexType, queue, sizeOf(json), listener, result));
+        return result;
+    }
+
+    /**
+     * Open a binary catalog and index it into a snapshot.
+     */
+    public CompletableFuture<CatalogSnapshot> loadBinary(Path binary, StarCatalog catalog, SpatialIndexType indexType,
+                                                         Consumer<CatalogLoadProgress> listener) {
+        CompletableFuture<CatalogSnapshot> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                StarStore store = BinaryStarCatalog.open(binary).toStarStore();
+                if (result.isDone()) {
+                    return;
+                }
+                SkyIndex index = CatalogSnapshot.buildIndex(store, indexType, indexPool);
+                publish(listener, new CatalogLoadProgress(store.size(), store.size(), 0, 0));
+                result.complete(CatalogSnapshot.of(catalog, store, index, binary.toString()));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Parser thread: read the objects array into batches until done, failed or cancelled.
+     */
+    private void parse(Path json, BlockingQueue<Batch> queue, CompletableFuture<CatalogSnapshot> result) {
+        try (JsonParser parser = jsonFactory.createParser(json.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Not a star catalog: " + json);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("objects".equals(field) && value == JsonToken.START_ARRAY) {
+                    parseStars(parser, queue, result);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            putQuietly(queue, Batch.END);
+        }
+    }
+
+    private void parseStars(JsonParser parser, BlockingQueue<Batch> queue,
+                            CompletableFuture<CatalogSnapshot> result) throws IOException, InterruptedException {
+        Batch batch = new Batch(BATCH_SIZE);
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            // Missing numeric fields default to 0, as with data binding to Star
+            double ra = 0;
+            double dec = 0;
+            double mag = 0;
+            String name = null;
+            String spectralType = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "ra":
+                        ra = parser.getValueAsDouble();
+                        break;
+                    case "dec":
+                        dec = parser.getValueAsDouble();
+                        break;
+                    case "mag":
+                        mag = parser.getValueAsDouble();
+                        break;
+                    case "name":
+                        name = parser.getValueAsString();
+                        break;
+                    case "spectralType":
+                        spectralType = parser.getValueAsString();
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+
+            int i = batch.count++;
+            batch.ra[i] = ra;
+            batch.dec[i] = dec;
+            batch.mag[i] = mag;
+            batch.name[i] = name;
+            batch.spectralType[i] = spectralType;
+
+            if (batch.isFull()) {
+                if (result.isDone()) {
+                    return;
+                }
+                batch.bytesRead = parser.getCurrentLocation().getByteOffset();
+                queue.put(batch);
+                batch = new Batch(BATCH_SIZE);
+            }
+        }
+
+        if (batch.count > 0 && !result.isDone()) {
+            batch.bytesRead = parser.getCurrentLocation().getByteOffset();
+            queue.put(batch);
+        }
+    }
+
+    /**
+     * Index thread: append batches to the store until the parser signals the end, then index the finished store.
+     */
+    private void index(Path json, StarCatalog catalog, SpatialIndexType indexType, BlockingQueue<Batch> queue,
+                       long totalBytes, Consumer<CatalogLoadProgress> listener,
+                       CompletableFuture<CatalogSnapshot> result) {
+        boolean ended = false;
+        try {
+            int expectedStars = catalog != null ? catalog.getStarCount() : 0;
+            StarStore.Builder builder = new StarStore.Builder(expectedStars);
+
+            Batch batch;
+            while ((batch = queue.take()) != Batch.END) {
+                // Keep draining after a cancel or parse failure so the parser never blocks
+                if (result.isDone()) {
+                    continue;
+                }
+                for (int i = 0; i < batch.count; i++) {
+                    builder.add(batch.ra[i], batch.dec[i], batch.mag[i], batch.name[i], batch.spectralType[i]);
+                }
+                publish(listener, new CatalogLoadProgress(builder.size(), expectedStars, batch.bytesRead, totalBytes));
+            }
+            ended = true;
+
+            if (!result.isDone()) {
+                StarStore store = builder.build();
+                SkyIndex index = CatalogSnapshot.buildIndex(store, indexType, indexPool);
+                publish(listener, new CatalogLoadProgress(store.size(), expectedStars, totalBytes, totalBytes));
+                result.complete(CatalogSnapshot.of(catalog, store, index, json.toString()));
+            }
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            if (!ended) {
+                drain(queue);
+            }
+        }
+    }
+
+    /**
+     * Take batches until the parser's end marker after this thread failed, so the parser is never left blocked on
+     * a full queue. The result is already complete, so the parser stops at its next batch.
+     */
+    private static void drain(BlockingQueue<Batch> queue) {
+        try {
+            while (queue.take() != Batch.END) {
+                // Discard
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void publish(Consumer<CatalogLoadProgress> listener, CatalogLoadProgress progress) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.accept(progress);
+        } catch (Exception e) {
+            log.warning("Catalog progress listener failed: " + e.getMessage());
+        }
+    }
+
+    private static void putQuietly(BlockingQueue<Batch> queue, Batch batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.StarConsumer;
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.spatial.HealpixIndex;
+import com.dqrapps.planetarium.logic.spatial.QuadTree;
+import com.dqrapps.planetarium.logic.spatial.SkyIndex;
+import com.dqrapps.planetarium.logic.spatial.SkyRegion;
+import com.dqrapps.planetarium.logic.spatial.StarIdList;
+import com.dqrapps.planetarium.logic.spatial.StarIdSink;
+import com.dqrapps.planetarium.logic.type.SpatialIndexType;
+import com.dqrapps.planetarium.logic.type.StarCatalog;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable view of one loaded catalog: the star columns, their spatial index and where they came from.
+ * <p>
+ * A snapshot is fully built before it is published and never modified afterwards, so readers can take one
+ * snapshot per frame and query it without locking while a different catalog is loaded and swapped in.
+ * Star IDs are only meaningful within the snapshot that produced them.
+ */
+public final class CatalogSnapshot {
+
+    private static final CatalogSnapshot EMPTY = new CatalogSnapshot(null, new StarStore.Builder(0).build(),
+        null, "none");
+
+    private final StarCatalog catalog;
+    private final StarStore store;
+    private final SkyIndex index;
+    private final String source;
+    private final long loadedAt;
+
+    private CatalogSnapshot(StarCatalog catalog, StarStore store, SkyIndex index, String source) {
+        this.catalog = catalog;
+        this.store = store;
+        this.index = index;
+        this.source = source;
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Snapshot with no stars, used before the first catalog is loaded.
+     */
+    public static CatalogSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Wrap a store and an index already built over it. The index must not be modified afterwards.
+     */
+    public static CatalogSnapshot of(StarCatalog catalog, StarStore store, SkyIndex index, String source) {
+        return new CatalogSnapshot(catalog, store, index, source);
+    }
+
+    /**
+     * Build a spatial index of the given type for a store and wrap both.
+     */
+    public static CatalogSnapshot build(StarCatalog catalog, StarStore store, String source, SpatialIndexType indexType) {
+        return new CatalogSnapshot(catalog, store, buildIndex(store, indexType), source);
+    }
+
+    /**
+     * Build a spatial index of the given type for a store on a fork/join pool and wrap both.
+     */
+    public static CatalogSnapshot build(StarCatalog catalog, StarStore store, String source, SpatialIndexType indexType,
+                                        ForkJoinPool pool) {
+        return new CatalogSnapshot(catalog, store, buildIndex(store, indexType, pool), source);
+    }
+
+    /**
+     * Build a spatial index of the given type over all stars with valid coordinates.
+     */
+    public static SkyIndex buildIndex(StarStore store, SpatialIndexType indexType) {
+        return buildIndex(store, indexType, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Build a spatial index of the given type over all stars with valid coordinates, with the pool's parallelism.
+     */
+    public static SkyIndex buildIndex(StarStore store, SpatialIndexType indexType, ForkJoinPool pool) {
+        if (indexType == SpatialIndexType.HEALPIX) {
+            return HealpixIndex.build(store, pool);
+        }
+        return QuadTree.build(store, pool);
+    }
+
+    /**
+     * The catalog this snapshot was loaded from, or null for stars supplied directly.
+     */
+    public StarCatalog getCatalog() {
+        return catalog;
+    }
+
+    public StarStore getStore() {
+        return store;
+    }
+
+    public SkyIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * File or resource the stars were read from.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Query star IDs in a rectangular region. raMin greater than raMax wraps across 0h.
+     */
+    public int[] getStarsInRegion(double raMin, double raMax, double decMin, double decMax) {
+        if (index == null) {
+            return allStarIds();  // Fallback to full catalog
+        }
+        return index.query(SkyRegion.box(raMin, raMax, decMin, decMax));
+    }
+
+    /**
+     * Query star IDs within a circular region (cone search).
+     */
+    public int[] getStarsInRadius(double centerRA, double centerDec, double radiusDeg) {
+        if (index == null) {
+            return allStarIds();  // Fallback
+        }
+        return index.queryCone(centerRA, centerDec, radiusDeg);
+    }
+
+    /**
+     * Visit star IDs inside a region without allocating.
+     */
+    public void forEach(SkyRegion region, StarIdSink sink) {
+        if (index == null) {
+            for (int id = 0; id < store.size(); id++) {
+                sink.accept(id);
+            }
+            return;
+        }
+        index.forEach(region, sink);
+    }
+
+    /**
+     * Visit star IDs within a circular region (cone search).
+     */
+    public void forEachInCone(double centerRA, double centerDec, double radiusDeg, StarIdSink sink) {
+        forEach(SkyRegion.cone(centerRA, centerDec, radiusDeg), sink);
+    }
+
+    /**
+     * Visit stars within a circular region as rows of this snapshot's store.
+     */
+    public void forEachInCone(double centerRA, double centerDec, double radiusDeg, StarConsumer consumer) {
+        forEach(SkyRegion.cone(centerRA, centerDec, radiusDeg), id -> consumer.accept(store, id));
+    }
+
+    /**
+     * Query star IDs inside any region.
+     */
+    public int[] query(SkyRegion region) {
+        if (index == null) {
+            return allStarIds();
+        }
+        return index.query(region);
+    }
+
+    /**
+     * Visit stars inside a region brightest first for as long as the visitor returns true.
+     */
+    public void forEachBrightest(SkyRegion region, IntPredicate visitor) {
+        if (index == null) {
+            int[] ids = allStarIds();  // Fallback to full catalog
+            store.sortByMagnitude(ids, 0, ids.length);
+            for (int i = 0; i < ids.length && visitor.test(ids[i]); i++) {
+                // Visitor decides when to stop
+            }
+            return;
+        }
+        index.forEachBrightest(region, visitor);
+    }
+
+    /**
+     * Visit stars inside a region brightest first until the visitor has kept limit of them.
+     *
+     * @return number of stars kept
+     */
+    public int forEachBrightest(SkyRegion region, int limit, IntPredicate visitor) {
+        if (index == null) {
+            int[] ids = allStarIds();  // Fallback to full catalog
+            store.sortByMagnitude(ids, 0, ids.length);
+            int kept = 0;
+            for (int i = 0; i < ids.length && kept < limit; i++) {
+                if (visitor.test(ids[i])) {
+                    kept++;
+                }
+            }
+            return kept;
+        }
+        return index.forEachBrightest(region, limit, visitor);
+    }
+
+    /**
+     * Find nearest star to a given position.
+     *
+     * @return star ID, or -1 if none is within maxRadiusDeg
+     */
+    public int findNearestStar(double ra, double dec, double maxRadiusDeg) {
+        if (index == null) {
+            return -1;
+        }
+        return index.findNearest(ra, dec, maxRadiusDeg);
+    }
+
+    /**
+     * Find the stars nearest to a given position, closest first.
+     *
+     * @param filter  only stars it accepts are returned, may be null
+     * @param nearest receives up to nearest.length star IDs
+     * @return number of IDs written
+     */
+    public int findNearestStars(double ra, double dec, double maxRadiusDeg, IntPredicate filter, int[] nearest) {
+        if (index == null) {
+            return 0;
+        }
+        return index.findNearest(ra, dec, maxRadiusDeg, filter, nearest);
+    }
+
+    /**
+     * The k stars nearest to a given position, closest first.
+     */
+    public int[] findNearestStars(double ra, double dec, int k) {
+        if (index == null) {
+            return new int[0];
+        }
+        return index.findNearest(ra, dec, k);
+    }
+
+    /**
+     * Find stars whose name contains the query (case-insensitive), brightest first.
+     */
+    public int[] searchByName(String query, int limit) {
+        if (query == null) {
+            return new int[0];
+        }
+
+        String needle = query.toLowerCase();
+        StarIdList matches = new StarIdList();
+        for (int id = 0; id < store.size(); id++) {
+            if (store.hasName(id) && store.getName(id).toLowerCase().contains(needle)) {
+                matches.add(id);
+            }
+        }
+
+        int[] ids = matches.toArray();
+        store.sortByMagnitude(ids, 0, ids.length);
+        return ids.length > limit ? Arrays.copyOf(ids, limit) : ids;
+    }
+
+    private int[] allStarIds() {
+        int[] ids = new int[store.size()];
+        for (int id = 0; id < ids.length; id++) {
+            ids[id] = id;
+        }
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CatalogSnapshot(%s, %,d stars, %s)",
+            catalog != null ? catalog.getDisplayName() : "custom", store.size(), source);
+    }
+}
@@ -0,0 +1,98 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.spatial.SkyRegion;
+import com.dqrapps.planetarium.logic.type.HorizonClass;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Every star of a store classified as circumpolar, rising and setting, or never rising for one observer latitude.
+ * <p>
+ * The class depends only on declination and latitude: a star culminates at altitude 90 - |lat - dec| and reaches
+ * its lowest at |lat + dec| - 90. It is kept as two bitmaps over star IDs, built in parallel once per latitude,
+ * so per-frame horizon tests can skip circumpolar stars and queries can leave out stars that never rise.
+ * Uses the same refraction margin as {@link AstroService#isVisible}; stars within a hair of a boundary are
+ * classified as rising and setting, so the per-frame test still decides for them. Immutable once built.
+ */
+public final class HorizonClassification {
+
+    private static final double HORIZON_MARGIN = 0.5;  // Degrees below the horizon still counted as visible
+    private static final double BOUNDARY = 1e-4;       // Degrees left to the per-frame test either side
+
+    private final StarStore store;
+    private final double latitude;
+    private final long[] circumpolar;
+    private final long[] neverRises;
+
+    private HorizonClassification(StarStore store, double latitude, long[] circumpolar, long[] neverRises) {
+        this.store = store;
+        this.latitude = latitude;
+        this.circumpolar = circumpolar;
+        this.neverRises = neverRises;
+    }
+
+    /**
+     * Classify all stars of a store for a latitude, in parallel on the given pool.
+     */
+    public static HorizonClassification build(StarStore store, double latitude, ForkJoinPool pool) {
+        int words = (store.size() + 63) >> 6;
+        long[] circumpolar = new long[words];
+        long[] neverRises = new long[words];
+
+        // One 64-star word per element, so no two workers write the same word
+        pool.submit(() -> IntStream.range(0, words).parallel().forEach(word -> {
+            int end = Math.min(store.size(), (word + 1) << 6);
+            for (int id = word << 6; id < end; id++) {
+                double dec = store.getDec(id);
+                if (!store.hasValidCoordinates(id)
+                    || Math.abs(latitude - dec) >= 90.0 + HORIZON_MARGIN + BOUNDARY) {
+                    neverRises[word] |= 1L << id;
+                } else if (Math.abs(latitude + dec) > 90.0 - HORIZON_MARGIN + BOUNDARY) {
+                    circumpolar[word] |= 1L << id;
+                }
+            }
+        })).join();
+        return new HorizonClassification(store, latitude, circumpolar, neverRises);
+    }
+
+    public StarStore getStore() {
+        return store;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public HorizonClass classify(int id) {
+        if (isCircumpolar(id)) {
+            return HorizonClass.CIRCUMPOLAR;
+        }
+        return neverRises(id) ? HorizonClass.NEVER_RISES : HorizonClass.RISES_AND_SETS;
+    }
+
+    public boolean isCircumpolar(int id) {
+        return (circumpolar[id >> 6] & (1L << id)) != 0;
+    }
+
+    public boolean neverRises(int id) {
+        return (neverRises[id >> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Whether the star needs a horizon test at a given sidereal time.
+     */
+    public boolean risesAndSets(int id) {
+        return ((circumpolar[id >> 6] | neverRises[id >> 6]) & (1L << id)) == 0;
+    }
+
+    /**
+     * The sky that is above the horizon at some time of day at this latitude: a cap around the visible pole.
+     * Stars outside it never rise, so intersecting a query with it drops them before they are visited.
+     */
+    public SkyRegion getEverVisibleRegion() {
+        double radius = 180.0 + HORIZON_MARGIN + BOUNDARY - Math.abs(latitude);
+        return SkyRegion.cone(0.0, latitude >= 0 ? 90.0 : -90.0, radius);
+    }
+}
@@ -1,11 +1,21 @@
 package com.dqrapps.planetarium.logic.service;
 
+import com.dqrapps.planetarium.logic.spatial.SkyRegion;
+import com.dqrapps.planetarium.logic.spatial.SkyVectors;
+import com.dqrapps.planetarium.logic.type.ProjectionBackend;
 import com.dqrapps.planetarium.logic.type.SkyViewMode;
+import com.sun.management.HotSpotDiagnosticMXBean;
 import lombok.Data;
 
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
 /**
  * Handles conversion of celestial coordinates (RA/Dec) to screen coordinates (x/y).
- * Implements multiple projection modes including single hemisphere, dual hemisphere, and full sky.
+ * Implements multiple projection modes including single hemisphere, dual hemisphere, full sky, and the
+ * local horizon view.
  */
 @Data
 public class SkyProjection {
@@ -18,6 +28,12 @@ public class SkyProjection {
     private double latitude;        // Observer latitude in degrees
     private double localSiderealTime; // LST in hours (0-24)
     private SkyViewMode viewMode;   // Current view mode
+    private ProjectionBackend backend = DEFAULT_BACKEND; // Kernels used by the float batch projection
+
+    private static final Logger log = Logger.getLogger(SkyProjection.class.getName());
+    private static final ProjectionBackend DEFAULT_BACKEND = detectBackend();
+    private static final double HORIZON_MARGIN = Math.toRadians(0.5); // Refraction, as in AstroService.isVisible
+    private static final double MIN_SIN_ALTITUDE = Math.sin(-HORIZON_MARGIN);
 
     public SkyProjection(double centerRA, double centerDec, double fieldOfView,
                          double canvasWidth, double canvasHeight) {
@@ -42,12 +58,412 @@ public class SkyProjection {
                 return raDecToScreenDualHemisphere(ra, dec);
             case FULL_SKY_MERCATOR:
                 return raDecToScreenMercator(ra, dec);
+            case HORIZON:
+                return raDecToScreenHorizon(ra, dec);
             case SINGLE_HEMISPHERE:
             default:
                 return raDecToScreenSingle(ra, dec);
         }
     }
 
+    /**
+     * Batch projection backend chosen for this JVM. The branch-free kernels only pay off where an optimizing JIT
+     * can auto-vectorize them, so they are chosen unless the JVM runs without a JIT compiler or HotSpot reports
+     * C2 or its superword pass switched off. The system property {@code planetarium.projection.backend} (SCALAR or
+     * AUTO_VECTORIZED) overrides the choice.
+     */
+    public static ProjectionBackend detectBackend() {
+        String requested = System.getProperty("planetarium.projection.backend");
+        ProjectionBackend backend;
+        if (requested != null) {
+            try {
+                backend = ProjectionBackend.valueOf(requested.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                log.warning("Unknown projection backend " + requested + ", using scalar");
+                backend = ProjectionBackend.SCALAR;
+            }
+        } else {
+            backend = superWordAvailable() ? ProjectionBackend.AUTO_VECTORIZED : ProjectionBackend.SCALAR;
+        }
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        log.info("Projection backend: " + backend.getDisplayName() + " (" + backend.getDescription() + "); JIT: " +
+            (compiler != null ? compiler.getName() : "none") + ", UseSuperWord: " + hotSpotOption("UseSuperWord"));
+        return backend;
+    }
+
+    /**
+     * Whether the JIT may compile the branch-free kernels to SIMD code: there is a JIT compiler, and unless the
+     * JVM is not HotSpot, C2 is reachable and runs its superword pass.
+     */
+    static boolean superWordAvailable() {
+        if (ManagementFactory.getCompilationMXBean() == null) {
+            return false;  // Interpreter only (-Xint)
+        }
+        if ("false".equals(hotSpotOption("UseSuperWord"))) {
+            return false;
+        }
+        String stopAtLevel = hotSpotOption("TieredStopAtLevel");
+        boolean tiered = !"false".equals(hotSpotOption("TieredCompilation"));
+        return !(tiered && stopAtLevel != null && Integer.parseInt(stopAtLevel) < 4);  // Below level 4 is C1 only
+    }
+
+    /**
+     * Value of a HotSpot VM option, or null on other JVMs.
+     */
+    private static String hotSpotOption(String name) {
+        try {
+            return ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).getVMOption(name).getValue();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Project a batch of star unit vectors (see {@link com.dqrapps.planetarium.logic.model.StarStore#getUnitX})
+     * with the current projection mode and backend, giving the positions of {@link #raDecToScreen} to a small
+     * fraction of a pixel without allocating. The mode switch and all per-view constants are resolved once per
+     * batch. The single hemisphere view reduces to one rotation matrix applied to each vector, with no
+     * trigonometry per star, and the horizon view likewise rotates each vector into the observer's frame with one
+     * matrix for the sidereal time and latitude, culling on the sign of the zenith component.
+     *
+     * @param x       unit vector components, read at [from, to)
+     * @param screenX receives x at the same indexes; left unspecified for stars that are not visible
+     * @param screenY receives y at the same indexes
+     * @param visible bitset over the same indexes, bit i in word i / 64; set for visible stars, cleared otherwise
+     * @return number of visible stars
+     */
+    public int project(float[] x, float[] y, float[] z, int from, int to, float[] screenX, float[] screenY,
+                       long[] visible) {
+        if (backend != ProjectionBackend.AUTO_VECTORIZED) {
+            return projectScalar(x, y, z, from, to, screenX, screenY, visible);
+        }
+        switch (viewMode) {
+            case DUAL_HEMISPHERE:
+                return projectDualHemisphereBranchFree(x, y, z, from, to, screenX, screenY, visible);
+            case FULL_SKY_MERCATOR:
+                return projectMercatorBranchFree(x, y, z, from, to, screenX, screenY, visible);
+            case HORIZON:
+                return projectHorizonBranchFree(x, y, z, from, to, screenX, screenY, visible);
+            case SINGLE_HEMISPHERE:
+            default:
+                return projectSingleBranchFree(x, y, z, from, to, screenX, screenY, visible);
+        }
+    }
+
+    /**
+     * Scalar fallback for the float batch: one star per iteration, in double precision like {@link #raDecToScreen}.
+     */
+    private int projectScalar(float[] x, float[] y, float[] z, int from, int to, float[] screenX, float[] screenY,
+                              long[] visible) {
+        switch (viewMode) {
+            case DUAL_HEMISPHERE:
+                return projectDualHemisphere(x, y, z, from, to, screenX, screenY, visible);
+            case FULL_SKY_MERCATOR:
+                return projectMercator(x, y, z, from, to, screenX, screenY, visible);
+            case HORIZON:
+                return projectHorizon(x, y, z, from, to, screenX, screenY, visible);
+            case SINGLE_HEMISPHERE:
+            default:
+                return projectSingle(x, y, z, from, to, screenX, screenY, visible);
+        }
+    }
+
+    private int projectSingle(float[] x, float[] y, float[] z, int from, int to, float[] screenX, float[] screenY,
+                              long[] visible) {
+        double[] m = new double[9];
+        SkyVectors.viewRotation(centerRA, centerDec, m);
+        double scale = Math.min(canvasWidth, canvasHeight) / Math.toRadians(fieldOfView);
+        double halfWidth = canvasWidth / 2.0;
+        double halfHeight = canvasHeight / 2.0;
+
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            // Rotate into the view frame: east, north, toward the center
+            double east = m[0] * x[i] + m[1] * y[i] + m[2] * z[i];
+            double north = m[3] * x[i] + m[4] * y[i] + m[5] * z[i];
+            double cosDist = m[6] * x[i] + m[7] * y[i] + m[8] * z[i];
+
+            double k = 2.0 / (1.0 + cosDist) * scale;
+            double sx = halfWidth + k * east;
+            double sy = halfHeight - k * north;
+            screenX[i] = (float) sx;
+            screenY[i] = (float) sy;
+
+            boolean shown = cosDist >= 0 && sx >= 0 && sx <= canvasWidth && sy >= 0 && sy <= canvasHeight;
+            count += mark(visible, i, shown);
+        }
+        return count;
+    }
+
+    private int projectDualHemisphere(float[] x, float[] y, float[] z, int from, int to, float[] screenX,
+                                      float[] screenY, long[] visible) {
+        double hemisphereWidth = canvasWidth / 2.0;
+        double hemisphereHeight = canvasHeight;
+        double radiusScale = hemisphereHeight / Math.PI;
+
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            boolean isNorthern = z[i] >= 0;
+
+            // Distance from the pole is atan2(rho, |z|); the azimuth's sine and cosine are y / rho and x / rho
+            double rho = Math.sqrt((double) x[i] * x[i] + (double) y[i] * y[i]);
+            double radius = Math.atan2(rho, Math.abs(z[i])) * radiusScale;
+            double perRho = rho > 0 ? radius / rho : 0.0;
+            double hemisphereOffsetX = isNorthern ? 0 : hemisphereWidth;
+            double sx = hemisphereOffsetX + hemisphereWidth / 2.0 + perRho * y[i];
+            double sy = hemisphereHeight / 2.0 - perRho * x[i];
+            screenX[i] = (float) sx;
+            screenY[i] = (float) sy;
+
+            boolean shown = radius <= hemisphereHeight / 2 && sx >= hemisphereOffsetX
+                && sx <= hemisphereOffsetX + hemisphereWidth && sy >= 0 && sy <= hemisphereHeight;
+            count += mark(visible, i, shown);
+        }
+        return count;
+    }
+
+    private int projectMercator(float[] x, float[] y, float[] z, int from, int to, float[] screenX, float[] screenY,
+                                long[] visible) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            double raRad = Math.atan2(y[i], x[i]);
+            if (raRad < 0) raRad += 2 * Math.PI;
+            double sx = raRad / (2 * Math.PI) * canvasWidth;
+            // atan2 rather than asin(z), which loses precision near the poles
+            double decRad = Math.atan2(z[i], Math.sqrt((double) x[i] * x[i] + (double) y[i] * y[i]));
+            double sy = canvasHeight / 2.0 - (decRad / Math.PI) * canvasHeight;
+            screenX[i] = (float) sx;
+            screenY[i] = (float) sy;
+
+            count += mark(visible, i, sy >= 0 && sy <= canvasHeight);
+        }
+        return count;
+    }
+
+    private int projectHorizon(float[] x, float[] y, float[] z, int from, int to, float[] screenX, float[] screenY,
+                               long[] visible) {
+        double[] m = horizonRotation();
+        double scale = Math.min(canvasWidth, canvasHeight) / Math.toRadians(fieldOfView);
+        double[] screen = new double[2];
+
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            boolean shown = projectHorizonPoint(m[0] * x[i] + m[1] * y[i] + m[2] * z[i],
+                m[3] * x[i] + m[4] * y[i] + m[5] * z[i], m[6] * x[i] + m[7] * y[i] + m[8] * z[i], scale, screen);
+            screenX[i] = (float) screen[0];
+            screenY[i] = (float) screen[1];
+            count += mark(visible, i, shown);
+        }
+        return count;
+    }
+
+    // Branch-free kernels: every arithmetic loop writes a single output array and has no branches, which is the
+    // shape the JIT's superword pass can turn into SIMD code. Transcendental functions have no SIMD form there, so
+    // the polar and cylindrical modes evaluate them in their own scalar loop and vectorize the arithmetic around
+    // them. Visibility is then packed into the bitset a word at a time.
+
+    private int projectSingleBranchFree(float[] x, float[] y, float[] z, int from, int to, float[] screenX,
+                                        float[] screenY, long[] visible) {
+        double[] m = new double[9];
+        SkyVectors.viewRotation(centerRA, centerDec, m);
+        float m0 = (float) m[0], m1 = (float) m[1], m2 = (float) m[2];
+        float m3 = (float) m[3], m4 = (float) m[4], m5 = (float) m[5];
+        float m6 = (float) m[6], m7 = (float) m[7], m8 = (float) m[8];
+        float scale = (float) (2.0 * Math.min(canvasWidth, canvasHeight) / Math.toRadians(fieldOfView));
+        float halfWidth = (float) (canvasWidth / 2.0);
+        float halfHeight = (float) (canvasHeight / 2.0);
+
+        for (int i = from; i < to; i++) {
+            float k = scale / (1f + (m6 * x[i] + m7 * y[i] + m8 * z[i]));
+            screenX[i] = halfWidth + k * (m0 * x[i] + m1 * y[i] + m2 * z[i]);
+        }
+        for (int i = from; i < to; i++) {
+            float k = scale / (1f + (m6 * x[i] + m7 * y[i] + m8 * z[i]));
+            screenY[i] = halfHeight - k * (m3 * x[i] + m4 * y[i] + m5 * z[i]);
+        }
+
+        float width = (float) canvasWidth;
+        float height = (float) canvasHeight;
+        int count = 0;
+        for (int i = from; i < to; ) {
+            int end = Math.min(to, (i | 63) + 1);
+            long word = visible[i >> 6];
+            for (; i < end; i++) {
+                float cosDist = m6 * x[i] + m7 * y[i] + m8 * z[i];
+                boolean shown = cosDist >= 0 & screenX[i] >= 0 & screenX[i] <= width
+                    & screenY[i] >= 0 & screenY[i] <= height;
+                long bit = shown ? 1L : 0L;
+                word = word & ~(1L << i) | bit << i;
+                count += (int) bit;
+            }
+            visible[(end - 1) >> 6] = word;
+        }
+        return count;
+    }
+
+    private int projectDualHemisphereBranchFree(float[] x, float[] y, float[] z, int from, int to,
+                                                float[] screenX, float[] screenY, long[] visible) {
+        float hemisphereWidth = (float) (canvasWidth / 2.0);
+        float halfHeight = (float) (canvasHeight / 2.0);
+        double radiusScale = canvasHeight / Math.PI;
+
+        // Screen radius per unit of distance from the pole axis, staged in screenX
+        for (int i = from; i < to; i++) {
+            double rho = Math.sqrt((double) x[i] * x[i] + (double) y[i] * y[i]);
+            screenX[i] = rho > 0 ? (float) (Math.atan2(rho, Math.abs(z[i])) * radiusScale / rho) : 0f;
+        }
+        for (int i = from; i < to; i++) {
+            screenY[i] = halfHeight - screenX[i] * x[i];
+        }
+        for (int i = from; i < to; i++) {
+            float offsetX = hemisphereWidth * (0.5f - Math.copySign(0.5f, z[i]));
+            screenX[i] = offsetX + hemisphereWidth / 2f + screenX[i] * y[i];
+        }
+
+        float height = (float) canvasHeight;
+        float maxRadiusSq = halfHeight * halfHeight;
+        int count = 0;
+        for (int i = from; i < to; ) {
+            int end = Math.min(to, (i | 63) + 1);
+            long word = visible[i >> 6];
+            for (; i < end; i++) {
+                float offsetX = z[i] >= 0 ? 0f : hemisphereWidth;
+                float dx = screenX[i] - offsetX - hemisphereWidth / 2f;
+                float dy = screenY[i] - halfHeight;
+                boolean shown = dx * dx + dy * dy <= maxRadiusSq & screenX[i] >= offsetX
+                    & screenX[i] <= offsetX + hemisphereWidth & screenY[i] >= 0 & screenY[i] <= height;
+                long bit = shown ? 1L : 0L;
+                word = word & ~(1L << i) | bit << i;
+                count += (int) bit;
+            }
+            visible[(end - 1) >> 6] = word;
+        }
+        return count;
+    }
+
+    private int projectMercatorBranchFree(float[] x, float[] y, float[] z, int from, int to, float[] screenX,
+                                          float[] screenY, long[] visible) {
+        double xScale = canvasWidth / (2 * Math.PI);
+        double yScale = canvasHeight / Math.PI;
+        float width = (float) canvasWidth;
+        float height = (float) canvasHeight;
+
+        for (int i = from; i < to; i++) {
+            screenX[i] = (float) (Math.atan2(y[i], x[i]) * xScale);
+        }
+        for (int i = from; i < to; i++) {
+            screenX[i] += Math.copySign(0.5f, -screenX[i]) * width + 0.5f * width;
+        }
+        for (int i = from; i < to; i++) {
+            // atan2 rather than asin(z), which loses precision near the poles
+            double decRad = Math.atan2(z[i], Math.sqrt((double) x[i] * x[i] + (double) y[i] * y[i]));
+            screenY[i] = (float) (canvasHeight / 2.0 - decRad * yScale);
+        }
+
+        int count = 0;
+        for (int i = from; i < to; ) {
+            int end = Math.min(to, (i | 63) + 1);
+            long word = visible[i >> 6];
+            for (; i < end; i++) {
+                long bit = screenY[i] >= 0 & screenY[i] <= height ? 1L : 0L;
+                word = word & ~(1L << i) | bit << i;
+                count += (int) bit;
+            }
+            visible[(end - 1) >> 6] = word;
+        }
+        return count;
+    }
+
+    private int projectHorizonBranchFree(float[] x, float[] y, float[] z, int from, int to, float[] screenX,
+                                         float[] screenY, long[] visible) {
+        double[] m = horizonRotation();
+        float m0 = (float) m[0], m1 = (float) m[1], m2 = (float) m[2];
+        float m3 = (float) m[3], m4 = (float) m[4], m5 = (float) m[5];
+        float m6 = (float) m[6], m7 = (float) m[7], m8 = (float) m[8];
+        float scale = (float) (2.0 * Math.min(canvasWidth, canvasHeight) / Math.toRadians(fieldOfView));
+        float halfWidth = (float) (canvasWidth / 2.0);
+        float halfHeight = (float) (canvasHeight / 2.0);
+
+        // Screen distance per unit of distance from the zenith axis, staged in screenX. With t = tan(c / 2) for
+        // zenith distance c, t^2 = (1 - up) / (1 + up) and c / rho = 2 atan(t) / t / (1 + up), so there is no
+        // atan2, square root or division by rho, and the loop vectorizes like the stereographic one
+        for (int i = from; i < to; i++) {
+            float up = m6 * x[i] + m7 * y[i] + m8 * z[i];
+            screenX[i] = scale * atanOverT((1f - up) / (1f + up)) / (1f + up);
+        }
+        for (int i = from; i < to; i++) {
+            screenY[i] = halfHeight - screenX[i] * (m3 * x[i] + m4 * y[i] + m5 * z[i]);
+        }
+        for (int i = from; i < to; i++) {
+            screenX[i] = halfWidth - screenX[i] * (m0 * x[i] + m1 * y[i] + m2 * z[i]);
+        }
+
+        float minUp = (float) MIN_SIN_ALTITUDE;
+        float width = (float) canvasWidth;
+        float height = (float) canvasHeight;
+        int count = 0;
+        for (int i = from; i < to; ) {
+            int end = Math.min(to, (i | 63) + 1);
+            long word = visible[i >> 6];
+            for (; i < end; i++) {
+                float up = m6 * x[i] + m7 * y[i] + m8 * z[i];
+                boolean shown = up > minUp & screenX[i] >= 0 & screenX[i] <= width
+                    & screenY[i] >= 0 & screenY[i] <= height;
+                long bit = shown ? 1L : 0L;
+                word = word & ~(1L << i) | bit << i;
+                count += (int) bit;
+            }
+            visible[(end - 1) >> 6] = word;
+        }
+        return count;
+    }
+
+    /**
+     * atan(t) / t as a polynomial in s = t^2, for s in [0, 1.04], which covers zenith distances to a little
+     * past 90 degrees. Chebyshev fit; atan(t) is off by less than 1e-7 radians.
+     */
+    private static float atanOverT(float s) {
+        return 0.999999852f + s * (-0.333314945f + s * (0.199615353f + s * (-0.139687409f + s * (0.0976460126f
+            + s * (-0.0572215532f + s * (0.0225554169f + s * -0.00419448331f))))));
+    }
+
+    /**
+     * Rotation into the observer's horizon frame at this projection's sidereal time and latitude. The zenith is
+     * at RA = LST and Dec = latitude, and the view rotation there has rows pointing east, north and up, so the
+     * last row gives the sine of a star's altitude.
+     */
+    private double[] horizonRotation() {
+        double[] m = new double[9];
+        SkyVectors.viewRotation(localSiderealTime, latitude, m);
+        return m;
+    }
+
+    /**
+     * Zenith fisheye (azimuthal equidistant): distance from the canvas center is proportional to the zenith
+     * distance, with north up and east to the left. Writes the screen position of a horizon-frame vector to out
+     * and returns whether it is drawn: above the horizon, with the refraction margin, and on the canvas.
+     */
+    private boolean projectHorizonPoint(double east, double north, double up, double scale, double[] out) {
+        double rho = Math.sqrt(east * east + north * north);
+        double k = rho > 0 ? Math.atan2(rho, up) * scale / rho : 0.0;
+        out[0] = canvasWidth / 2.0 - k * east;
+        out[1] = canvasHeight / 2.0 - k * north;
+        return up > MIN_SIN_ALTITUDE && out[0] >= 0 && out[0] <= canvasWidth && out[1] >= 0
+            && out[1] <= canvasHeight;
+    }
+
+    /**
+     * Set or clear bit i of a bitset, returning 1 if set.
+     */
+    private static int mark(long[] bits, int i, boolean set) {
+        if (set) {
+            bits[i >> 6] |= 1L << i;
+            return 1;
+        }
+        bits[i >> 6] &= ~(1L << i);
+        return 0;
+    }
+
     /**
      * Original single hemisphere projection (stereographic).
      */
@@ -87,6 +503,217 @@ public class SkyProjection {
         return new double[]{screenX, screenY};
     }
 
+    /**
+     * Convert screen x/y coordinates back to RA/Dec, the exact inverse of {@link #raDecToScreen} in every mode.
+     *
+     * @return Array [ra, dec] in hours and degrees, or null if no sky is drawn at the point
+     */
+    public double[] screenToRaDec(double screenX, double screenY) {
+        if (screenX < 0 || screenX > canvasWidth || screenY < 0 || screenY > canvasHeight) {
+            return null;
+        }
+        switch (viewMode) {
+            case DUAL_HEMISPHERE:
+                return screenToRaDecDualHemisphere(screenX, screenY);
+            case FULL_SKY_MERCATOR:
+                return new double[]{normalizeHours(screenX / canvasWidth * 24.0),
+                    (canvasHeight / 2.0 - screenY) / canvasHeight * 180.0};
+            case HORIZON:
+                return screenToRaDecHorizon(screenX, screenY);
+            case SINGLE_HEMISPHERE:
+            default:
+                return screenToRaDecSingle(screenX, screenY);
+        }
+    }
+
+    private double[] screenToRaDecSingle(double screenX, double screenY) {
+        double scale = Math.min(canvasWidth, canvasHeight) / Math.toRadians(fieldOfView);
+        double x = (screenX - canvasWidth / 2.0) / scale;
+        double y = (canvasHeight / 2.0 - screenY) / scale;
+        double rho = Math.sqrt(x * x + y * y);
+        double centerRARad = Math.toRadians(centerRA * 15.0);
+        double centerDecRad = Math.toRadians(centerDec);
+        if (rho == 0) {
+            return new double[]{centerRA, centerDec};
+        }
+        if (rho > 2.0) {
+            return null;  // Beyond 90 degrees from the center, which is never drawn
+        }
+
+        // Inverse stereographic: rho = 2 tan(c / 2) for angular distance c from the center
+        double c = 2.0 * Math.atan(rho / 2.0);
+        double sinC = Math.sin(c);
+        double cosC = Math.cos(c);
+        double dec = Math.asin(cosC * Math.sin(centerDecRad) + y * sinC * Math.cos(centerDecRad) / rho);
+        double ra = centerRARad + Math.atan2(x * sinC,
+                rho * Math.cos(centerDecRad) * cosC - y * Math.sin(centerDecRad) * sinC);
+
+        return new double[]{normalizeHours(Math.toDegrees(ra) / 15.0), Math.toDegrees(dec)};
+    }
+
+    private double[] screenToRaDecDualHemisphere(double screenX, double screenY) {
+        double hemisphereWidth = canvasWidth / 2.0;
+        boolean isNorthern = screenX < hemisphereWidth;
+        double hemisphereOffsetX = isNorthern ? 0 : hemisphereWidth;
+        double x = screenX - hemisphereOffsetX - hemisphereWidth / 2.0;
+        double y = canvasHeight / 2.0 - screenY;
+        double radius = Math.sqrt(x * x + y * y);
+        if (radius > canvasHeight / 2.0) {
+            return null;  // Outside the hemisphere's disc
+        }
+
+        // Azimuthal equidistant around the pole: radius is the distance from it, the azimuth is the RA
+        double poleDistance = radius * 180.0 / canvasHeight;
+        double ra = normalizeHours(Math.toDegrees(Math.atan2(x, y)) / 15.0);
+        return new double[]{ra, isNorthern ? 90.0 - poleDistance : poleDistance - 90.0};
+    }
+
+    private double[] screenToRaDecHorizon(double screenX, double screenY) {
+        double scale = Math.min(canvasWidth, canvasHeight) / Math.toRadians(fieldOfView);
+        double east = (canvasWidth / 2.0 - screenX) / scale;
+        double north = (canvasHeight / 2.0 - screenY) / scale;
+        double zenithDistance = Math.sqrt(east * east + north * north);
+        if (zenithDistance >= Math.PI / 2 + HORIZON_MARGIN) {
+            return null;  // Below the horizon, which is never drawn
+        }
+
+        // Back onto the sphere in the horizon frame, then through the transposed (inverse) rotation
+        double perRadian = zenithDistance > 0 ? Math.sin(zenithDistance) / zenithDistance : 1.0;
+        double e = east * perRadian;
+        double n = north * perRadian;
+        double u = Math.cos(zenithDistance);
+        double[] m = horizonRotation();
+        double x = m[0] * e + m[3] * n + m[6] * u;
+        double y = m[1] * e + m[4] * n + m[7] * u;
+        double z = m[2] * e + m[5] * n + m[8] * u;
+        return new double[]{normalizeHours(Math.toDegrees(Math.atan2(y, x)) / 15.0),
+            Math.toDegrees(Math.atan2(z, Math.sqrt(x * x + y * y)))};
+    }
+
+    private static double normalizeHours(double hours) {
+        double h = hours % 24.0;
+        return h < 0 ? h + 24.0 : h;
+    }
+
+    /**
+     * Upper bound on the sky angle per screen pixel, in degrees: anything within n pixels of a screen point is
+     * within n times this angle of it on the sky. The projections here only ever stretch the sky away from their
+     * center or pole, so this is the scale there (along the x or y axis, whichever is coarser).
+     */
+    public double getDegreesPerPixel() {
+        switch (viewMode) {
+            case DUAL_HEMISPHERE:
+                return 180.0 / canvasHeight;
+            case FULL_SKY_MERCATOR:
+                return Math.max(360.0 / canvasWidth, 180.0 / canvasHeight);
+            case HORIZON:
+            case SINGLE_HEMISPHERE:
+            default:
+                return fieldOfView / Math.min(canvasWidth, canvasHeight);
+        }
+    }
+
+    /**
+     * The part of the sky drawn by the current mode, as the footprint to query the spatial index with.
+     * <ul>
+     * <li>Single hemisphere: the stereographic projection maps each canvas edge to a circle on the sphere, so the
+     * view is exactly the intersection of one cap per edge and the hemisphere around the view center. This follows
+     * the canvas aspect ratio, which a cone around the center cannot.</li>
+     * <li>Dual hemisphere: one polar cap per panel. Exact while each panel is at least as wide as its disc,
+     * otherwise it also covers the clipped sides.</li>
+     * <li>Mercator: the whole sky.</li>
+     * <li>Horizon: the cap around the zenith out to the farthest canvas corner, cut at the horizon. The fisheye
+     * maps the canvas edges to curves that are not circles on the sky, so this covers the view rather than
+     * matching it.</li>
+     * </ul>
+     */
+    public SkyRegion getVisibleRegion() {
+        return visibleRegion(false);
+    }
+
+    /**
+     * {@link #getVisibleRegion()} restricted to the sky above the horizon at this projection's latitude and
+     * sidereal time, with the same refraction margin as {@link AstroService#isVisible}.
+     */
+    public SkyRegion getVisibleRegionAboveHorizon() {
+        return visibleRegion(true);
+    }
+
+    private SkyRegion visibleRegion(boolean aboveHorizon) {
+        double[] horizon = aboveHorizon ? SkyVectors.toVector(localSiderealTime, latitude) : null;
+        switch (viewMode) {
+            case DUAL_HEMISPHERE:
+                return SkyRegion.union(
+                    caps(new double[]{0.0, 0.0, 1.0}, new double[]{Math.PI / 2}, horizon),
+                    caps(new double[]{0.0, 0.0, -1.0}, new double[]{Math.PI / 2}, horizon));
+            case FULL_SKY_MERCATOR:
+                return horizon != null ? caps(new double[0], new double[0], horizon)
+                    : SkyRegion.box(0.0, 24.0, -90.0, 90.0);
+            case HORIZON:
+                // Already above the horizon, with or without the restriction
+                double scale = Math.min(canvasWidth, canvasHeight) / Math.toRadians(fieldOfView);
+                double cornerDistance = Math.hypot(canvasWidth, canvasHeight) / 2.0 / scale;
+                return SkyRegion.caps(SkyVectors.toVector(localSiderealTime, latitude),
+                    new double[]{Math.min(cornerDistance, Math.PI / 2 + HORIZON_MARGIN)});
+            case SINGLE_HEMISPHERE:
+            default:
+                return caps(singleHemisphereCenters(), singleHemisphereRadii(), horizon);
+        }
+    }
+
+    /**
+     * Caps region, plus the cap above the horizon around the given zenith when it is not null.
+     */
+    private static SkyRegion caps(double[] centers, double[] radii, double[] zenith) {
+        if (zenith == null) {
+            return SkyRegion.caps(centers, radii);
+        }
+        double[] allCenters = Arrays.copyOf(centers, centers.length + 3);
+        double[] allRadii = Arrays.copyOf(radii, radii.length + 1);
+        System.arraycopy(zenith, 0, allCenters, centers.length, 3);
+        allRadii[radii.length] = Math.PI / 2 + HORIZON_MARGIN;
+        return SkyRegion.caps(allCenters, allRadii);
+    }
+
+    private double[] singleHemisphereCenters() {
+        double[] m = new double[9];
+        SkyVectors.viewRotation(centerRA, centerDec, m);
+        double scale = Math.min(canvasWidth, canvasHeight) / Math.toRadians(fieldOfView);
+        double halfWidth = canvasWidth / 2.0 / scale;    // Edge offsets in the projection plane
+        double halfHeight = canvasHeight / 2.0 / scale;
+
+        // Stereographic x = 2 east / (1 + toward), so x <= a is (a toward - 2 east) . v >= -a; likewise per edge
+        double[] centers = new double[15];
+        edgeCap(m, 0, -2.0, halfWidth, centers, 0);    // Right
+        edgeCap(m, 0, 2.0, halfWidth, centers, 1);     // Left
+        edgeCap(m, 3, -2.0, halfHeight, centers, 2);   // Top
+        edgeCap(m, 3, 2.0, halfHeight, centers, 3);    // Bottom
+        System.arraycopy(m, 6, centers, 12, 3);          // Hemisphere facing the viewer
+        return centers;
+    }
+
+    private double[] singleHemisphereRadii() {
+        double scale = Math.min(canvasWidth, canvasHeight) / Math.toRadians(fieldOfView);
+        double halfWidth = canvasWidth / 2.0 / scale;
+        double halfHeight = canvasHeight / 2.0 / scale;
+        double widthRadius = Math.acos(-halfWidth / Math.sqrt(4.0 + halfWidth * halfWidth));
+        double heightRadius = Math.acos(-halfHeight / Math.sqrt(4.0 + halfHeight * halfHeight));
+        return new double[]{widthRadius, widthRadius, heightRadius, heightRadius, Math.PI / 2};
+    }
+
+    /**
+     * Center of the cap of the points v with (axisWeight * axis + offset * toward) . v >= -offset, where axis is
+     * row axisRow of the view rotation and toward its last row. The cap's radius is acos(-offset / norm).
+     */
+    private static void edgeCap(double[] m, int axisRow, double axisWeight, double offset, double[] centers,
+                                int cap) {
+        double norm = Math.sqrt(4.0 + offset * offset);
+        for (int k = 0; k < 3; k++) {
+            centers[cap * 3 + k] = (axisWeight * m[axisRow + k] + offset * m[6 + k]) / norm;
+        }
+    }
+
+
     /**
      * Dual hemisphere projection - shows both northern and southern hemispheres side by side.
      */
@@ -171,6 +798,27 @@ public class SkyProjection {
         return new double[]{x, y};
     }
 
+    /**
+     * Horizon view projection - zenith-centered fisheye of the local sky.
+     */
+    private double[] raDecToScreenHorizon(double ra, double dec) {
+        double[] v = SkyVectors.toVector(ra, dec);
+        double[] m = horizonRotation();
+        double scale = Math.min(canvasWidth, canvasHeight) / Math.toRadians(fieldOfView);
+        double[] screen = new double[2];
+        boolean shown = projectHorizonPoint(m[0] * v[0] + m[1] * v[1] + m[2] * v[2],
+            m[3] * v[0] + m[4] * v[1] + m[5] * v[2], m[6] * v[0] + m[7] * v[1] + m[8] * v[2], scale, screen);
+        return shown ? screen : null;
+    }
+
+    /**
+     * Whether screen positions change with sidereal time and latitude, which is only so in the horizon view;
+     * the equatorial modes draw the sky fixed to the view center.
+     */
+    public boolean dependsOnTime() {
+        return viewMode == SkyViewMode.HORIZON;
+    }
+
     /**
      * Check if a star at given RA/Dec is within the current viewport.
      *
@@ -0,0 +1,71 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.Stars;
+import com.dqrapps.planetarium.logic.type.StarCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts JSON star catalogs (stars_*.json) into the memory-mapped binary format read by {@link BinaryStarCatalog}.
+ * <p>
+ * Usage: {@code StarCatalogConverter [catalog.json ...]}. With no arguments every {@link StarCatalog} file found in the
+ * current directory or gui/ is converted.
+ */
+public class StarCatalogConverter {
+
+    private final ObjectMapper om = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        StarCatalogConverter converter = new StarCatalogConverter();
+
+        List<File> inputs = new ArrayList<>();
+        if (args.length > 0) {
+            for (String arg : args) {
+                inputs.add(new File(arg));
+            }
+        } else {
+            for (StarCatalog catalog : StarCatalog.values()) {
+                File file = new File(catalog.getFilename());
+                if (!file.exists()) {
+                    file = new File("gui/" + catalog.getFilename());
+                }
+                if (file.exists()) {
+                    inputs.add(file);
+                }
+            }
+        }
+
+        for (File input : inputs) {
+            if (!input.exists()) {
+                System.out.println("Skipping missing catalog: " + input);
+                continue;
+            }
+            Path output = converter.convert(input.toPath());
+            System.out.println("Converted " + input + " -> " + output);
+        }
+    }
+
+    /**
+     * Convert one JSON catalog, writing the binary file next to it.
+     *
+     * @return path of the binary catalog
+     */
+    public Path convert(Path jsonPath) throws IOException {
+        Path binaryPath = BinaryStarCatalog.binaryPathFor(jsonPath);
+        convert(jsonPath, binaryPath);
+        return binaryPath;
+    }
+
+    /**
+     * Convert a JSON catalog to a binary catalog at the given path.
+     */
+    public void convert(Path jsonPath, Path binaryPath) throws IOException {
+        Stars stars = om.readerFor(Stars.class).readValue(jsonPath.toFile());
+        BinaryStarCatalog.write(stars, binaryPath);
+    }
+}
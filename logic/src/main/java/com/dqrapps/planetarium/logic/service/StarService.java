@@ -1,8 +1,11 @@
 package com.dqrapps.planetarium.logic.service;
 
+import com.dqrapps.planetarium.logic.model.StarConsumer;
+import com.dqrapps.planetarium.logic.model.StarStore;
 import com.dqrapps.planetarium.logic.model.Stars;
-import com.dqrapps.planetarium.logic.model.Star;
-import com.dqrapps.planetarium.logic.spatial.QuadTree;
+import com.dqrapps.planetarium.logic.spatial.SkyRegion;
+import com.dqrapps.planetarium.logic.spatial.StarIdSink;
+import com.dqrapps.planetarium.logic.type.SpatialIndexType;
 import com.dqrapps.planetarium.logic.type.StarCatalog;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
@@ -10,39 +13,61 @@ import lombok.SneakyThrows;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
+/**
+ * Owns the current star catalog.
+ * <p>
+ * The catalog is published as an immutable {@link CatalogSnapshot} through a single atomic reference: loading
+ * builds a complete snapshot off to the side and swaps it in with one write, so readers never see a store and
+ * index from different catalogs. Hot paths should call {@link #getSnapshot()} once per frame and query that.
+ */
 public class StarService {
 
     private static final Logger log = Logger.getLogger(StarService.class.getName());
 
     private final ObjectMapper om;
-    private Stars stars;
-    private QuadTree spatialIndex;
-    private StarCatalog currentCatalog;
+    private final CatalogLoader catalogLoader;
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>(CatalogSnapshot.empty());
+    private volatile SpatialIndexType indexType = SpatialIndexType.QUADTREE;
+    private volatile ForkJoinPool indexPool = ForkJoinPool.commonPool();
+    private volatile HorizonClassification horizonClassification;
 
-    private static StarService instance = null;
+    private static volatile StarService instance = null;
     private static final String resourceName = "/data/stars.json";
     private static final String fallbackFilename = "stars.json";
 
     private StarService() {
         om = new ObjectMapper();
-        currentCatalog = StarCatalog.BRIGHT_STARS_166; // Default catalog
+        catalogLoader = new CatalogLoader();
     }
 
     @SneakyThrows
     public static StarService getInstance() {
-        if (instance == null) {
-            instance = new StarService();
-            instance.stars = instance.loadStars(null);
-            instance.buildSpatialIndex();
+        StarService service = instance;
+        if (service == null) {
+            synchronized (StarService.class) {
+                service = instance;
+                if (service == null) {
+                    // Fully load the default catalog before other threads can see the instance
+                    service = new StarService();
+                    StarStore defaultStore = service.loadStore(null);
+                    service.publish(CatalogSnapshot.build(StarCatalog.BRIGHT_STARS_166, defaultStore, "default",
+                        service.indexType));
+                    instance = service;
+                }
+            }
         }
-        return instance;
+        return service;
     }
 
     /**
-     * Load a specific star catalog.
+     * Load a specific star catalog on the calling thread.
      */
     public void loadCatalog(StarCatalog catalog) {
         log.info("Loading catalog: " + catalog.getDisplayName() + " (" + catalog.getStarCount() + " stars)");
@@ -51,28 +76,26 @@ public class StarService {
 
         try {
             // Load the stars first - this can throw an exception
-            Stars loadedStars = loadStars(catalog.getFilename());
-
-            // Only update if successful
-            this.stars = loadedStars;
-            this.currentCatalog = catalog;
+            StarStore loadedStore = loadStore(catalog.getFilename());
 
-            // Build spatial index for fast queries
-            buildSpatialIndex();
+            // Build spatial index, then publish store and index together
+            CatalogSnapshot loaded = CatalogSnapshot.build(catalog, loadedStore, catalog.getFilename(), indexType,
+                indexPool);
+            publish(loaded);
 
             long loadTime = System.currentTimeMillis() - startTime;
-            int actualCount = stars != null && stars.getStarList() != null ? stars.getStarList().size() : 0;
 
-            log.info(String.format("✅ Loaded %s: %,d stars in %d ms (%.1f MB estimated)",
-                catalog.getDisplayName(), actualCount, loadTime, catalog.getEstimatedMemoryMB()));
+            log.info(String.format("✅ Loaded %s: %,d stars in %d ms (%.1f MB)",
+                catalog.getDisplayName(), loaded.size(), loadTime,
+                loaded.getStore().getMemoryBytes() / (1024.0 * 1024.0)));
 
         } catch (Exception e) {
             log.warning("Failed to load catalog " + catalog.getDisplayName() + ": " + e.getMessage());
             e.printStackTrace(); // Print full stack trace for debugging
 
-            // Don't change currentCatalog if we fail - keep the existing one
+            // Don't change the current catalog if we fail - keep the existing one
             // Only fallback to default if we have no stars at all
-            if (stars == null) {
+            if (getSnapshot().size() == 0 && catalog != StarCatalog.BRIGHT_STARS_166) {
                 try {
                     loadCatalog(StarCatalog.BRIGHT_STARS_166);
                 } catch (Exception fallbackException) {
@@ -83,74 +106,234 @@ public class StarService {
     }
 
     /**
-     * Get current catalog information.
+     * Load a star catalog in the background and publish it once it is complete.
+     * The current catalog stays in use until then; cancelling the future abandons the load.
+     *
+     * @param progressListener receives progress on a loader thread, may be null
+     * @return completes with the published snapshot
      */
-    public StarCatalog getCurrentCatalog() {
-        return currentCatalog;
+    public CompletableFuture<CatalogSnapshot> loadCatalogAsync(StarCatalog catalog,
+                                                               Consumer<CatalogLoadProgress> progressListener) {
+        CompletableFuture<CatalogSnapshot> preload = preloadCatalog(catalog, progressListener);
+        CompletableFuture<CatalogSnapshot> result = preload.thenApply(loaded -> {
+            publish(loaded);
+            return loaded;
+        });
+
+        // Cancelling the returned future must stop the loader threads too
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                preload.cancel(false);
+            }
+        });
+        return result;
     }
 
     /**
-     * Get current star count.
+     * Load a star catalog in the background without publishing it, e.g. to prepare the next catalog while the
+     * current one is displayed. Pass the result to {@link #publish(CatalogSnapshot)} to swap it in.
+     * JSON catalogs are streamed and indexed while they are parsed.
+     *
+     * @param progressListener receives progress on a loader thread, may be null
      */
-    public int getCurrentStarCount() {
-        return stars != null && stars.getStarList() != null ? stars.getStarList().size() : 0;
+    public CompletableFuture<CatalogSnapshot> preloadCatalog(StarCatalog catalog,
+                                                             Consumer<CatalogLoadProgress> progressListener) {
+        log.info("Loading catalog in background: " + catalog.getDisplayName() +
+            " (" + catalog.getStarCount() + " stars)");
+
+        long startTime = System.currentTimeMillis();
+        Path catalogPath;
+        try {
+            catalogPath = resolveCatalogPath(catalog.getFilename());
+        } catch (IOException e) {
+            CompletableFuture<CatalogSnapshot> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        boolean binary = catalogPath.toString().endsWith(BinaryStarCatalog.EXTENSION);
+        CompletableFuture<CatalogSnapshot> load;
+        if (binary) {
+            log.info("Loading stars from binary catalog: " + catalogPath.toAbsolutePath());
+            load = catalogLoader.loadBinary(catalogPath, catalog, indexType, progressListener);
+        } else {
+            log.info("Streaming stars from: " + catalogPath.toAbsolutePath());
+            load = catalogLoader.loadJson(catalogPath, catalog, indexType, progressListener);
+        }
+
+        CompletableFuture<CatalogSnapshot> result = load.thenApply(loaded -> {
+            log.info(String.format("✅ Loaded %s: %,d stars in %d ms (%.1f MB)",
+                catalog.getDisplayName(), loaded.size(), System.currentTimeMillis() - startTime,
+                loaded.getStore().getMemoryBytes() / (1024.0 * 1024.0)));
+
+            if (!binary) {
+                writeBinaryCache(loaded.getStore(), BinaryStarCatalog.binaryPathFor(catalogPath));
+            }
+            return loaded;
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                load.cancel(false);
+                log.info("Cancelled loading catalog: " + catalog.getDisplayName());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Make a snapshot the current catalog with a single reference swap.
+     *
+     * @return the snapshot it replaced
+     */
+    public CatalogSnapshot publish(CatalogSnapshot loaded) {
+        CatalogSnapshot previous = snapshot.getAndSet(loaded);
+        log.info("Published " + loaded + " (spatial index: " +
+            (loaded.getIndex() != null ? loaded.getIndex().size() : 0) + " stars)");
+        return previous;
     }
 
     /**
-     * Build QuadTree spatial index for fast star queries.
+     * The current catalog. Never null; take it once and query it for a consistent view.
      */
-    private void buildSpatialIndex() {
-        if (stars == null || stars.getStarList() == null) {
+    public CatalogSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    public SpatialIndexType getIndexType() {
+        return indexType;
+    }
+
+    /**
+     * Select the spatial index implementation. The current catalog is re-indexed and republished;
+     * catalogs loaded afterwards use the new type.
+     */
+    public void setIndexType(SpatialIndexType type) {
+        if (type == indexType) {
             return;
         }
+        indexType = type;
+        CatalogSnapshot current = getSnapshot();
+        if (current.size() > 0) {
+            publish(CatalogSnapshot.build(current.getCatalog(), current.getStore(), current.getSource(), type,
+                indexPool));
+        }
+    }
 
-        // Create quadtree covering entire celestial sphere
-        // RA: 0-24 hours, Dec: -90 to +90 degrees
-        QuadTree.Bounds bounds = new QuadTree.Bounds(0, 24, -90, 90);
-        spatialIndex = new QuadTree(bounds, 0);
+    /**
+     * Number of threads building spatial indexes.
+     */
+    public int getIndexParallelism() {
+        return indexPool.getParallelism();
+    }
 
-        // Insert all stars
-        for (Star star : stars.getStarList()) {
-            if (star.hasValidCoordinates()) {
-                spatialIndex.insert(star);
-            }
+    /**
+     * Set the number of threads building spatial indexes, e.g. to leave cores free for rendering.
+     * Index construction splits the sky into cells built as separate fork/join tasks, so it scales with this.
+     * Takes effect for the next index built; idle workers of a replaced pool exit on their own.
+     */
+    public void setIndexParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Index parallelism must be at least 1: " + parallelism);
         }
-
-        System.out.println("Spatial index built with " + spatialIndex.size() + " stars");
+        if (parallelism == indexPool.getParallelism()) {
+            return;
+        }
+        indexPool = parallelism == ForkJoinPool.commonPool().getParallelism()
+            ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism);
+        catalogLoader.setIndexPool(indexPool);
+        log.info("Spatial index parallelism set to " + parallelism);
     }
 
     /**
-     * Query stars in a rectangular region (fast with spatial index).
+     * Horizon classes of a snapshot's stars at an observer latitude. Built in parallel on the index pool when the
+     * catalog or latitude changes and reused otherwise.
      */
-    public List<Star> getStarsInRegion(double raMin, double raMax, double decMin, double decMax) {
-        if (spatialIndex == null) {
-            return stars.getStarList();  // Fallback to full list
+    public HorizonClassification getHorizonClassification(CatalogSnapshot catalog, double latitude) {
+        HorizonClassification classification = horizonClassification;
+        if (classification == null || classification.getStore() != catalog.getStore()
+            || classification.getLatitude() != latitude) {
+            long start = System.currentTimeMillis();
+            classification = HorizonClassification.build(catalog.getStore(), latitude, indexPool);
+            horizonClassification = classification;
+            log.info(String.format("Classified %,d stars for latitude %.4f in %d ms", catalog.size(), latitude,
+                System.currentTimeMillis() - start));
         }
+        return classification;
+    }
 
-        QuadTree.Bounds bounds = new QuadTree.Bounds(raMin, raMax, decMin, decMax);
-        return spatialIndex.query(bounds);
+    /**
+     * Get current catalog information.
+     */
+    public StarCatalog getCurrentCatalog() {
+        return getSnapshot().getCatalog();
     }
 
     /**
-     * Query stars within a circular region (cone search).
+     * Get current star count.
      */
-    public List<Star> getStarsInRadius(double centerRA, double centerDec, double radiusDeg) {
-        if (spatialIndex == null) {
-            return stars.getStarList();  // Fallback
-        }
+    public int getCurrentStarCount() {
+        return getSnapshot().size();
+    }
 
-        return spatialIndex.queryRadius(centerRA, centerDec, radiusDeg);
+    /**
+     * Query star IDs in a rectangular region of the current catalog.
+     */
+    public int[] getStarsInRegion(double raMin, double raMax, double decMin, double decMax) {
+        return getSnapshot().getStarsInRegion(raMin, raMax, decMin, decMax);
     }
 
     /**
-     * Find nearest star to a given position.
+     * Query star IDs within a circular region (cone search) of the current catalog.
      */
-    public Star findNearestStar(double ra, double dec, double maxRadiusDeg) {
-        if (spatialIndex == null) {
-            return null;
-        }
+    public int[] getStarsInRadius(double centerRA, double centerDec, double radiusDeg) {
+        return getSnapshot().getStarsInRadius(centerRA, centerDec, radiusDeg);
+    }
 
-        return spatialIndex.findNearest(ra, dec, maxRadiusDeg);
+    /**
+     * Query the IDs of stars the projection actually draws, using its exact footprint rather than a cone around
+     * the view center.
+     */
+    public int[] getStarsInView(SkyProjection projection) {
+        return getSnapshot().query(projection.getVisibleRegion());
+    }
+
+    /**
+     * Visit the IDs of stars within a circular region of the current catalog without building a result array.
+     * Callers querying every frame should take a snapshot and reuse a {@link SkyRegion.Ring} instead.
+     */
+    public void forEachInCone(double centerRA, double centerDec, double radiusDeg, StarIdSink sink) {
+        getSnapshot().forEachInCone(centerRA, centerDec, radiusDeg, sink);
+    }
+
+    /**
+     * Visit stars within a circular region of the current catalog as store rows.
+     */
+    public void forEachInCone(double centerRA, double centerDec, double radiusDeg, StarConsumer consumer) {
+        getSnapshot().forEachInCone(centerRA, centerDec, radiusDeg, consumer);
+    }
+
+    /**
+     * Find nearest star to a given position in the current catalog.
+     *
+     * @return star ID, or -1 if none is within maxRadiusDeg
+     */
+    public int findNearestStar(double ra, double dec, double maxRadiusDeg) {
+        return getSnapshot().findNearestStar(ra, dec, maxRadiusDeg);
+    }
+
+    /**
+     * The k stars nearest to a given position in the current catalog, closest first.
+     */
+    public int[] findNearestStars(double ra, double dec, int k) {
+        return getSnapshot().findNearestStars(ra, dec, k);
+    }
+
+    /**
+     * Find stars in the current catalog whose name contains the query (case-insensitive), brightest first.
+     */
+    public int[] searchByName(String query, int limit) {
+        return getSnapshot().searchByName(query, limit);
     }
 
     public void saveStars(String fileName, Stars stars) throws IOException {
@@ -158,6 +341,13 @@ public class StarService {
     }
 
     public Stars loadStars(String fileName) throws IOException {
+        return loadStore(fileName).toStars();
+    }
+
+    /**
+     * Load a catalog into a {@link StarStore}, preferring the memory-mapped binary form.
+     */
+    public StarStore loadStore(String fileName) throws IOException {
         Stars loadedStars;
 
         if (fileName == null) {
@@ -165,7 +355,7 @@ public class StarService {
             try (InputStream is = getClass().getResourceAsStream(resourceName)) {
                 if (is != null) {
                     loadedStars = om.readerFor(Stars.class).readValue(is);
-                    return loadedStars;
+                    return StarStore.fromStars(loadedStars);
                 }
             } catch (Exception e) {
                 System.out.println("Could not load from resource: " + e.getMessage());
@@ -175,7 +365,92 @@ public class StarService {
             fileName = fallbackFilename;
         }
 
-        // Try multiple file locations
+        // Binary catalogs are memory-mapped and read in place
+        Path catalogPath = resolveCatalogPath(fileName);
+        if (catalogPath.toString().endsWith(BinaryStarCatalog.EXTENSION)) {
+            log.info("Loading stars from binary catalog: " + catalogPath.toAbsolutePath());
+            try {
+                return BinaryStarCatalog.open(catalogPath).toStarStore();
+            } catch (IOException e) {
+                // A stale companion of a JSON catalog can still be recovered from the JSON
+                Path jsonPath = findJsonCompanion(catalogPath, fileName);
+                if (jsonPath == null) {
+                    throw e;
+                }
+                log.warning("Binary catalog unusable, falling back to JSON: " + e.getMessage());
+                catalogPath = jsonPath;
+            }
+        }
+
+        log.info("Loading stars from: " + catalogPath.toAbsolutePath());
+
+        // Load from external file
+        loadedStars = om.readerFor(Stars.class).readValue(catalogPath.toFile());
+
+        StarStore store = StarStore.fromStars(loadedStars);
+
+        // Cache as a binary catalog so the next load skips parsing
+        writeBinaryCache(store, BinaryStarCatalog.binaryPathFor(catalogPath));
+
+        // Don't update instance state here - let the caller do it
+        // This way we can verify success before committing the change
+        return store;
+    }
+
+    /**
+     * Resolve the file to read for a catalog: the binary form when it exists and is current, else the JSON.
+     */
+    private Path resolveCatalogPath(String fileName) throws IOException {
+        File catalogFile = findCatalogFile(fileName);
+
+        // A JSON catalog may have been shipped as its binary form only
+        if (catalogFile == null && !fileName.endsWith(BinaryStarCatalog.EXTENSION)) {
+            catalogFile = findCatalogFile(BinaryStarCatalog.binaryPathFor(new File(fileName).toPath()).toString());
+        }
+
+        if (catalogFile == null) {
+            throw new IOException("Catalog file not found: " + fileName +
+                " (searched in current dir, gui/, and ../)");
+        }
+
+        Path catalogPath = catalogFile.toPath();
+        if (catalogPath.toString().endsWith(BinaryStarCatalog.EXTENSION)) {
+            return catalogPath;
+        }
+
+        // Prefer the binary companion of a JSON catalog when it is current
+        Path binaryPath = BinaryStarCatalog.binaryPathFor(catalogPath);
+        return BinaryStarCatalog.isUpToDate(binaryPath, catalogPath) ? binaryPath : catalogPath;
+    }
+
+    /**
+     * The JSON catalog a binary file was converted from, or null if the binary was requested directly.
+     */
+    private Path findJsonCompanion(Path binaryPath, String fileName) {
+        if (fileName.endsWith(BinaryStarCatalog.EXTENSION)) {
+            return null;
+        }
+        File jsonFile = findCatalogFile(fileName);
+        return jsonFile != null && BinaryStarCatalog.binaryPathFor(jsonFile.toPath()).equals(binaryPath)
+            ? jsonFile.toPath() : null;
+    }
+
+    /**
+     * Write the binary form of a parsed catalog so the next load skips parsing (best effort).
+     */
+    private void writeBinaryCache(StarStore store, Path binaryPath) {
+        try {
+            BinaryStarCatalog.write(store, binaryPath);
+            log.info("Wrote binary catalog: " + binaryPath.toAbsolutePath());
+        } catch (IOException e) {
+            log.warning("Could not write binary catalog " + binaryPath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Look for a catalog file in the current directory, gui/ and the parent directory.
+     */
+    private File findCatalogFile(String fileName) {
         File catalogFile = new File(fileName);
 
         // If not found in current directory, try gui subdirectory
@@ -190,22 +465,9 @@ public class StarService {
             log.info("Trying alternate path: ../" + fileName);
         }
 
-        if (!catalogFile.exists()) {
-            throw new IOException("Catalog file not found: " + fileName +
-                " (searched in current dir, gui/, and ../)");
-        }
-
-        log.info("Loading stars from: " + catalogFile.getAbsolutePath());
-
-        // Load from external file
-        loadedStars = om.readerFor(Stars.class).readValue(catalogFile);
-
-        // Don't update instance state here - let the caller do it
-        // This way we can verify success before committing the change
-        return loadedStars;
+        return catalogFile.exists() ? catalogFile : null;
     }
 
-
     public boolean defaultStarsExists() {
         // Check if resource exists
         InputStream is = getClass().getResourceAsStream(resourceName);
@@ -225,12 +487,19 @@ public class StarService {
     // Access methods
     // -----------------------------------------------------------------------------------------------------------------
 
+    /**
+     * Materialize the current catalog as star objects. Prefer {@link #getSnapshot()} on hot paths.
+     */
     public Stars getStars() {
-        return stars;
+        return getSnapshot().getStore().toStars();
     }
 
     public void setStars(Stars stars) {
-        this.stars = stars;
-        buildSpatialIndex();  // Rebuild index when stars change
+        // Rebuild index when stars change
+        publish(CatalogSnapshot.build(getCurrentCatalog(), StarStore.fromStars(stars), "setStars", indexType));
+    }
+
+    public StarStore getStore() {
+        return getSnapshot().getStore();
     }
 }
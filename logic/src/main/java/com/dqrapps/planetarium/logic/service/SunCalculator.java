@@ -111,8 +111,11 @@ public class SunCalculator {
 
     /**
      * Calculate Local Sidereal Time in hours.
+     *
+     * @param dateTime  Universal time
+     * @param longitude Observer longitude in degrees, east positive
      */
-    private static double calculateLocalSiderealTime(LocalDateTime dateTime, double longitude) {
+    public static double calculateLocalSiderealTime(LocalDateTime dateTime, double longitude) {
         double jd = toJulianDate(dateTime);
 
         // Days since J2000.0
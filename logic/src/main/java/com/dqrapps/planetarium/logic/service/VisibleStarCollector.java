@@ -0,0 +1,293 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.spatial.SkyRegion;
+import com.dqrapps.planetarium.logic.type.SkyViewMode;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Receives star IDs brightest first straight from the spatial index visitor, keeps those above the horizon and
+ * on screen, and records their screen positions in reusable buffers. Candidates are gathered into fixed-size
+ * chunks of single-precision unit vectors, the layout the batch projection kernels work on, and each chunk
+ * is projected with one batch call, so the per-star work is a rotation rather than trigonometry. The index stops
+ * as soon as enough stars have been kept, so fainter stars in the view are never touched.
+ * <p>
+ * Screen positions depend only on the view (center, field of view, canvas and mode), not on sidereal time, so
+ * the on-screen stars of the last view are cached brightest first together with their unit vectors. While the
+ * view stays the same, as during time animation, a pass only re-runs the horizon test over the cache: one dot
+ * product per star that rises and sets, none for circumpolar stars, and stars that never rise at the observer's
+ * latitude are left out of the index query altogether. The index is queried again only when the view or
+ * latitude changes, or when so many cached stars have set that the cache no longer holds the limit of stars
+ * above the horizon. The horizon view is the exception: its positions follow sidereal time, so its cache is only
+ * reused while the time stands still.
+ * <p>
+ * Owned by the calculation thread. The buffers are reused from pass to pass and only grow, so passes produce no
+ * garbage beyond the frame handed out once they have reached the view's star count. A pass that ends with the
+ * same stars at the same positions hands out the previous frame again, so layers keyed on it are not repainted.
+ */
+public class VisibleStarCollector implements IntPredicate {
+
+    private static final int CHUNK = 256;  // Candidates projected per batch
+
+    private final AstroService astroService;
+
+    // View the cache was built for
+    private CatalogSnapshot cachedSnapshot;
+    private double cachedCenterRA;
+    private double cachedCenterDec;
+    private double cachedFieldOfView;
+    private double cachedWidth;
+    private double cachedHeight;
+    private SkyViewMode cachedViewMode;
+    private double cachedLst;
+    private HorizonClassification cachedHorizon;
+    private int cachedLimit;
+    private boolean exhausted;  // The cache holds every on-screen star of the view
+
+    // On-screen stars brightest first, parallel arrays
+    private int[] cacheIds = new int[1024];
+    private float[] cacheX = new float[1024];
+    private float[] cacheY = new float[1024];
+    private float[] cacheUnitX = new float[1024];
+    private float[] cacheUnitY = new float[1024];
+    private float[] cacheUnitZ = new float[1024];
+    private long[] cacheUp = new long[1024 / 64];
+    private int cacheSize;
+
+    // Cached stars that rise and set, the only ones needing a horizon test per pass
+    private int[] risingSlots = new int[1024];
+    private float[] risingUnitX = new float[1024];
+    private float[] risingUnitY = new float[1024];
+    private float[] risingUnitZ = new float[1024];
+    private long[] risingUp = new long[1024 / 64];
+    private int risingSize;
+
+    // Current rebuild
+    private StarStore store;
+    private SkyProjection projection;
+    private HorizonClassification horizon;
+    private double lst;
+    private double latitude;
+    private int target;       // Stars above the horizon to cache before stopping
+    private int aboveHorizon;
+    private boolean stopped;
+
+    // Candidates waiting for the next batch projection
+    private final float[] chunkUnitX = new float[CHUNK];
+    private final float[] chunkUnitY = new float[CHUNK];
+    private final float[] chunkUnitZ = new float[CHUNK];
+    private final int[] chunkIds = new int[CHUNK];
+    private final float[] chunkX = new float[CHUNK];
+    private final float[] chunkY = new float[CHUNK];
+    private final long[] chunkVisible = new long[CHUNK / 64];
+    private final long[] chunkUp = new long[CHUNK / 64];
+    private int pending;
+
+    // Frame being handed out
+    private int[] ids = new int[1024];
+    private float[] x = new float[1024];
+    private float[] y = new float[1024];
+    private VisibleStars lastFrame;
+
+    public VisibleStarCollector(AstroService astroService) {
+        this.astroService = astroService;
+    }
+
+    /**
+     * Collect up to limit of the brightest stars of a snapshot that the projection draws and that are above the
+     * horizon, as an immutable frame for the render thread.
+     *
+     * @param horizon classification of the snapshot's stars at the observer's latitude
+     */
+    public VisibleStars collect(CatalogSnapshot snapshot, SkyProjection projection, double lst,
+                                HorizonClassification horizon, int limit) {
+        if (limit <= 0) {
+            return new VisibleStars(snapshot, new int[0], new float[0], new float[0], 0);
+        }
+
+        double latitude = horizon.getLatitude();
+        if (!isCachedView(snapshot, projection, lst, horizon, limit)) {
+            rebuild(snapshot, projection, horizon, lst, limit);
+        }
+        int count = maskHorizon(lst, latitude, limit);
+        if (count < limit && !exhausted) {
+            // Stars have set since the cache was built; fetch fainter ones that are now needed
+            rebuild(snapshot, projection, horizon, lst, limit);
+            count = maskHorizon(lst, latitude, limit);
+        }
+        if (lastFrame == null || lastFrame.getSnapshot() != snapshot || !lastFrame.matches(ids, x, y, count)) {
+            lastFrame = new VisibleStars(snapshot, Arrays.copyOf(ids, count), Arrays.copyOf(x, count),
+                Arrays.copyOf(y, count), count);
+        }
+        return lastFrame;
+    }
+
+    private boolean isCachedView(CatalogSnapshot snapshot, SkyProjection projection, double lst,
+                                 HorizonClassification horizon, int limit) {
+        return snapshot == cachedSnapshot
+            && horizon == cachedHorizon
+            && projection.getCenterRA() == cachedCenterRA
+            && projection.getCenterDec() == cachedCenterDec
+            && projection.getFieldOfView() == cachedFieldOfView
+            && projection.getCanvasWidth() == cachedWidth
+            && projection.getCanvasHeight() == cachedHeight
+            && projection.getViewMode() == cachedViewMode
+            && (!projection.dependsOnTime() || lst == cachedLst)
+            && limit == cachedLimit;
+    }
+
+    /**
+     * Refill the cache from the index: on-screen stars of the view brightest first, until a quarter more than
+     * the limit of them are above the horizon now, which leaves room for stars to set before the next rebuild.
+     */
+    private void rebuild(CatalogSnapshot snapshot, SkyProjection projection, HorizonClassification horizon,
+                         double lst, int limit) {
+        this.store = snapshot.getStore();
+        this.projection = projection;
+        this.horizon = horizon;
+        this.lst = lst;
+        this.latitude = horizon.getLatitude();
+        this.target = limit + limit / 4;
+        this.aboveHorizon = 0;
+        this.stopped = false;
+        this.cacheSize = 0;
+        this.risingSize = 0;
+        this.pending = 0;
+
+        snapshot.forEachBrightest(SkyRegion.intersection(projection.getVisibleRegion(),
+            horizon.getEverVisibleRegion()), this);
+        flush();
+
+        cachedSnapshot = snapshot;
+        cachedCenterRA = projection.getCenterRA();
+        cachedCenterDec = projection.getCenterDec();
+        cachedFieldOfView = projection.getFieldOfView();
+        cachedWidth = projection.getCanvasWidth();
+        cachedHeight = projection.getCanvasHeight();
+        cachedViewMode = projection.getViewMode();
+        cachedLst = lst;
+        cachedHorizon = horizon;
+        cachedLimit = limit;
+        exhausted = !stopped;
+
+        // The snapshot and classification are kept as the cache key; the pass itself is not
+        this.store = null;
+        this.projection = null;
+        this.horizon = null;
+    }
+
+    /**
+     * Queue a candidate; returns false once enough stars have been cached.
+     */
+    @Override
+    public boolean test(int id) {
+        if (!store.hasValidCoordinates(id) || horizon.neverRises(id)) return true;
+
+        chunkIds[pending] = id;
+        chunkUnitX[pending] = store.getUnitX(id);
+        chunkUnitY[pending] = store.getUnitY(id);
+        chunkUnitZ[pending] = store.getUnitZ(id);
+        if (++pending == CHUNK) {
+            flush();
+        }
+        stopped = aboveHorizon >= target;
+        return !stopped;
+    }
+
+    /**
+     * Project the pending candidates in one batch and append those on screen to the cache, in order.
+     */
+    private void flush() {
+        projection.project(chunkUnitX, chunkUnitY, chunkUnitZ, 0, pending, chunkX, chunkY, chunkVisible);
+        System.arraycopy(chunkVisible, 0, chunkUp, 0, chunkUp.length);
+        aboveHorizon += astroService.cullBelowHorizon(chunkUnitX, chunkUnitY, chunkUnitZ, 0, pending, lst,
+            latitude, chunkUp);
+
+        for (int i = 0; i < pending; i++) {
+            if ((chunkVisible[i >> 6] & (1L << i)) == 0) continue;
+
+            if (cacheSize == cacheIds.length) {
+                growCache();
+            }
+            cacheIds[cacheSize] = chunkIds[i];
+            cacheX[cacheSize] = chunkX[i];
+            cacheY[cacheSize] = chunkY[i];
+            cacheUnitX[cacheSize] = chunkUnitX[i];
+            cacheUnitY[cacheSize] = chunkUnitY[i];
+            cacheUnitZ[cacheSize] = chunkUnitZ[i];
+            if (horizon.risesAndSets(chunkIds[i])) {
+                if (risingSize == risingSlots.length) {
+                    growRising();
+                }
+                risingSlots[risingSize] = cacheSize;
+                risingUnitX[risingSize] = chunkUnitX[i];
+                risingUnitY[risingSize] = chunkUnitY[i];
+                risingUnitZ[risingSize] = chunkUnitZ[i];
+                risingSize++;
+            }
+            cacheSize++;
+        }
+        pending = 0;
+    }
+
+    /**
+     * Copy the first limit cached stars above the horizon at this sidereal time into the frame buffers.
+     *
+     * @return number of stars copied
+     */
+    private int maskHorizon(double lst, double latitude, int limit) {
+        // Circumpolar stars are always up; only the rising and setting ones are tested
+        Arrays.fill(cacheUp, 0, (cacheSize + 63) >> 6, -1L);
+        Arrays.fill(risingUp, 0, (risingSize + 63) >> 6, -1L);
+        astroService.cullBelowHorizon(risingUnitX, risingUnitY, risingUnitZ, 0, risingSize, lst, latitude, risingUp);
+        for (int k = 0; k < risingSize; k++) {
+            if ((risingUp[k >> 6] & (1L << k)) == 0) {
+                int slot = risingSlots[k];
+                cacheUp[slot >> 6] &= ~(1L << slot);
+            }
+        }
+
+        int count = 0;
+        for (int slot = 0; slot < cacheSize && count < limit; slot++) {
+            if ((cacheUp[slot >> 6] & (1L << slot)) == 0) continue;
+
+            if (count == ids.length) {
+                growFrame();
+            }
+            ids[count] = cacheIds[slot];
+            x[count] = cacheX[slot];
+            y[count] = cacheY[slot];
+            count++;
+        }
+        return count;
+    }
+
+    private void growCache() {
+        int capacity = cacheIds.length * 2;
+        cacheIds = Arrays.copyOf(cacheIds, capacity);
+        cacheX = Arrays.copyOf(cacheX, capacity);
+        cacheY = Arrays.copyOf(cacheY, capacity);
+        cacheUnitX = Arrays.copyOf(cacheUnitX, capacity);
+        cacheUnitY = Arrays.copyOf(cacheUnitY, capacity);
+        cacheUnitZ = Arrays.copyOf(cacheUnitZ, capacity);
+        cacheUp = Arrays.copyOf(cacheUp, capacity / 64);
+    }
+
+    private void growRising() {
+        int capacity = risingSlots.length * 2;
+        risingSlots = Arrays.copyOf(risingSlots, capacity);
+        risingUnitX = Arrays.copyOf(risingUnitX, capacity);
+        risingUnitY = Arrays.copyOf(risingUnitY, capacity);
+        risingUnitZ = Arrays.copyOf(risingUnitZ, capacity);
+        risingUp = Arrays.copyOf(risingUp, capacity / 64);
+    }
+
+    private void growFrame() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+    }
+}
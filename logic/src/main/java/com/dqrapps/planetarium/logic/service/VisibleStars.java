@@ -0,0 +1,89 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+
+import java.util.Arrays;
+
+/**
+ * Stars that passed culling for one calculation pass, with their screen positions.
+ * Built on the calculation thread and handed to the render thread as a whole, never modified afterwards.
+ * IDs refer to the catalog snapshot the pass was computed from.
+ */
+public class VisibleStars {
+
+    private final CatalogSnapshot snapshot;
+    private final int[] ids;
+    private final float[] x;
+    private final float[] y;
+    private final int count;
+
+    // Star ID above slot for every visible star, sorted, so any star can be looked up by ID
+    private final long[] slotsById;
+
+    public VisibleStars(CatalogSnapshot snapshot, int[] ids, float[] x, float[] y, int count) {
+        this.snapshot = snapshot;
+        this.ids = ids;
+        this.x = x;
+        this.y = y;
+        this.count = count;
+
+        slotsById = new long[count];
+        for (int slot = 0; slot < count; slot++) {
+            slotsById[slot] = ((long) ids[slot] << 32) | slot;
+        }
+        Arrays.sort(slotsById);
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public StarStore getStore() {
+        return snapshot.getStore();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int getId(int slot) {
+        return ids[slot];
+    }
+
+    public float getX(int slot) {
+        return x[slot];
+    }
+
+    public float getY(int slot) {
+        return y[slot];
+    }
+
+    /**
+     * Slot of a star ID, or -1 if it is not visible.
+     */
+    public int slotOf(int id) {
+        int index = Arrays.binarySearch(slotsById, (long) id << 32);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < count && (int) (slotsById[index] >>> 32) == id ? (int) slotsById[index] : -1;
+    }
+
+    public boolean contains(int id) {
+        return slotOf(id) >= 0;
+    }
+
+    /**
+     * Whether this frame holds exactly the given stars at the given positions, in the same order.
+     */
+    boolean matches(int[] ids, float[] x, float[] y, int count) {
+        return count == this.count
+            && Arrays.equals(this.ids, 0, count, ids, 0, count)
+            && Arrays.equals(this.x, 0, count, x, 0, count)
+            && Arrays.equals(this.y, 0, count, y, 0, count);
+    }
+}
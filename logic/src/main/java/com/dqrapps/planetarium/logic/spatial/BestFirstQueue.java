@@ -0,0 +1,154 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of index nodes and stars for best-first traversal, keyed by angular distance for nearest-neighbour
+ * search or by magnitude for brightest-first queries.
+ * <p>
+ * Each entry is a key plus either a node (an object and/or a packed long, depending on the index) or a star.
+ * Nodes are keyed by the smallest key of anything under them, stars by their own key, so a star popped
+ * from the queue comes before everything still in it. Reused across searches on one thread; only grows.
+ */
+final class BestFirstQueue {
+
+    private static final long STAR = Long.MIN_VALUE;  // Marks a star entry in the item column
+
+    private static final ThreadLocal<BestFirstQueue> QUEUE = ThreadLocal.withInitial(BestFirstQueue::new);
+
+    private double[] keys = new double[64];
+    private long[] items = new long[64];
+    private int[] stars = new int[64];
+    private Object[] nodes = new Object[64];
+    private int size;
+
+    // Entry removed by the last poll
+    private double key;
+    private long item;
+    private int star;
+    private Object node;
+
+    /**
+     * This thread's queue, emptied. A search must not start another search on the same thread before it ends.
+     */
+    static BestFirstQueue forThread() {
+        BestFirstQueue queue = QUEUE.get();
+        queue.clear();
+        return queue;
+    }
+
+    void clear() {
+        Arrays.fill(nodes, 0, size, null);
+        size = 0;
+        node = null;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Smallest key in the queue, or infinity if it is empty.
+     */
+    double peekKey() {
+        return size == 0 ? Double.POSITIVE_INFINITY : keys[0];
+    }
+
+    void addNode(double distance, long packed) {
+        add(distance, packed, -1, null);
+    }
+
+    void addNode(double distance, Object ref) {
+        add(distance, 0, -1, ref);
+    }
+
+    void addNode(double key, long packed, Object ref) {
+        add(key, packed, -1, ref);
+    }
+
+    void addStar(double distance, int id) {
+        add(distance, STAR, id, null);
+    }
+
+    /**
+     * Remove the closest entry; read it back with the accessors below.
+     */
+    void poll() {
+        key = keys[0];
+        item = items[0];
+        star = stars[0];
+        node = nodes[0];
+
+        size--;
+        if (size > 0) {
+            siftDown(keys[size], items[size], stars[size], nodes[size]);
+        }
+        nodes[size] = null;
+    }
+
+    double polledKey() {
+        return key;
+    }
+
+    boolean polledStar() {
+        return item == STAR;
+    }
+
+    int polledStarId() {
+        return star;
+    }
+
+    long polledPacked() {
+        return item;
+    }
+
+    Object polledNode() {
+        return node;
+    }
+
+    private void add(double k, long packed, int id, Object ref) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            items = Arrays.copyOf(items, capacity);
+            stars = Arrays.copyOf(stars, capacity);
+            nodes = Arrays.copyOf(nodes, capacity);
+        }
+
+        // Sift up
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= k) {
+                break;
+            }
+            set(i, keys[parent], items[parent], stars[parent], nodes[parent]);
+            i = parent;
+        }
+        set(i, k, packed, id, ref);
+    }
+
+    private void siftDown(double k, long packed, int id, Object ref) {
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (k <= keys[child]) {
+                break;
+            }
+            set(i, keys[child], items[child], stars[child], nodes[child]);
+            i = child;
+        }
+        set(i, k, packed, id, ref);
+    }
+
+    private void set(int i, double k, long packed, int id, Object ref) {
+        keys[i] = k;
+        items[i] = packed;
+        stars[i] = id;
+        nodes[i] = ref;
+    }
+}
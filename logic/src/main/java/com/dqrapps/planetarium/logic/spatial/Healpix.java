@@ -0,0 +1,168 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+/**
+ * HEALPix pixelisation in the nested numbering scheme (Gorski et al. 2005).
+ * <p>
+ * The sphere is split into 12 equal-area base pixels, each divided into 4^order pixels of identical area.
+ * In the nested scheme the four children of pixel p at order k are pixels 4p to 4p+3 at order k+1, so all
+ * descendants of a pixel form one contiguous range at any finer order.
+ */
+public final class Healpix {
+
+    public static final int MAX_ORDER = 13;
+
+    private static final double TWO_THIRDS = 2.0 / 3.0;
+    private static final double HALF_PI = Math.PI / 2.0;
+    private static final int[] JRLL = {2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4};
+    private static final int[] JPLL = {1, 3, 5, 7, 0, 2, 4, 6, 1, 3, 5, 7};
+
+    private Healpix() {
+    }
+
+    public static int nside(int order) {
+        return 1 << order;
+    }
+
+    public static int pixelCount(int order) {
+        return 12 << (2 * order);
+    }
+
+    /**
+     * Nested pixel containing the unit vector.
+     */
+    public static int vectorToPixel(int order, double x, double y, double z) {
+        return angleToPixel(order, z, Math.atan2(y, x));
+    }
+
+    /**
+     * Nested pixel containing an RA (hours) / Dec (degrees) position.
+     */
+    public static int raDecToPixel(int order, double raHours, double decDeg) {
+        return angleToPixel(order, Math.sin(Math.toRadians(decDeg)), Math.toRadians(raHours * 15.0));
+    }
+
+    /**
+     * Nested pixel for z = cos(colatitude) and longitude phi in radians.
+     */
+    public static int angleToPixel(int order, double z, double phi) {
+        int nside = 1 << order;
+        double za = Math.abs(z);
+        double tt = phi / HALF_PI % 4.0;
+        if (tt < 0) {
+            tt += 4.0;
+        }
+
+        if (za <= TWO_THIRDS) {
+            // Equatorial region
+            double temp1 = nside * (0.5 + tt);
+            double temp2 = nside * (z * 0.75);
+            int jp = (int) (temp1 - temp2);  // Index of ascending edge line
+            int jm = (int) (temp1 + temp2);  // Index of descending edge line
+            int ifp = jp >> order;
+            int ifm = jm >> order;
+            int face = ifp == ifm ? (ifp | 4) : (ifp < ifm ? ifp : ifm + 8);
+            int ix = jm & (nside - 1);
+            int iy = nside - (jp & (nside - 1)) - 1;
+            return xyfToPixel(order, ix, iy, face);
+        }
+
+        // Polar caps
+        int ntt = Math.min(3, (int) tt);
+        double tp = tt - ntt;
+        double tmp = nside * Math.sqrt(3.0 * (1.0 - za));
+        int jp = Math.min(nside - 1, (int) (tp * tmp));          // Increasing edge line index
+        int jm = Math.min(nside - 1, (int) ((1.0 - tp) * tmp));  // Decreasing edge line index
+        return z >= 0
+            ? xyfToPixel(order, nside - jm - 1, nside - jp - 1, ntt)
+            : xyfToPixel(order, jp, jm, ntt + 8);
+    }
+
+    /**
+     * Write the unit vector of a nested pixel's center into out[offset..offset + 2].
+     */
+    public static void pixelCenter(int order, int pixel, double[] out, int offset) {
+        int nside = 1 << order;
+        long npix = 12L << (2 * order);
+        double fact2 = 4.0 / npix;
+        double fact1 = (nside << 1) * fact2;
+
+        int face = pixel >> (2 * order);
+        int local = pixel & ((1 << (2 * order)) - 1);
+        int ix = compactBits(local);
+        int iy = compactBits(local >> 1);
+
+        int jr = (JRLL[face] << order) - ix - iy - 1;
+        int nr;
+        double z;
+        if (jr < nside) {
+            nr = jr;
+            z = 1.0 - nr * nr * fact2;
+        } else if (jr > 3 * nside) {
+            nr = 4 * nside - jr;
+            z = nr * nr * fact2 - 1.0;
+        } else {
+            nr = nside;
+            z = (2 * nside - jr) * fact1;
+        }
+
+        int tmp = JPLL[face] * nr + ix - iy;
+        if (tmp < 0) {
+            tmp += 8 * nr;
+        }
+        double phi = nr == nside ? 0.75 * HALF_PI * tmp * fact1 : (0.5 * HALF_PI * tmp) / nr;
+
+        double sinTheta = Math.sqrt(Math.max(0.0, (1.0 - z) * (1.0 + z)));
+        out[offset] = sinTheta * Math.cos(phi);
+        out[offset + 1] = sinTheta * Math.sin(phi);
+        out[offset + 2] = z;
+    }
+
+    /**
+     * Upper bound in radians on the angle between any pixel's center and any point of that pixel.
+     * HEALPix's own corner-based bound, widened slightly to cover the curved pixel edges.
+     */
+    public static double maxPixelRadius(int order) {
+        int nside = 1 << order;
+        double[] a = new double[3];
+        double[] b = new double[3];
+        zPhiToVector(TWO_THIRDS, Math.PI / (4.0 * nside), a);
+        double t1 = 1.0 - 1.0 / nside;
+        zPhiToVector(1.0 - t1 * t1 / 3.0, 0.0, b);
+        return SkyVectors.angle(a[0], a[1], a[2], b[0], b[1], b[2]) * 1.1 + 1e-9;
+    }
+
+    private static void zPhiToVector(double z, double phi, double[] out) {
+        double sinTheta = Math.sqrt(Math.max(0.0, (1.0 - z) * (1.0 + z)));
+        out[0] = sinTheta * Math.cos(phi);
+        out[1] = sinTheta * Math.sin(phi);
+        out[2] = z;
+    }
+
+    private static int xyfToPixel(int order, int ix, int iy, int face) {
+        return (face << (2 * order)) + spreadBits(ix) + (spreadBits(iy) << 1);
+    }
+
+    /**
+     * Interleave the low 16 bits of v with zeros: bit i moves to bit 2i.
+     */
+    static int spreadBits(int v) {
+        int x = v & 0xFFFF;
+        x = (x | (x << 8)) & 0x00FF00FF;
+        x = (x | (x << 4)) & 0x0F0F0F0F;
+        x = (x | (x << 2)) & 0x33333333;
+        x = (x | (x << 1)) & 0x55555555;
+        return x;
+    }
+
+    /**
+     * Inverse of {@link #spreadBits}: gather the even bits of v.
+     */
+    private static int compactBits(int v) {
+        int x = v & 0x55555555;
+        x = (x | (x >>> 1)) & 0x33333333;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F;
+        x = (x | (x >>> 4)) & 0x00FF00FF;
+        x = (x | (x >>> 8)) & 0x0000FFFF;
+        return x;
+    }
+}
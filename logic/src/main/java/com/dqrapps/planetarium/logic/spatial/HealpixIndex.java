@@ -0,0 +1,362 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable equal-area spatial index using HEALPix pixels in the nested scheme.
+ * <p>
+ * Stars are bucketed into pixels at a single order chosen from the catalog size and stored pixel by pixel, so
+ * every pixel at every coarser order covers one contiguous run of stars. Queries descend from the 12 base pixels,
+ * classifying each pixel's bounding cap against the region: whole runs are taken for pixels inside it, and only
+ * stars in pixels on its edge are tested individually. Pixels have equal area and similar shape everywhere, so
+ * query cost does not depend on where the view is centered, including at the poles and across 0h.
+ * <p>
+ * Within each pixel, stars are ordered by magnitude, and every pixel at every order records the brightest magnitude
+ * under it, so brightest-first queries can expand pixels in magnitude order and stop early.
+ */
+public final class HealpixIndex implements SkyIndex {
+
+    private static final int STARS_PER_PIXEL = 16;  // Target average occupancy at the index order
+    private static final int MAX_INDEX_ORDER = 10;
+    private static final int BUCKET_ORDER = 2;  // Build tasks are split by pixel at this order (192 buckets)
+
+    // Pixel-center scratch for traversal; the index itself is shared across threads
+    private static final ThreadLocal<double[]> CENTER = ThreadLocal.withInitial(() -> new double[3]);
+
+    private final StarStore store;
+    private final int order;
+    private final int[] pixelStart;   // Start of each finest pixel's run in ids, length pixelCount + 1
+    private final int[] ids;          // Star IDs ordered by pixel
+    private final float[] mags;       // Magnitudes parallel to ids, increasing within each pixel
+    private final float[][] brightest;  // Brightest magnitude under each pixel per order 0..order, infinity if empty
+    private final double[] pixelRadius;  // Bounding-cap radius per order 0..order
+
+    // Brightest-first queue entries: inside flag in bit 0, pixel in bits 1-30, then either the order of a pixel
+    // or, with RUN set, the next slot of a cursor walking one pixel's stars at the index order
+    private static final long RUN = 1L << 62;
+    private static final int PIXEL_MASK = (1 << 30) - 1;
+
+    private HealpixIndex(StarStore store, int order, int[] pixelStart, int[] ids, float[] mags) {
+        this.store = store;
+        this.order = order;
+        this.pixelStart = pixelStart;
+        this.ids = ids;
+        this.mags = mags;
+        this.pixelRadius = new double[order + 1];
+        for (int o = 0; o <= order; o++) {
+            pixelRadius[o] = Healpix.maxPixelRadius(o);
+        }
+
+        brightest = new float[order + 1][];
+        brightest[order] = new float[pixelStart.length - 1];
+        for (int p = 0; p < brightest[order].length; p++) {
+            brightest[order][p] = pixelStart[p] < pixelStart[p + 1] ? mags[pixelStart[p]] : Float.POSITIVE_INFINITY;
+        }
+        for (int o = order - 1; o >= 0; o--) {
+            float[] finer = brightest[o + 1];
+            float[] level = new float[Healpix.pixelCount(o)];
+            for (int p = 0; p < level.length; p++) {
+                int c = p << 2;
+                level[p] = Math.min(Math.min(finer[c], finer[c + 1]), Math.min(finer[c + 2], finer[c + 3]));
+            }
+            brightest[o] = level;
+        }
+    }
+
+    /**
+     * Index all stars with valid coordinates, choosing the order from the catalog size.
+     */
+    public static HealpixIndex build(StarStore store) {
+        return build(store, orderFor(store.size()), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Index all stars with valid coordinates at a given order.
+     */
+    public static HealpixIndex build(StarStore store, int order) {
+        return build(store, order, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Index all stars with valid coordinates on a fork/join pool, choosing the order from the catalog size.
+     */
+    public static HealpixIndex build(StarStore store, ForkJoinPool pool) {
+        return build(store, orderFor(store.size()), pool);
+    }
+
+    /**
+     * Index all stars with valid coordinates at a given order on a fork/join pool. Pixel lookup runs over chunks
+     * of stars, and ordering and placement run per top-level pixel, each as its own task.
+     */
+    public static HealpixIndex build(StarStore store, int order, ForkJoinPool pool) {
+        if (order < 0 || order > Healpix.MAX_ORDER) {
+            throw new IllegalArgumentException("HEALPix order out of range: " + order);
+        }
+        return ParallelBuild.run(pool, () -> buildOnPool(store, order));
+    }
+
+    private static HealpixIndex buildOnPool(StarStore store, int order) {
+        int size = store.size();
+        int pixelCount = Healpix.pixelCount(order);
+        int[] starPixels = new int[size];
+        ParallelBuild.forRange(size, (from, to) -> {
+            for (int id = from; id < to; id++) {
+                if (!store.hasValidCoordinates(id)) {
+                    starPixels[id] = -1;
+                    continue;
+                }
+                starPixels[id] = Healpix.vectorToPixel(order, store.getUnitX(id), store.getUnitY(id),
+                    store.getUnitZ(id));
+            }
+        });
+
+        // Counting sort by pixel: count and prefix-sum, then place per bucket below
+        int[] pixelStart = new int[pixelCount + 1];
+        for (int pixel : starPixels) {
+            if (pixel >= 0) {
+                pixelStart[pixel + 1]++;
+            }
+        }
+        for (int p = 0; p < pixelCount; p++) {
+            pixelStart[p + 1] += pixelStart[p];
+        }
+        int count = pixelStart[pixelCount];
+
+        // Group star IDs by top-level bucket pixel; each bucket owns one contiguous range of slots
+        int bucketShift = 2 * (order - Math.min(order, BUCKET_ORDER));
+        int buckets = pixelCount >>> bucketShift;
+        int[] bucketIds = new int[count];
+        int[] next = new int[buckets];
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            next[bucket] = pixelStart[bucket << bucketShift];
+        }
+        for (int id = 0; id < size; id++) {
+            if (starPixels[id] >= 0) {
+                bucketIds[next[starPixels[id] >>> bucketShift]++] = id;
+            }
+        }
+
+        // Placing each bucket's stars in magnitude order keeps every pixel's run sorted, since placement is stable
+        int[] ids = new int[count];
+        float[] mags = new float[count];
+        ParallelBuild.forRange(buckets, 1, (fromBucket, toBucket) -> {
+            for (int bucket = fromBucket; bucket < toBucket; bucket++) {
+                int firstPixel = bucket << bucketShift;
+                int lastPixel = (bucket + 1) << bucketShift;
+                store.sortByMagnitude(bucketIds, pixelStart[firstPixel], pixelStart[lastPixel]);
+
+                int[] slots = Arrays.copyOfRange(pixelStart, firstPixel, lastPixel);
+                for (int i = pixelStart[firstPixel]; i < pixelStart[lastPixel]; i++) {
+                    int id = bucketIds[i];
+                    int slot = slots[starPixels[id] - firstPixel]++;
+                    ids[slot] = id;
+                    mags[slot] = store.getMag(id);
+                }
+            }
+        });
+
+        return new HealpixIndex(store, order, pixelStart, ids, mags);
+    }
+
+    /**
+     * Lowest order averaging at most {@value #STARS_PER_PIXEL} stars per pixel.
+     */
+    static int orderFor(int starCount) {
+        int order = 0;
+        while (order < MAX_INDEX_ORDER && (long) Healpix.pixelCount(order) * STARS_PER_PIXEL < starCount) {
+            order++;
+        }
+        return order;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Visit star IDs inside a region without allocating.
+     */
+    @Override
+    public void forEach(SkyRegion region, StarIdSink sink) {
+        double[] center = CENTER.get();
+        for (int base = 0; base < 12; base++) {
+            visit(region, 0, base, center, sink);
+        }
+    }
+
+    @Override
+    public void forEachBrightest(SkyRegion region, IntPredicate visitor) {
+        double[] center = CENTER.get();
+        BestFirstQueue queue = BestFirstQueue.forThread();
+        for (int base = 0; base < 12; base++) {
+            addBrightPixel(queue, region, 0, base, false, center);
+        }
+
+        boolean more = true;
+        while (more && !queue.isEmpty()) {
+            queue.poll();
+            long packed = queue.polledPacked();
+            boolean inside = (packed & 1) != 0;
+            int pixel = (int) (packed >>> 1) & PIXEL_MASK;
+
+            if ((packed & RUN) == 0) {
+                int pixelOrder = (int) (packed >>> 32);
+                for (int child = pixel << 2; child < (pixel << 2) + 4; child++) {
+                    addBrightPixel(queue, region, pixelOrder + 1, child, inside, center);
+                }
+                continue;
+            }
+
+            int slot = (int) ((packed & ~RUN) >>> 32);
+            int id = ids[slot];
+            if (inside || region.contains(store.getUnitX(id), store.getUnitY(id), store.getUnitZ(id))) {
+                more = visitor.test(id);
+            }
+            if (slot + 1 < pixelStart[pixel + 1]) {
+                queue.addNode(mags[slot + 1], (packed & ~(~0L << 32)) | RUN | ((long) (slot + 1) << 32));
+            }
+        }
+
+        queue.clear();
+    }
+
+    /**
+     * Queue a pixel by the brightest star under it, or at the index order a cursor over its stars,
+     * unless it is empty or outside the region.
+     */
+    private void addBrightPixel(BestFirstQueue queue, SkyRegion region, int pixelOrder, int pixel, boolean inside,
+                                double[] center) {
+        float mag = brightest[pixelOrder][pixel];
+        if (mag == Float.POSITIVE_INFINITY) {
+            return;
+        }
+        if (!inside) {
+            Healpix.pixelCenter(pixelOrder, pixel, center, 0);
+            SkyRegion.Coverage coverage = region.classify(center[0], center[1], center[2], pixelRadius[pixelOrder]);
+            if (coverage == SkyRegion.Coverage.OUTSIDE) {
+                return;
+            }
+            inside = coverage == SkyRegion.Coverage.INSIDE;
+        }
+
+        long packed = ((long) pixel << 1) | (inside ? 1 : 0);
+        if (pixelOrder == order) {
+            queue.addNode(mag, packed | RUN | ((long) pixelStart[pixel] << 32));
+        } else {
+            queue.addNode(mag, packed | ((long) pixelOrder << 32));
+        }
+    }
+
+    /**
+     * Find the stars nearest to a position, best-first from the 12 base pixels. Pixels are keyed by the minimum
+     * distance to their bounding cap; a pixel at the index order contributes its stars with exact distances.
+     */
+    @Override
+    public int findNearest(double raHours, double decDeg, double maxRadiusDeg, IntPredicate filter, int[] nearest) {
+        double[] center = CENTER.get();
+        SkyVectors.toVector(raHours, decDeg, center, 0);
+        double tx = center[0];
+        double ty = center[1];
+        double tz = center[2];
+        double limit = Math.toRadians(maxRadiusDeg);
+
+        BestFirstQueue queue = BestFirstQueue.forThread();
+        for (int base = 0; base < 12; base++) {
+            addPixel(queue, 0, base, tx, ty, tz, limit, center);
+        }
+
+        int found = 0;
+        while (found < nearest.length && queue.peekKey() <= limit) {
+            queue.poll();
+            if (queue.polledStar()) {
+                nearest[found++] = queue.polledStarId();
+                continue;
+            }
+
+            long packed = queue.polledPacked();
+            int pixelOrder = (int) (packed >>> 32);
+            int pixel = (int) packed;
+            if (pixelOrder == order) {
+                for (int i = pixelStart[pixel]; i < pixelStart[pixel + 1]; i++) {
+                    int id = ids[i];
+                    if (filter == null || filter.test(id)) {
+                        double distance = SkyVectors.angle(tx, ty, tz,
+                            store.getUnitX(id), store.getUnitY(id), store.getUnitZ(id));
+                        if (distance <= limit) {
+                            queue.addStar(distance, id);
+                        }
+                    }
+                }
+            } else {
+                for (int child = pixel << 2; child < (pixel << 2) + 4; child++) {
+                    addPixel(queue, pixelOrder + 1, child, tx, ty, tz, limit, center);
+                }
+            }
+        }
+
+        queue.clear();
+        return found;
+    }
+
+    private void addPixel(BestFirstQueue queue, int pixelOrder, int pixel, double tx, double ty, double tz, double limit,
+                          double[] center) {
+        int shift = 2 * (order - pixelOrder);
+        if (pixelStart[pixel << shift] == pixelStart[(pixel + 1) << shift]) {
+            return;  // No stars under this pixel
+        }
+        Healpix.pixelCenter(pixelOrder, pixel, center, 0);
+        double distance = Math.max(0.0,
+                SkyVectors.angle(tx, ty, tz, center[0], center[1], center[2]) - pixelRadius[pixelOrder]);
+        if (distance <= limit) {
+            queue.addNode(distance, ((long) pixelOrder << 32) | pixel);
+        }
+    }
+
+    /**
+     * Descend from a pixel, passing the ID of each star inside the region to the sink.
+     * The center scratch array is reused at every level.
+     */
+    private void visit(SkyRegion region, int pixelOrder, int pixel, double[] center, StarIdSink sink) {
+        int shift = 2 * (order - pixelOrder);
+        int from = pixelStart[pixel << shift];
+        int to = pixelStart[(pixel + 1) << shift];
+        if (from == to) {
+            return;  // No stars under this pixel
+        }
+
+        Healpix.pixelCenter(pixelOrder, pixel, center, 0);
+        SkyRegion.Coverage coverage = region.classify(center[0], center[1], center[2], pixelRadius[pixelOrder]);
+        if (coverage == SkyRegion.Coverage.OUTSIDE) {
+            return;
+        }
+        if (coverage == SkyRegion.Coverage.INSIDE) {
+            for (int i = from; i < to; i++) {
+                sink.accept(ids[i]);
+            }
+            return;
+        }
+
+        if (pixelOrder == order) {
+            for (int i = from; i < to; i++) {
+                int id = ids[i];
+                if (region.contains(store.getUnitX(id), store.getUnitY(id), store.getUnitZ(id))) {
+                    sink.accept(id);
+                }
+            }
+            return;
+        }
+
+        for (int child = pixel << 2; child < (pixel << 2) + 4; child++) {
+            visit(region, pixelOrder + 1, child, center, sink);
+        }
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+}
@@ -0,0 +1,74 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Fork/join helpers shared by the index builders.
+ * <p>
+ * A build is entered with {@link #run}, which executes it as a task of the given pool; every range loop and
+ * subtree task forked inside it then runs on that same pool, so the pool's parallelism bounds the whole build.
+ */
+final class ParallelBuild {
+
+    private static final int CHUNK = 8192;  // Default elements per leaf task of a range loop
+
+    /**
+     * Body of a range loop, applied to disjoint sub-ranges concurrently.
+     */
+    @FunctionalInterface
+    interface RangeBody {
+        void run(int from, int to);
+    }
+
+    private ParallelBuild() {
+    }
+
+    /**
+     * Run a build on a pool and wait for its result.
+     */
+    static <T> T run(ForkJoinPool pool, Supplier<T> build) {
+        return pool.invoke(ForkJoinTask.adapt((Callable<T>) build::get));
+    }
+
+    /**
+     * Apply a body to [0, size) in chunks, forking on the pool of the calling task.
+     */
+    static void forRange(int size, RangeBody body) {
+        forRange(size, CHUNK, body);
+    }
+
+    /**
+     * Apply a body to [0, size) in chunks of at most grain elements, forking on the pool of the calling task.
+     */
+    static void forRange(int size, int grain, RangeBody body) {
+        new RangeTask(body, grain, 0, size).invoke();
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private final RangeBody body;
+        private final int grain;
+        private final int from;
+        private final int to;
+
+        RangeTask(RangeBody body, int grain, int from, int to) {
+            this.body = body;
+            this.grain = grain;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(body, grain, from, mid), new RangeTask(body, grain, mid, to));
+        }
+    }
+}
@@ -1,271 +1,534 @@
 package com.dqrapps.planetarium.logic.spatial;
 
-import com.dqrapps.planetarium.logic.model.Star;
-import java.util.ArrayList;
-import java.util.List;
+import com.dqrapps.planetarium.logic.model.StarStore;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
 
 /**
  * QuadTree spatial index for efficient star queries.
- * Divides celestial sphere into quadrants for O(log n) lookups.
+ * Divides celestial sphere into RA/Dec quadrants for O(log n) lookups.
+ * <p>
+ * The tree is bulk-built and immutable. Stars are sorted by the Morton code of their RA/Dec cell, which puts
+ * every quadrant at every depth in one contiguous run of IDs, and a single pass over the sorted IDs lays the nodes
+ * out in flat arrays with the four children of a node stored next to each other. The sky is split into top-level
+ * cells whose subtrees are sorted and laid out concurrently on a fork/join pool. Nothing is modified after
+ * {@link #build}, so one tree can be shared by any number of threads without locking.
+ * <p>
+ * Region queries classify each node's bounding cap, so they are exact across the 0h/24h seam and at the poles.
+ * Each leaf keeps its stars sorted by magnitude, and every node records the brightest magnitude under it,
+ * for brightest-first queries.
  */
-public class QuadTree {
-
-    private static final int MAX_CAPACITY = 50;  // Max stars per node before split
-    private static final int MAX_DEPTH = 8;       // Max tree depth
+public final class QuadTree implements SkyIndex {
+
+    static final int MAX_CAPACITY = 50;           // Max stars per leaf before split
+    static final int MAX_DEPTH = 15;              // Max tree depth, also the Morton code bits per axis
+    private static final int PARALLEL_DEPTH = 4;  // Subtrees from this depth (256 cells) are built as separate tasks
+
+    // Brightest-first queue entries: inside flag in bit 0, node in bits 1-30, and with RUN set
+    // the next slot of a cursor walking a leaf's stars above them
+    private static final long RUN = 1L << 62;
+    private static final int NODE_MASK = (1 << 30) - 1;
+
+    private final StarStore store;
+    private final int[] ids;          // Star IDs in Morton order, by magnitude within each leaf
+
+    // Nodes, root first; children of node n are firstChild[n]..firstChild[n] + 3, or -1 for a leaf
+    private final int[] start;        // Run of ids under each node
+    private final int[] end;
+    private final int[] firstChild;
+    private final double[] caps;      // Bounding cap per node: unit-vector center x, y, z and radius in radians
+    private final float[] brightest;  // Brightest magnitude under each node, infinity if empty
+
+    private QuadTree(StarStore store, int[] ids, Layout layout) {
+        this.store = store;
+        this.ids = ids;
+        this.start = Arrays.copyOf(layout.start, layout.count);
+        this.end = Arrays.copyOf(layout.end, layout.count);
+        this.firstChild = Arrays.copyOf(layout.firstChild, layout.count);
+        this.caps = Arrays.copyOf(layout.caps, layout.count * 4);
+        this.brightest = Arrays.copyOf(layout.brightest, layout.count);
+    }
 
-    private final Bounds bounds;
-    private final int depth;
-    private final List<Star> stars;
-    private QuadTree[] children;  // NE, NW, SE, SW
-    private boolean divided;
+    /**
+     * Index all stars with valid coordinates on the common fork/join pool.
+     */
+    public static QuadTree build(StarStore store) {
+        return build(store, ForkJoinPool.commonPool());
+    }
 
     /**
-     * Bounds for a region of the sky.
+     * Index all stars with valid coordinates on a fork/join pool. Stars are bucketed by their cell at depth
+     * {@value #PARALLEL_DEPTH}, and each cell's subtree is sorted and laid out as its own task.
      */
-    public static class Bounds {
-        public final double raMin;
-        public final double raMax;
-        public final double decMin;
-        public final double decMax;
-
-        public Bounds(double raMin, double raMax, double decMin, double decMax) {
-            this.raMin = raMin;
-            this.raMax = raMax;
-            this.decMin = decMin;
-            this.decMax = decMax;
+    public static QuadTree build(StarStore store, ForkJoinPool pool) {
+        return ParallelBuild.run(pool, () -> buildOnPool(store));
+    }
+
+    private static QuadTree buildOnPool(StarStore store) {
+        // Morton code of the deepest cell above the star ID, or -1 without valid coordinates
+        long[] codes = new long[store.size()];
+        ParallelBuild.forRange(codes.length, (from, to) -> {
+            for (int id = from; id < to; id++) {
+                codes[id] = store.hasValidCoordinates(id)
+                    ? ((long) mortonCode(store.getRa(id), store.getDec(id)) << 32) | id : -1;
+            }
+        });
+
+        // Counting sort by top-level cell, so each subtree task only sorts its own run
+        int cellShift = 32 + 2 * (MAX_DEPTH - PARALLEL_DEPTH);
+        int[] cellStart = new int[(1 << 2 * PARALLEL_DEPTH) + 1];
+        for (long key : codes) {
+            if (key >= 0) {
+                cellStart[(int) (key >>> cellShift) + 1]++;
+            }
+        }
+        for (int cell = 1; cell < cellStart.length; cell++) {
+            cellStart[cell] += cellStart[cell - 1];
         }
+        long[] keys = new long[cellStart[cellStart.length - 1]];
+        int[] next = Arrays.copyOf(cellStart, cellStart.length - 1);
+        for (long key : codes) {
+            if (key >= 0) {
+                keys[next[(int) (key >>> cellShift)]++] = key;
+            }
+        }
+
+        int[] ids = new int[keys.length];
+        Layout layout = new SubtreeTask(store, keys, ids, new int[keys.length], 0, 0, 0, 0, keys.length).invoke();
+        return new QuadTree(store, ids, layout);
+    }
 
-        public boolean contains(double ra, double dec) {
-            return ra >= raMin && ra <= raMax && dec >= decMin && dec <= decMax;
+    /**
+     * Builds the subtree of one node. Down to {@value #PARALLEL_DEPTH} the keys are only grouped by cell, which is
+     * enough to split them among four child tasks; at that depth, or once the run fits in a leaf, the run is
+     * sorted and laid out sequentially. Each task returns its own layout, attached under its parent's node.
+     */
+    private static final class SubtreeTask extends RecursiveTask<Layout> {
+        private final StarStore store;
+        private final long[] keys;
+        private final int[] ids;
+        private final int[] codes;
+        private final int depth;
+        private final int raCell;
+        private final int decCell;
+        private final int from;
+        private final int to;
+
+        SubtreeTask(StarStore store, long[] keys, int[] ids, int[] codes, int depth, int raCell, int decCell,
+                    int from, int to) {
+            this.store = store;
+            this.keys = keys;
+            this.ids = ids;
+            this.codes = codes;
+            this.depth = depth;
+            this.raCell = raCell;
+            this.decCell = decCell;
+            this.from = from;
+            this.to = to;
         }
 
-        public boolean intersects(Bounds other) {
-            return !(other.raMax < raMin || other.raMin > raMax ||
-                    other.decMax < decMin || other.decMin > decMax);
+        @Override
+        protected Layout compute() {
+            Layout layout = new Layout(Math.max(16, (to - from) / 8));
+            layout.add();
+
+            if (depth == PARALLEL_DEPTH || to - from <= MAX_CAPACITY) {
+                Arrays.sort(keys, from, to);
+                for (int i = from; i < to; i++) {
+                    ids[i] = (int) keys[i];
+                    codes[i] = (int) (keys[i] >>> 32);
+                }
+                layout.fill(store, ids, codes, 0, depth, raCell, decCell, from, to);
+                return layout;
+            }
+
+            int shift = 32 + 2 * (MAX_DEPTH - 1 - depth);
+            SubtreeTask[] children = new SubtreeTask[4];
+            int split = from;
+            for (int quadrant = 0; quadrant < 4; quadrant++) {
+                int low = split;
+                int high = to;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (((keys[mid] >>> shift) & 3) <= quadrant) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                children[quadrant] = new SubtreeTask(store, keys, ids, codes, depth + 1,
+                    raCell * 2 + (quadrant & 1), decCell * 2 + (quadrant >> 1), split, low);
+                split = low;
+            }
+            invokeAll(children);
+
+            layout.setNode(0, depth, raCell, decCell, from, to);
+            int first = layout.add();
+            layout.add();
+            layout.add();
+            layout.add();
+            layout.firstChild[0] = first;
+            float mag = Float.POSITIVE_INFINITY;
+            for (int quadrant = 0; quadrant < 4; quadrant++) {
+                layout.attach(children[quadrant].join(), first + quadrant);
+                mag = Math.min(mag, layout.brightest[first + quadrant]);
+            }
+            layout.brightest[0] = mag;
+            return layout;
         }
     }
 
     /**
-     * Create a new QuadTree node.
+     * Interleaved RA and Dec cell indexes at {@value #MAX_DEPTH} bits each: RA in the even bits, Dec in the odd.
      */
-    public QuadTree(Bounds bounds, int depth) {
-        this.bounds = bounds;
-        this.depth = depth;
-        this.stars = new ArrayList<>();
-        this.divided = false;
+    static int mortonCode(double ra, double dec) {
+        int cells = 1 << MAX_DEPTH;
+        int raCell = Math.min(cells - 1, Math.max(0, (int) (ra / 24.0 * cells)));
+        int decCell = Math.min(cells - 1, Math.max(0, (int) ((dec + 90.0) / 180.0 * cells)));
+        return Healpix.spreadBits(raCell) | (Healpix.spreadBits(decCell) << 1);
     }
 
     /**
-     * Insert a star into the quadtree.
+     * Growable node arrays filled by the build pass.
      */
-    public boolean insert(Star star) {
-        // Check if star is within bounds
-        if (!bounds.contains(star.getRa(), star.getDec())) {
-            return false;
+    private static final class Layout {
+        int[] start;
+        int[] end;
+        int[] firstChild;
+        double[] caps;
+        float[] brightest;
+        int count;
+
+        Layout(int capacity) {
+            start = new int[capacity];
+            end = new int[capacity];
+            firstChild = new int[capacity];
+            caps = new double[capacity * 4];
+            brightest = new float[capacity];
+        }
+
+        int add() {
+            if (count == start.length) {
+                int capacity = count * 2;
+                start = Arrays.copyOf(start, capacity);
+                end = Arrays.copyOf(end, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                caps = Arrays.copyOf(caps, capacity * 4);
+                brightest = Arrays.copyOf(brightest, capacity);
+            }
+            return count++;
         }
 
-        // If we have capacity and not divided, add here
-        if (stars.size() < MAX_CAPACITY || depth >= MAX_DEPTH) {
-            stars.add(star);
-            return true;
+        /**
+         * Lay out a node covering the Morton-sorted run ids[from, to) and, unless it is a leaf, its subtree.
+         */
+        void fill(StarStore store, int[] ids, int[] codes, int node, int depth, int raCell, int decCell,
+                  int from, int to) {
+            setNode(node, depth, raCell, decCell, from, to);
+
+            if (to - from <= MAX_CAPACITY || depth == MAX_DEPTH) {
+                store.sortByMagnitude(ids, from, to);
+                firstChild[node] = -1;
+                brightest[node] = from < to ? store.getMag(ids[from]) : Float.POSITIVE_INFINITY;
+                return;
+            }
+
+            int first = add();
+            add();
+            add();
+            add();
+            firstChild[node] = first;
+
+            // Children are consecutive runs, ordered by the two code bits of the next level
+            int shift = 2 * (MAX_DEPTH - 1 - depth);
+            float mag = Float.POSITIVE_INFINITY;
+            for (int quadrant = 0; quadrant < 4; quadrant++) {
+                int split = quadrant == 3 ? to : firstAbove(codes, from, to, shift, quadrant);
+                fill(store, ids, codes, first + quadrant, depth + 1,
+                    raCell * 2 + (quadrant & 1), decCell * 2 + (quadrant >> 1), from, split);
+                mag = Math.min(mag, brightest[first + quadrant]);
+                from = split;
+            }
+            brightest[node] = mag;
         }
 
-        // Otherwise, subdivide if needed and insert into children
-        if (!divided) {
-            subdivide();
+        /**
+         * Set a node's run and the bounding cap of its cell.
+         */
+        void setNode(int node, int depth, int raCell, int decCell, int from, int to) {
+            double raSize = 24.0 / (1 << depth);
+            double decSize = 180.0 / (1 << depth);
+            setCap(node, raCell * raSize, (raCell + 1) * raSize, -90.0 + decCell * decSize, -90.0 + (decCell + 1) * decSize);
+            start[node] = from;
+            end[node] = to;
         }
 
-        // Try to insert into one of the children
-        for (QuadTree child : children) {
-            if (child.insert(star)) {
-                return true;
+        /**
+         * Copy a separately built subtree in, its root into slot and the rest appended, renumbering child links.
+         */
+        void attach(Layout subtree, int slot) {
+            int base = count - 1;  // Subtree node i > 0 lands at base + i
+            copy(subtree, 0, slot, base);
+            for (int i = 1; i < subtree.count; i++) {
+                copy(subtree, i, add(), base);
             }
         }
 
-        // Fallback: add to this node even if over capacity
-        stars.add(star);
-        return true;
-    }
+        private void copy(Layout subtree, int from, int to, int base) {
+            start[to] = subtree.start[from];
+            end[to] = subtree.end[from];
+            firstChild[to] = subtree.firstChild[from] < 0 ? -1 : base + subtree.firstChild[from];
+            System.arraycopy(subtree.caps, from * 4, caps, to * 4, 4);
+            brightest[to] = subtree.brightest[from];
+        }
 
-    /**
-     * Subdivide this node into four children.
-     */
-    private void subdivide() {
-        double raMid = (bounds.raMin + bounds.raMax) / 2.0;
-        double decMid = (bounds.decMin + bounds.decMax) / 2.0;
-
-        children = new QuadTree[4];
-
-        // NE quadrant
-        children[0] = new QuadTree(
-            new Bounds(raMid, bounds.raMax, decMid, bounds.decMax),
-            depth + 1
-        );
-
-        // NW quadrant
-        children[1] = new QuadTree(
-            new Bounds(bounds.raMin, raMid, decMid, bounds.decMax),
-            depth + 1
-        );
-
-        // SE quadrant
-        children[2] = new QuadTree(
-            new Bounds(raMid, bounds.raMax, bounds.decMin, decMid),
-            depth + 1
-        );
-
-        // SW quadrant
-        children[3] = new QuadTree(
-            new Bounds(bounds.raMin, raMid, bounds.decMin, decMid),
-            depth + 1
-        );
-
-        divided = true;
-
-        // Move existing stars to children
-        List<Star> existingStars = new ArrayList<>(stars);
-        stars.clear();
-
-        for (Star star : existingStars) {
-            boolean inserted = false;
-            for (QuadTree child : children) {
-                if (child.insert(star)) {
-                    inserted = true;
-                    break;
+        /**
+         * First index in [from, to) whose quadrant bits at shift exceed quadrant; the run is sorted by code.
+         */
+        private static int firstAbove(int[] codes, int from, int to, int shift, int quadrant) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (((codes[mid] >>> shift) & 3) <= quadrant) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
                 }
             }
-            if (!inserted) {
-                stars.add(star);  // Keep in this node if can't insert to children
+            return low;
+        }
+
+        /**
+         * Cap around the box center that covers the box. Up to 12h wide, the farthest point from the center
+         * is a corner; wider boxes get the whole sphere.
+         */
+        private void setCap(int node, double raMin, double raMax, double decMin, double decMax) {
+            int c = node * 4;
+            SkyVectors.toVector((raMin + raMax) / 2.0, (decMin + decMax) / 2.0, caps, c);
+            if (raMax - raMin > 12.0) {
+                caps[c + 3] = Math.PI;
+                return;
+            }
+            double radius = 0;
+            double[] corner = new double[3];
+            for (int i = 0; i < 4; i++) {
+                SkyVectors.toVector((i & 1) == 0 ? raMin : raMax, (i & 2) == 0 ? decMin : decMax, corner, 0);
+                radius = Math.max(radius,
+                    SkyVectors.angle(caps[c], caps[c + 1], caps[c + 2], corner[0], corner[1], corner[2]));
             }
+            caps[c + 3] = radius + 1e-12;
         }
     }
 
     /**
-     * Query stars within a region.
+     * Visit star IDs inside a region without allocating.
      */
-    public List<Star> query(Bounds range) {
-        List<Star> found = new ArrayList<>();
+    @Override
+    public void forEach(SkyRegion region, StarIdSink sink) {
+        forEach(0, region, sink);
+    }
 
-        // If range doesn't intersect bounds, return empty
-        if (!bounds.intersects(range)) {
-            return found;
+    private void forEach(int node, SkyRegion region, StarIdSink sink) {
+        if (start[node] == end[node]) {
+            return;
+        }
+        SkyRegion.Coverage coverage = classify(node, region);
+        if (coverage == SkyRegion.Coverage.OUTSIDE) {
+            return;
+        }
+        if (coverage == SkyRegion.Coverage.INSIDE) {
+            for (int i = start[node]; i < end[node]; i++) {
+                sink.accept(ids[i]);
+            }
+            return;
         }
 
-        // Check stars in this node
-        for (Star star : stars) {
-            if (range.contains(star.getRa(), star.getDec())) {
-                found.add(star);
+        if (firstChild[node] < 0) {
+            for (int i = start[node]; i < end[node]; i++) {
+                int id = ids[i];
+                if (region.contains(store.getUnitX(id), store.getUnitY(id), store.getUnitZ(id))) {
+                    sink.accept(id);
+                }
             }
+            return;
         }
 
-        // Recursively check children
-        if (divided) {
-            for (QuadTree child : children) {
-                found.addAll(child.query(range));
+        for (int child = firstChild[node]; child < firstChild[node] + 4; child++) {
+            forEach(child, region, sink);
+        }
+    }
+
+    @Override
+    public void forEachBrightest(SkyRegion region, IntPredicate visitor) {
+        BestFirstQueue queue = BestFirstQueue.forThread();
+        addBrightNode(queue, region, 0, false);
+
+        boolean more = true;
+        while (more && !queue.isEmpty()) {
+            queue.poll();
+            long packed = queue.polledPacked();
+            boolean inside = (packed & 1) != 0;
+            int node = (int) (packed >>> 1) & NODE_MASK;
+
+            if ((packed & RUN) == 0) {
+                for (int child = firstChild[node]; child < firstChild[node] + 4; child++) {
+                    addBrightNode(queue, region, child, inside);
+                }
+                continue;
+            }
+
+            int slot = (int) ((packed & ~RUN) >>> 32);
+            int id = ids[slot];
+            if (inside || region.contains(store.getUnitX(id), store.getUnitY(id), store.getUnitZ(id))) {
+                more = visitor.test(id);
+            }
+            if (slot + 1 < end[node]) {
+                queue.addNode(store.getMag(ids[slot + 1]), (packed & ~(~0L << 32)) | RUN | ((long) (slot + 1) << 32));
             }
         }
 
-        return found;
+        queue.clear();
     }
 
     /**
-     * Query stars within a circular region (cone search).
+     * Queue a node by the brightest star under it, or a cursor over a leaf's stars, unless it is empty or outside
+     * the region.
      */
-    public List<Star> queryRadius(double centerRA, double centerDec, double radiusDeg) {
-        // Create bounding box for the circle
-        Bounds range = new Bounds(
-            centerRA - radiusDeg,
-            centerRA + radiusDeg,
-            centerDec - radiusDeg,
-            centerDec + radiusDeg
-        );
-
-        // Get candidates from rectangular region
-        List<Star> candidates = query(range);
-
-        // Filter to actual circular region
-        List<Star> found = new ArrayList<>();
-        double radiusRad = Math.toRadians(radiusDeg);
-
-        for (Star star : candidates) {
-            double distance = angularDistance(centerRA, centerDec, star.getRa(), star.getDec());
-            if (distance <= radiusRad) {
-                found.add(star);
+    private void addBrightNode(BestFirstQueue queue, SkyRegion region, int node, boolean inside) {
+        if (brightest[node] == Float.POSITIVE_INFINITY) {
+            return;
+        }
+        if (!inside) {
+            SkyRegion.Coverage coverage = classify(node, region);
+            if (coverage == SkyRegion.Coverage.OUTSIDE) {
+                return;
             }
+            inside = coverage == SkyRegion.Coverage.INSIDE;
         }
 
-        return found;
+        long packed = ((long) node << 1) | (inside ? 1 : 0);
+        if (firstChild[node] < 0) {
+            queue.addNode(brightest[node], packed | RUN | ((long) start[node] << 32));
+        } else {
+            queue.addNode(brightest[node], packed);
+        }
     }
 
     /**
-     * Calculate angular distance between two points on celestial sphere.
+     * Query stars within a circular region (cone search).
      */
-    private double angularDistance(double ra1, double dec1, double ra2, double dec2) {
-        double ra1Rad = Math.toRadians(ra1 * 15.0);  // Hours to degrees to radians
-        double dec1Rad = Math.toRadians(dec1);
-        double ra2Rad = Math.toRadians(ra2 * 15.0);
-        double dec2Rad = Math.toRadians(dec2);
+    public int[] queryRadius(double centerRA, double centerDec, double radiusDeg) {
+        return queryCone(centerRA, centerDec, radiusDeg);
+    }
 
-        // Haversine formula
-        double dRA = ra2Rad - ra1Rad;
-        double dDec = dec2Rad - dec1Rad;
+    /**
+     * Find the stars nearest to a given position, best-first over the node bounding caps.
+     */
+    @Override
+    public int findNearest(double ra, double dec, double maxRadius, IntPredicate filter, int[] nearest) {
+        double raRad = Math.toRadians(ra * 15.0);
+        double decRad = Math.toRadians(dec);
+        double tx = Math.cos(decRad) * Math.cos(raRad);
+        double ty = Math.cos(decRad) * Math.sin(raRad);
+        double tz = Math.sin(decRad);
+        double limit = Math.toRadians(maxRadius);
+
+        BestFirstQueue queue = BestFirstQueue.forThread();
+        queue.addNode(minDistance(0, tx, ty, tz), 0L);
+
+        int found = 0;
+        while (found < nearest.length && queue.peekKey() <= limit) {
+            queue.poll();
+            if (queue.polledStar()) {
+                nearest[found++] = queue.polledStarId();
+                continue;
+            }
 
-        double a = Math.sin(dDec / 2) * Math.sin(dDec / 2) +
-                  Math.cos(dec1Rad) * Math.cos(dec2Rad) *
-                  Math.sin(dRA / 2) * Math.sin(dRA / 2);
+            int node = (int) queue.polledPacked();
+            if (firstChild[node] < 0) {
+                for (int i = start[node]; i < end[node]; i++) {
+                    int id = ids[i];
+                    if (filter == null || filter.test(id)) {
+                        double distance = SkyVectors.angle(tx, ty, tz,
+                            store.getUnitX(id), store.getUnitY(id), store.getUnitZ(id));
+                        if (distance <= limit) {
+                            queue.addStar(distance, id);
+                        }
+                    }
+                }
+                continue;
+            }
+            for (int child = firstChild[node]; child < firstChild[node] + 4; child++) {
+                if (start[child] < end[child]) {
+                    double distance = minDistance(child, tx, ty, tz);
+                    if (distance <= limit) {
+                        queue.addNode(distance, child);
+                    }
+                }
+            }
+        }
 
-        return 2 * Math.asin(Math.sqrt(a));
+        queue.clear();
+        return found;
+    }
+
+    private SkyRegion.Coverage classify(int node, SkyRegion region) {
+        int c = node * 4;
+        return region.classify(caps[c], caps[c + 1], caps[c + 2], caps[c + 3]);
     }
 
     /**
-     * Find the nearest star to a given position.
+     * Lower bound on the angle in radians from a unit vector to any point in a node.
      */
-    public Star findNearest(double ra, double dec, double maxRadius) {
-        List<Star> candidates = queryRadius(ra, dec, maxRadius);
+    private double minDistance(int node, double x, double y, double z) {
+        int c = node * 4;
+        return Math.max(0.0, SkyVectors.angle(x, y, z, caps[c], caps[c + 1], caps[c + 2]) - caps[c + 3]);
+    }
 
-        if (candidates.isEmpty()) {
-            return null;
-        }
+    /**
+     * Number of nodes, for diagnostics.
+     */
+    public int getNodeCount() {
+        return start.length;
+    }
 
-        Star nearest = null;
-        double minDistance = Double.MAX_VALUE;
+    /**
+     * First of the four children of a node, or -1 for a leaf.
+     */
+    int getFirstChild(int node) {
+        return firstChild[node];
+    }
 
-        for (Star star : candidates) {
-            double distance = angularDistance(ra, dec, star.getRa(), star.getDec());
-            if (distance < minDistance) {
-                minDistance = distance;
-                nearest = star;
-            }
-        }
+    /**
+     * Start of the run of star slots under a node.
+     */
+    int getRunStart(int node) {
+        return start[node];
+    }
 
-        return nearest;
+    /**
+     * End of the run of star slots under a node, exclusive.
+     */
+    int getRunEnd(int node) {
+        return end[node];
     }
 
     /**
-     * Get total number of stars in tree.
+     * Star ID in a slot; slots are in Morton order, by magnitude within each leaf.
      */
-    public int size() {
-        int count = stars.size();
-        if (divided) {
-            for (QuadTree child : children) {
-                count += child.size();
-            }
-        }
-        return count;
+    int getStarId(int slot) {
+        return ids[slot];
     }
 
     /**
-     * Clear the tree.
+     * Get total number of stars in tree.
      */
-    public void clear() {
-        stars.clear();
-        if (divided) {
-            for (QuadTree child : children) {
-                child.clear();
-            }
-            children = null;
-            divided = false;
-        }
+    @Override
+    public int size() {
+        return ids.length;
     }
 }
-
@@ -0,0 +1,126 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Spatial index over int star IDs.
+ * <p>
+ * Implementations are exact: every query returns precisely the indexed stars inside the region.
+ * The visitor methods traverse without allocating, so a caller that reuses its region and sink
+ * (see {@link SkyRegion.Ring#set}) can query every frame without producing garbage.
+ */
+public interface SkyIndex {
+
+    /**
+     * Pass the ID of every star inside a region to the sink.
+     */
+    void forEach(SkyRegion region, StarIdSink sink);
+
+    /**
+     * Pass the ID of every star within radiusDeg of an RA (hours) / Dec (degrees) position to the sink.
+     */
+    default void forEachInCone(double raHours, double decDeg, double radiusDeg, StarIdSink sink) {
+        forEach(SkyRegion.cone(raHours, decDeg, radiusDeg), sink);
+    }
+
+    /**
+     * Star IDs inside a region.
+     */
+    default int[] query(SkyRegion region) {
+        StarIdList found = new StarIdList();
+        forEach(region, found);
+        return found.toArray();
+    }
+
+    /**
+     * Star IDs within radiusDeg of an RA (hours) / Dec (degrees) position.
+     */
+    default int[] queryCone(double raHours, double decDeg, double radiusDeg) {
+        return query(SkyRegion.cone(raHours, decDeg, radiusDeg));
+    }
+
+    /**
+     * Star IDs between innerDeg and outerDeg from an RA (hours) / Dec (degrees) position.
+     */
+    default int[] queryRing(double raHours, double decDeg, double innerDeg, double outerDeg) {
+        return query(SkyRegion.ring(raHours, decDeg, innerDeg, outerDeg));
+    }
+
+    /**
+     * Star IDs inside a convex spherical polygon given by its vertices.
+     */
+    default int[] queryPolygon(double[] raHours, double[] decDeg) {
+        return query(SkyRegion.polygon(raHours, decDeg));
+    }
+
+    /**
+     * Visit stars inside a region brightest first, for as long as the visitor returns true.
+     * Cells keep their stars sorted by magnitude and are expanded in order of the brightest star under them,
+     * so the work grows with the number of stars visited rather than with the number inside the region.
+     * The visitor must not search an index on the same thread.
+     */
+    void forEachBrightest(SkyRegion region, IntPredicate visitor);
+
+    /**
+     * Visit stars inside a region brightest first, stopping once the visitor has kept limit of them.
+     *
+     * @param visitor receives star IDs in order of increasing magnitude and returns whether it kept the star
+     * @return number of stars kept
+     */
+    default int forEachBrightest(SkyRegion region, int limit, IntPredicate visitor) {
+        if (limit <= 0) {
+            return 0;
+        }
+        int[] kept = new int[1];
+        forEachBrightest(region, id -> !visitor.test(id) || ++kept[0] < limit);
+        return kept[0];
+    }
+
+    /**
+     * Up to limit star IDs inside a region, brightest first.
+     */
+    default int[] queryBrightest(SkyRegion region, int limit) {
+        StarIdList found = new StarIdList();
+        forEachBrightest(region, limit, id -> {
+            found.add(id);
+            return true;
+        });
+        return found.toArray();
+    }
+
+    /**
+     * The stars nearest to a position, closest first, found best-first: index nodes are expanded in order of their
+     * minimum angular distance to the position, so the search touches O(log n + k) nodes with no radius guess.
+     *
+     * @param maxRadiusDeg stop at this distance; 180 for no limit
+     * @param filter       only stars it accepts count towards the result, may be null
+     * @param nearest      receives up to nearest.length star IDs
+     * @return number of IDs written
+     */
+    int findNearest(double raHours, double decDeg, double maxRadiusDeg, IntPredicate filter, int[] nearest);
+
+    /**
+     * The k stars nearest to a position, closest first.
+     */
+    default int[] findNearest(double raHours, double decDeg, int k) {
+        int[] nearest = new int[k];
+        int found = findNearest(raHours, decDeg, 180.0, null, nearest);
+        return found == k ? nearest : Arrays.copyOf(nearest, found);
+    }
+
+    /**
+     * Nearest star to a position.
+     *
+     * @return star ID, or -1 if no star is within maxRadiusDeg
+     */
+    default int findNearest(double raHours, double decDeg, double maxRadiusDeg) {
+        int[] nearest = new int[1];
+        return findNearest(raHours, decDeg, maxRadiusDeg, null, nearest) > 0 ? nearest[0] : -1;
+    }
+
+    /**
+     * Number of indexed stars.
+     */
+    int size();
+}
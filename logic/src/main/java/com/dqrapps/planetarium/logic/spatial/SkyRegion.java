@@ -0,0 +1,442 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+/**
+ * A region of the celestial sphere that spatial indexes can query.
+ * <p>
+ * Regions are tested against unit vectors (see {@link SkyVectors}) and classified against bounding caps of index
+ * cells, so an index only tests individual stars in cells that straddle the region's edge. All regions are exact:
+ * nothing near the poles or the 0h/24h seam is missed or approximated.
+ */
+public abstract class SkyRegion {
+
+    private static final double TWO_PI = 2.0 * Math.PI;
+
+    /**
+     * How an index cell relates to a region.
+     */
+    public enum Coverage {
+        OUTSIDE,
+        PARTIAL,
+        INSIDE
+    }
+
+    /**
+     * Whether the unit vector lies inside the region.
+     */
+    public abstract boolean contains(double x, double y, double z);
+
+    /**
+     * Whether a star's single-precision unit vector lies inside the region. Rounding to float leaves a vector up to
+     * about 1e-7 off unit length, enough to flip a dot-product test against a cone of a few arcseconds, so it is
+     * rescaled first.
+     */
+    public boolean contains(float x, float y, float z) {
+        double norm = Math.sqrt((double) x * x + (double) y * y + (double) z * z);
+        return contains(x / norm, y / norm, z / norm);
+    }
+
+    /**
+     * Classify a spherical cap (unit-vector center, radius in radians) against the region.
+     * May answer PARTIAL for a cap that is actually inside or outside, never the reverse.
+     */
+    public abstract Coverage classify(double x, double y, double z, double radius);
+
+    /**
+     * Whether an RA (hours) / Dec (degrees) position lies inside the region.
+     */
+    public boolean contains(double raHours, double decDeg) {
+        double ra = Math.toRadians(raHours * 15.0);
+        double dec = Math.toRadians(decDeg);
+        double cosDec = Math.cos(dec);
+        return contains(cosDec * Math.cos(ra), cosDec * Math.sin(ra), Math.sin(dec));
+    }
+
+    /**
+     * All points within radiusDeg of the center.
+     */
+    public static Ring cone(double raHours, double decDeg, double radiusDeg) {
+        return new Ring().set(raHours, decDeg, 0.0, radiusDeg);
+    }
+
+    /**
+     * All points between innerDeg and outerDeg from the center.
+     */
+    public static Ring ring(double raHours, double decDeg, double innerDeg, double outerDeg) {
+        return new Ring().set(raHours, decDeg, innerDeg, outerDeg);
+    }
+
+    /**
+     * Convex spherical polygon with great-circle edges, vertices in either winding order.
+     */
+    public static SkyRegion polygon(double[] raHours, double[] decDeg) {
+        return new Polygon(raHours, decDeg);
+    }
+
+    /**
+     * Intersection of spherical caps: a spherical polygon whose edges are arcs of great or small circles.
+     *
+     * @param centers unit-vector cap centers, x, y, z per cap
+     * @param radii   cap radii in radians; more than pi / 2 for caps bigger than a hemisphere
+     */
+    public static SkyRegion caps(double[] centers, double[] radii) {
+        return new Caps(centers, radii);
+    }
+
+    /**
+     * Points inside any of the given regions, e.g. the separately drawn panels of one view.
+     */
+    public static SkyRegion union(SkyRegion... parts) {
+        return new Union(parts);
+    }
+
+    /**
+     * Points inside all of the given regions, e.g. a view footprint restricted to the sky above the horizon.
+     */
+    public static SkyRegion intersection(SkyRegion... parts) {
+        return new Intersection(parts);
+    }
+
+    /**
+     * RA/Dec rectangle. raMin greater than raMax wraps across 0h, e.g. 22h to 2h.
+     */
+    public static SkyRegion box(double raMin, double raMax, double decMin, double decMax) {
+        return new Box(raMin, raMax, decMin, decMax);
+    }
+
+    /**
+     * Cone or annulus around a center.
+     * <p>
+     * Unlike the other regions a ring can be moved with {@link #set}, so a thread that queries every frame can keep
+     * one instance. A ring being reset must not be shared with other threads.
+     */
+    public static final class Ring extends SkyRegion {
+        private double cx;
+        private double cy;
+        private double cz;
+        private double inner;
+        private double outer;
+        private double cosInner;
+        private double cosOuter;
+
+        /**
+         * Empty ring; call {@link #set} before querying.
+         */
+        public Ring() {
+            outer = -1.0;
+            cosOuter = 2.0;
+        }
+
+        /**
+         * Move the ring: all points between innerDeg and outerDeg from the center (innerDeg 0 for a cone).
+         */
+        public Ring set(double raHours, double decDeg, double innerDeg, double outerDeg) {
+            if (innerDeg > outerDeg) {
+                throw new IllegalArgumentException("Inner radius " + innerDeg + " exceeds outer radius " + outerDeg);
+            }
+            double ra = Math.toRadians(raHours * 15.0);
+            double dec = Math.toRadians(decDeg);
+            double cosDec = Math.cos(dec);
+            cx = cosDec * Math.cos(ra);
+            cy = cosDec * Math.sin(ra);
+            cz = Math.sin(dec);
+            inner = Math.toRadians(Math.max(0.0, innerDeg));
+            outer = Math.toRadians(outerDeg);
+            cosInner = inner > 0.0 ? Math.cos(inner) : 2.0;
+            cosOuter = outer >= Math.PI ? -2.0 : Math.cos(outer);
+            return this;
+        }
+
+        @Override
+        public boolean contains(double x, double y, double z) {
+            double dot = cx * x + cy * y + cz * z;
+            return dot >= cosOuter && dot <= cosInner;
+        }
+
+        @Override
+        public Coverage classify(double x, double y, double z, double radius) {
+            double d = SkyVectors.angle(cx, cy, cz, x, y, z);
+            if (d - radius > outer || d + radius < inner) {
+                return Coverage.OUTSIDE;
+            }
+            if (d + radius <= outer && d - radius >= inner) {
+                return Coverage.INSIDE;
+            }
+            return Coverage.PARTIAL;
+        }
+    }
+
+    /**
+     * Intersection of the hemispheres on the inner side of each edge.
+     */
+    private static final class Polygon extends SkyRegion {
+        private static final double EPSILON = 1e-12;
+
+        private final double[] normals;  // x, y, z per edge, unit length, pointing inside
+        private final int edges;
+
+        Polygon(double[] raHours, double[] decDeg) {
+            if (raHours.length != decDeg.length || raHours.length < 3) {
+                throw new IllegalArgumentException("A polygon needs at least 3 vertices with matching RA and Dec");
+            }
+            edges = raHours.length;
+            double[] vertices = new double[edges * 3];
+            for (int i = 0; i < edges; i++) {
+                SkyVectors.toVector(raHours[i], decDeg[i], vertices, i * 3);
+            }
+
+            normals = new double[edges * 3];
+            double sx = 0;
+            double sy = 0;
+            double sz = 0;
+            for (int i = 0; i < edges; i++) {
+                int a = i * 3;
+                int b = ((i + 1) % edges) * 3;
+                double nx = vertices[a + 1] * vertices[b + 2] - vertices[a + 2] * vertices[b + 1];
+                double ny = vertices[a + 2] * vertices[b] - vertices[a] * vertices[b + 2];
+                double nz = vertices[a] * vertices[b + 1] - vertices[a + 1] * vertices[b];
+                double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+                if (length < EPSILON) {
+                    throw new IllegalArgumentException("Polygon has coincident or antipodal adjacent vertices");
+                }
+                normals[a] = nx / length;
+                normals[a + 1] = ny / length;
+                normals[a + 2] = nz / length;
+                sx += vertices[a];
+                sy += vertices[a + 1];
+                sz += vertices[a + 2];
+            }
+
+            // Clockwise input: flip the normals so they point into the polygon
+            if (normals[0] * sx + normals[1] * sy + normals[2] * sz < 0) {
+                for (int i = 0; i < normals.length; i++) {
+                    normals[i] = -normals[i];
+                }
+            }
+
+            for (int i = 0; i < edges; i++) {
+                if (!containsWithin(vertices[i * 3], vertices[i * 3 + 1], vertices[i * 3 + 2], 1e-9)) {
+                    throw new IllegalArgumentException("Polygon is not convex");
+                }
+            }
+        }
+
+        @Override
+        public boolean contains(double x, double y, double z) {
+            return containsWithin(x, y, z, 0.0);
+        }
+
+        private boolean containsWithin(double x, double y, double z, double tolerance) {
+            for (int i = 0; i < normals.length; i += 3) {
+                if (normals[i] * x + normals[i + 1] * y + normals[i + 2] * z < -tolerance) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Coverage classify(double x, double y, double z, double radius) {
+            double sinRadius = Math.sin(Math.min(radius, Math.PI / 2));
+            boolean inside = radius < Math.PI / 2;
+            for (int i = 0; i < normals.length; i += 3) {
+                // Sine of the signed angle between the cap center and the edge's great circle
+                double s = normals[i] * x + normals[i + 1] * y + normals[i + 2] * z;
+                if (radius < Math.PI / 2 && s < -sinRadius) {
+                    return Coverage.OUTSIDE;
+                }
+                if (s < sinRadius) {
+                    inside = false;
+                }
+            }
+            return inside ? Coverage.INSIDE : Coverage.PARTIAL;
+        }
+    }
+
+    /**
+     * Points inside every one of a set of caps.
+     */
+    private static final class Caps extends SkyRegion {
+        private final double[] centers;
+        private final double[] radii;
+        private final double[] cosRadii;
+
+        Caps(double[] centers, double[] radii) {
+            if (centers.length != radii.length * 3 || radii.length == 0) {
+                throw new IllegalArgumentException("Caps need one unit-vector center per radius");
+            }
+            this.centers = centers.clone();
+            this.radii = radii.clone();
+            this.cosRadii = new double[radii.length];
+            for (int i = 0; i < radii.length; i++) {
+                cosRadii[i] = radii[i] >= Math.PI ? -2.0 : Math.cos(radii[i]);
+            }
+        }
+
+        @Override
+        public boolean contains(double x, double y, double z) {
+            for (int i = 0; i < radii.length; i++) {
+                if (centers[i * 3] * x + centers[i * 3 + 1] * y + centers[i * 3 + 2] * z < cosRadii[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Coverage classify(double x, double y, double z, double radius) {
+            boolean inside = true;
+            for (int i = 0; i < radii.length; i++) {
+                double d = SkyVectors.angle(centers[i * 3], centers[i * 3 + 1], centers[i * 3 + 2], x, y, z);
+                if (d - radius > radii[i]) {
+                    return Coverage.OUTSIDE;
+                }
+                if (d + radius > radii[i]) {
+                    inside = false;
+                }
+            }
+            return inside ? Coverage.INSIDE : Coverage.PARTIAL;
+        }
+    }
+
+    /**
+     * Points inside at least one part.
+     */
+    private static final class Union extends SkyRegion {
+        private final SkyRegion[] parts;
+
+        Union(SkyRegion[] parts) {
+            if (parts.length == 0) {
+                throw new IllegalArgumentException("A union needs at least one region");
+            }
+            this.parts = parts.clone();
+        }
+
+        @Override
+        public boolean contains(double x, double y, double z) {
+            for (SkyRegion part : parts) {
+                if (part.contains(x, y, z)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Coverage classify(double x, double y, double z, double radius) {
+            Coverage coverage = Coverage.OUTSIDE;
+            for (SkyRegion part : parts) {
+                Coverage partCoverage = part.classify(x, y, z, radius);
+                if (partCoverage == Coverage.INSIDE) {
+                    return Coverage.INSIDE;
+                }
+                if (partCoverage == Coverage.PARTIAL) {
+                    coverage = Coverage.PARTIAL;
+                }
+            }
+            return coverage;
+        }
+    }
+
+    /**
+     * Points inside every part.
+     */
+    private static final class Intersection extends SkyRegion {
+        private final SkyRegion[] parts;
+
+        Intersection(SkyRegion[] parts) {
+            if (parts.length == 0) {
+                throw new IllegalArgumentException("An intersection needs at least one region");
+            }
+            this.parts = parts.clone();
+        }
+
+        @Override
+        public boolean contains(double x, double y, double z) {
+            for (SkyRegion part : parts) {
+                if (!part.contains(x, y, z)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Coverage classify(double x, double y, double z, double radius) {
+            Coverage coverage = Coverage.INSIDE;
+            for (SkyRegion part : parts) {
+                Coverage partCoverage = part.classify(x, y, z, radius);
+                if (partCoverage == Coverage.OUTSIDE) {
+                    return Coverage.OUTSIDE;
+                }
+                if (partCoverage == Coverage.PARTIAL) {
+                    coverage = Coverage.PARTIAL;
+                }
+            }
+            return coverage;
+        }
+    }
+
+    /**
+     * RA/Dec rectangle, possibly wrapping across 0h.
+     */
+    private static final class Box extends SkyRegion {
+        private final double raStart;   // radians, [0, 2pi)
+        private final double raWidth;   // radians, 2pi for the full circle
+        private final double decMin;    // radians
+        private final double decMax;
+
+        Box(double raMinHours, double raMaxHours, double decMinDeg, double decMaxDeg) {
+            double width = raMaxHours - raMinHours;
+            if (width >= 24.0) {
+                raWidth = TWO_PI;
+            } else {
+                raWidth = Math.toRadians(((width % 24.0) + 24.0) % 24.0 * 15.0);
+            }
+            raStart = normalize(Math.toRadians(raMinHours * 15.0));
+            decMin = Math.toRadians(Math.max(-90.0, decMinDeg));
+            decMax = Math.toRadians(Math.min(90.0, decMaxDeg));
+        }
+
+        @Override
+        public boolean contains(double x, double y, double z) {
+            double dec = Math.asin(Math.max(-1.0, Math.min(1.0, z)));
+            if (dec < decMin || dec > decMax) {
+                return false;
+            }
+            return raWidth >= TWO_PI || normalize(Math.atan2(y, x) - raStart) <= raWidth;
+        }
+
+        @Override
+        public Coverage classify(double x, double y, double z, double radius) {
+            double dec = Math.asin(Math.max(-1.0, Math.min(1.0, z)));
+            if (dec + radius < decMin || dec - radius > decMax) {
+                return Coverage.OUTSIDE;
+            }
+            boolean decInside = dec - radius >= decMin && dec + radius <= decMax;
+
+            // A cap around a pole spans every RA
+            if (Math.abs(dec) + radius >= Math.PI / 2) {
+                return decInside && raWidth >= TWO_PI ? Coverage.INSIDE : Coverage.PARTIAL;
+            }
+            if (raWidth >= TWO_PI) {
+                return decInside ? Coverage.INSIDE : Coverage.PARTIAL;
+            }
+
+            double halfWidth = Math.asin(Math.min(1.0, Math.sin(radius) / Math.cos(dec)));
+            double capStart = normalize(Math.atan2(y, x) - halfWidth);
+            double capWidth = 2.0 * halfWidth;
+
+            boolean overlaps = normalize(capStart - raStart) <= raWidth || normalize(raStart - capStart) <= capWidth;
+            if (!overlaps) {
+                return Coverage.OUTSIDE;
+            }
+            boolean raInside = normalize(capStart - raStart) + capWidth <= raWidth;
+            return decInside && raInside ? Coverage.INSIDE : Coverage.PARTIAL;
+        }
+
+        private static double normalize(double angle) {
+            double a = angle % TWO_PI;
+            return a < 0 ? a + TWO_PI : a;
+        }
+    }
+}
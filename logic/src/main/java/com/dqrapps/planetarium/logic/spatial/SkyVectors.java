@@ -0,0 +1,84 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+/**
+ * Unit-vector helpers for positions on the celestial sphere.
+ * x points to RA 0h on the equator, y to RA 6h, z to the north celestial pole.
+ */
+public final class SkyVectors {
+
+    private SkyVectors() {
+    }
+
+    /**
+     * Write the unit vector for an RA (hours) / Dec (degrees) position into out[offset..offset + 2].
+     */
+    public static void toVector(double raHours, double decDeg, double[] out, int offset) {
+        double ra = Math.toRadians(raHours * 15.0);
+        double dec = Math.toRadians(decDeg);
+        double cosDec = Math.cos(dec);
+        out[offset] = cosDec * Math.cos(ra);
+        out[offset + 1] = cosDec * Math.sin(ra);
+        out[offset + 2] = Math.sin(dec);
+    }
+
+    public static double[] toVector(double raHours, double decDeg) {
+        double[] v = new double[3];
+        toVector(raHours, decDeg, v, 0);
+        return v;
+    }
+
+    /**
+     * Write the rotation into the frame of a view centered on an RA (hours) / Dec (degrees) position, as a row-major
+     * 3x3 matrix in out[0..8]. Its rows are the unit vectors pointing east, north and at the center, so a rotated
+     * star vector has the center at +z, east along +x and north along +y.
+     */
+    public static void viewRotation(double raHours, double decDeg, double[] out) {
+        double ra = Math.toRadians(raHours * 15.0);
+        double dec = Math.toRadians(decDeg);
+        double sinRa = Math.sin(ra);
+        double cosRa = Math.cos(ra);
+        double sinDec = Math.sin(dec);
+        double cosDec = Math.cos(dec);
+        out[0] = -sinRa;
+        out[1] = cosRa;
+        out[2] = 0.0;
+        out[3] = -sinDec * cosRa;
+        out[4] = -sinDec * sinRa;
+        out[5] = cosDec;
+        out[6] = cosDec * cosRa;
+        out[7] = cosDec * sinRa;
+        out[8] = sinDec;
+    }
+
+    /**
+     * Angle in radians between two unit vectors, accurate at all separations.
+     */
+    public static double angle(double x1, double y1, double z1, double x2, double y2, double z2) {
+        double cx = y1 * z2 - z1 * y2;
+        double cy = z1 * x2 - x1 * z2;
+        double cz = x1 * y2 - y1 * x2;
+        double cross = Math.sqrt(cx * cx + cy * cy + cz * cz);
+        double dot = x1 * x2 + y1 * y2 + z1 * z2;
+        return Math.atan2(cross, dot);
+    }
+
+    /**
+     * Angular distance in radians between two RA (hours) / Dec (degrees) positions.
+     */
+    public static double angularDistance(double ra1, double dec1, double ra2, double dec2) {
+        double ra1Rad = Math.toRadians(ra1 * 15.0);  // Hours to degrees to radians
+        double dec1Rad = Math.toRadians(dec1);
+        double ra2Rad = Math.toRadians(ra2 * 15.0);
+        double dec2Rad = Math.toRadians(dec2);
+
+        // Haversine formula
+        double dRA = ra2Rad - ra1Rad;
+        double dDec = dec2Rad - dec1Rad;
+
+        double a = Math.sin(dDec / 2) * Math.sin(dDec / 2) +
+                  Math.cos(dec1Rad) * Math.cos(dec2Rad) *
+                  Math.sin(dRA / 2) * Math.sin(dRA / 2);
+
+        return 2 * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive star IDs. Reuse one with {@link #clear()} to collect query results without garbage.
+ */
+public class StarIdList implements StarIdSink {
+
+    private int[] ids;
+    private int size;
+
+    public StarIdList() {
+        this(16);
+    }
+
+    public StarIdList(int initialCapacity) {
+        ids = new int[Math.max(1, initialCapacity)];
+    }
+
+    public void add(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    @Override
+    public void accept(int id) {
+        add(id);
+    }
+
+    public int get(int index) {
+        return ids[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
@@ -0,0 +1,10 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+/**
+ * Receives star IDs from a spatial query, one call per star, without any per-star allocation.
+ */
+@FunctionalInterface
+public interface StarIdSink {
+
+    void accept(int id);
+}
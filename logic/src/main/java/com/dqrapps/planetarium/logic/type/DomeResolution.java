@@ -0,0 +1,35 @@
+package com.dqrapps.planetarium.logic.type;
+
+/**
+ * Standard dome master sizes: square fisheye frames, the width in pixels of the dome's full diameter.
+ */
+public enum DomeResolution {
+    DOME_2K("2K", 2048, "2048 x 2048, previews and small domes"),
+    DOME_4K("4K", 4096, "4096 x 4096, typical fulldome projection"),
+    DOME_8K("8K", 8192, "8192 x 8192, high-end fulldome systems");
+
+    private final String displayName;
+    private final int size;
+    private final String description;
+
+    DomeResolution(String displayName, int size, String description) {
+        this.displayName = displayName;
+        this.size = size;
+        this.description = description;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Width and height of the frame in pixels.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
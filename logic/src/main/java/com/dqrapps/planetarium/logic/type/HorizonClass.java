@@ -0,0 +1,21 @@
+package com.dqrapps.planetarium.logic.type;
+
+/**
+ * How a star moves relative to the horizon over a sidereal day at a fixed observer latitude.
+ */
+public enum HorizonClass {
+    /**
+     * Always above the horizon.
+     */
+    CIRCUMPOLAR,
+
+    /**
+     * Above the horizon for part of the day.
+     */
+    RISES_AND_SETS,
+
+    /**
+     * Never above the horizon.
+     */
+    NEVER_RISES
+}
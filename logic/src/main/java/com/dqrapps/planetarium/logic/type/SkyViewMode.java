@@ -20,7 +20,13 @@ public enum SkyViewMode {
      * Full sky Mercator projection - shows entire celestial sphere in rectangular format.
      * Similar to world map projections but for the sky.
      */
-    FULL_SKY_MERCATOR("Full Sky", "Complete celestial sphere");
+    FULL_SKY_MERCATOR("Full Sky", "Complete celestial sphere"),
+
+    /**
+     * Horizon view - the local sky in altitude/azimuth, as a fisheye centered on the zenith with north up and
+     * east to the left, as seen lying on one's back. Positions follow sidereal time and latitude.
+     */
+    HORIZON("Horizon View", "Local sky around the zenith");
 
     private final String displayName;
     private final String description;
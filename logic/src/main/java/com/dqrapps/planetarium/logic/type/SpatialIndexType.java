@@ -0,0 +1,32 @@
+package com.dqrapps.planetarium.logic.type;
+
+/**
+ * Spatial index implementations available for star queries.
+ */
+public enum SpatialIndexType {
+    /**
+     * Recursive RA/Dec quadrants. Bulk-built in parallel from the loaded catalog.
+     */
+    QUADTREE("QuadTree", "RA/Dec quadrants"),
+
+    /**
+     * Equal-area HEALPix pixels (nested scheme). Uniform query cost anywhere on the sky.
+     */
+    HEALPIX("HEALPix", "Equal-area sky pixels");
+
+    private final String displayName;
+    private final String description;
+
+    SpatialIndexType(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
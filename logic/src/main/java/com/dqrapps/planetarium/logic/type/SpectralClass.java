@@ -0,0 +1,71 @@
+package com.dqrapps.planetarium.logic.type;
+
+/**
+ * Harvard spectral classes, stored per star as a one-byte code.
+ */
+public enum SpectralClass {
+    UNKNOWN(' '),
+    W('W'),  // Wolf-Rayet
+    O('O'),
+    B('B'),
+    A('A'),
+    F('F'),
+    G('G'),
+    K('K'),
+    M('M'),
+    C('C'),  // Carbon stars (includes older R and N classes)
+    S('S'),
+    D('D');  // White dwarfs
+
+    private static final SpectralClass[] VALUES = values();
+    private static final byte[] CODE_BY_LETTER = new byte[128];
+
+    static {
+        for (SpectralClass spectralClass : VALUES) {
+            if (spectralClass != UNKNOWN) {
+                CODE_BY_LETTER[spectralClass.letter] = spectralClass.getCode();
+                CODE_BY_LETTER[Character.toLowerCase(spectralClass.letter)] = spectralClass.getCode();
+            }
+        }
+        CODE_BY_LETTER['R'] = C.getCode();
+        CODE_BY_LETTER['N'] = C.getCode();
+    }
+
+    private final char letter;
+
+    SpectralClass(char letter) {
+        this.letter = letter;
+    }
+
+    public char getLetter() {
+        return letter;
+    }
+
+    /**
+     * One-byte code used by the in-memory catalog.
+     */
+    public byte getCode() {
+        return (byte) ordinal();
+    }
+
+    public static SpectralClass fromCode(byte code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : UNKNOWN;
+    }
+
+    /**
+     * Resolve the code for a spectral class letter, e.g. 'G'.
+     */
+    public static byte codeOf(char letter) {
+        return letter < 128 ? CODE_BY_LETTER[letter] : UNKNOWN.getCode();
+    }
+
+    /**
+     * Resolve the code for a full spectral type, e.g. "G2V".
+     */
+    public static byte codeOf(String spectralType) {
+        if (spectralType == null || spectralType.isEmpty()) {
+            return UNKNOWN.getCode();
+        }
+        return codeOf(spectralType.charAt(0));
+    }
+}
@@ -67,8 +67,8 @@ public enum StarCatalog {
      * Get memory usage estimate in MB
      */
     public double getEstimatedMemoryMB() {
-        // Rough estimate: ~100 bytes per star object in memory
-        return (starCount * 100.0) / (1024.0 * 1024.0);
+        // StarStore columns (~29 bytes per star), unit vectors (12 bytes) and the shared name pool (~16 bytes)
+        return (starCount * 57.0) / (1024.0 * 1024.0);
     }
 
     /**
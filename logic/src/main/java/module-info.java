@@ -1,6 +1,9 @@
 module logic{
     requires static lombok;
     requires java.logging;
+    requires java.desktop;
+    requires java.management;
+    requires jdk.management;
     // requires static com.mhuss.AstroLib.Astro;
     requires com.fasterxml.jackson.databind;
     //requires AstroLib;
@@ -9,4 +12,5 @@ module logic{
     exports com.dqrapps.planetarium.logic.service;
     exports com.dqrapps.planetarium.logic.type;
     exports com.dqrapps.planetarium.logic.spatial;
+    exports com.dqrapps.planetarium.logic.render;
 }
@@ -0,0 +1,56 @@
+package com.dqrapps.planetarium.logic.model;
+
+import com.dqrapps.planetarium.logic.type.SpectralClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StarStoreTest {
+
+    private StarStore store;
+
+    @Before
+    public void doBefore() {
+        store = new StarStore.Builder(2)
+            .add(17.12, -43.1, 5.0, "ETA SCORPIO", "F2V")
+            .add(6.752481, -16.716116, -1.44, "SIRIUS", "A0m...")
+            .add(0.5, 89.0, 7.5, null, "A0m...")
+            .build();
+    }
+
+    @Test
+    public void columnsTest() {
+        Assert.assertEquals(3, store.size());
+        Assert.assertEquals(17.12, store.getRa(0), 0.0);
+        Assert.assertEquals("SIRIUS", store.getName(1));
+        Assert.assertFalse(store.hasName(2));
+        Assert.assertNull(store.getName(2));
+        Assert.assertEquals("A0m...", store.getSpectralType(2));
+        Assert.assertEquals(SpectralClass.F, store.getSpectralClass(0));
+        Assert.assertEquals(SpectralClass.A, store.getSpectralClass(1));
+    }
+
+    @Test
+    public void unitVectorsTest() {
+        Assert.assertEquals(Math.sin(Math.toRadians(89.0)), store.getUnitZ(2), 1e-7);
+        Assert.assertEquals(store.getUnitY(1), store.getUnitVectorY()[1], 0.0f);
+        Assert.assertSame(store.getUnitVectorX(), store.getUnitVectorX());
+
+        // 29 bytes of columns and 12 of unit vectors per star, plus four pooled strings with their lengths
+        Assert.assertEquals(3 * 41 + 2 + 11 + 2 + 3 + 2 + 6 + 2 + 6, store.getMemoryBytes());
+    }
+
+    @Test
+    public void sortByMagnitudeTest() {
+        int[] ids = {0, 1, 2};
+        store.sortByMagnitude(ids, 0, ids.length);
+        Assert.assertArrayEquals(new int[]{1, 0, 2}, ids);
+    }
+
+    @Test
+    public void toStarsTest() {
+        Star star = store.toStars().getStarList().get(0);
+        Assert.assertEquals("ETA SCORPIO", star.getName());
+        Assert.assertEquals(5.0, star.getMag(), 1e-6);
+    }
+}
@@ -0,0 +1,68 @@
+package com.dqrapps.planetarium.logic.render;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.service.CatalogSnapshot;
+import com.dqrapps.planetarium.logic.type.SpatialIndexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class DomeMasterRendererTest {
+
+    private static final double LATITUDE = 51.5;
+    private static final double LST = 7.0;
+
+    @Test
+    public void starsLandOnTheDomeTest() {
+        StarStore store = new StarStore.Builder(3)
+            .add(LST, LATITUDE, 0.5, "Zenith", "A0V")      // At the zenith
+            .add(0.0, 90.0, 2.0, "Pole", "F7I")             // Due north, 38.5 degrees from the zenith
+            .add(0.0, -80.0, -1.0, "Southern", "B1V")       // Never rises at this latitude
+            .build();
+        CatalogSnapshot snapshot = CatalogSnapshot.build(null, store, "test", SpatialIndexType.HEALPIX);
+
+        DomeFrame frame = new DomeFrame(512);
+        new DomeMasterRenderer().render(snapshot, LST, LATITUDE, frame);
+
+        Assert.assertNotEquals(0xFF000000, frame.getPixel(256, 256));
+        int poleY = (int) (256 - (90.0 - LATITUDE) / 90.0 * 256);
+        Assert.assertNotEquals(0xFF000000, frame.getPixel(256, poleY));
+
+        // Nothing outside the horizon circle, and every pixel opaque
+        Assert.assertEquals(0xFF000000, frame.getPixel(0, 0));
+        Assert.assertEquals(0xFF000000, frame.getPixel(511, 511));
+        long lit = 0;
+        for (int pixel : frame.getPixels()) {
+            Assert.assertEquals(0xFF, pixel >>> 24);
+            if (pixel != 0xFF000000) lit++;
+        }
+        Assert.assertTrue("only two small stars are lit: " + lit, lit < 100);
+    }
+
+    @Test
+    public void tilesMatchAcrossPoolsTest() {
+        Random random = new Random(5);
+        StarStore.Builder builder = new StarStore.Builder(20000);
+        for (int i = 0; i < 20000; i++) {
+            builder.add(random.nextDouble() * 24.0, Math.toDegrees(Math.asin(2.0 * random.nextDouble() - 1.0)),
+                random.nextDouble() * 8.0 - 1.0, null, "OBAFGKM".charAt(random.nextInt(7)) + "5V");
+        }
+        CatalogSnapshot snapshot = CatalogSnapshot.build(null, builder.build(), "test", SpatialIndexType.HEALPIX);
+
+        // Stars straddling tile edges must come out the same however the tiles are scheduled
+        DomeFrame single = new DomeFrame(1000);
+        DomeFrame parallel = new DomeFrame(1000);
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            new DomeMasterRenderer(one).render(snapshot, LST, LATITUDE, single);
+            new DomeMasterRenderer(four).render(snapshot, LST, LATITUDE, parallel);
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+        Assert.assertArrayEquals(single.getPixels(), parallel.getPixels());
+    }
+}
@@ -0,0 +1,51 @@
+package com.dqrapps.planetarium.logic.render;
+
+import com.dqrapps.planetarium.logic.type.SpectralClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StarPaletteTest {
+
+    @Test
+    public void bucketsCoverTheMagnitudeRangeTest() {
+        Assert.assertEquals(0, StarPalette.magnitudeBucket(-1.46));
+        Assert.assertEquals(1, StarPalette.magnitudeBucket(0.0));
+        Assert.assertEquals(StarPalette.MAG_BUCKETS - 2, StarPalette.magnitudeBucket(4.99));
+        Assert.assertEquals(StarPalette.MAG_BUCKETS - 1, StarPalette.magnitudeBucket(11.0));
+        for (int bucket = 0; bucket < StarPalette.MAG_BUCKETS; bucket++) {
+            Assert.assertEquals(bucket, StarPalette.magnitudeBucket(StarPalette.getBucketMagnitude(bucket)));
+        }
+    }
+
+    @Test
+    public void colorsByClassAndBrightnessTest() {
+        int bright = StarPalette.magnitudeBucket(-1.0);
+        int faint = StarPalette.magnitudeBucket(6.0);
+        int g = SpectralClass.G.getCode();
+
+        Assert.assertEquals(0xFFFFF4EA, StarPalette.getArgb(g, bright, false));
+        Assert.assertEquals(0xFFF4EA, StarPalette.getRgb(g, faint));
+        Assert.assertEquals(Math.round(0.2f * 255), StarPalette.getArgb(g, faint, false) >>> 24);
+        Assert.assertEquals(Math.round(StarPalette.GLOW_ALPHA * 255), StarPalette.getArgb(g, bright, true) >>> 24);
+
+        // Stars without a colored class fall back to a color by magnitude
+        int unknown = SpectralClass.UNKNOWN.getCode();
+        Assert.assertEquals(0xC8DCFF, StarPalette.getRgb(unknown, bright));
+        Assert.assertEquals(0xFFFFFF, StarPalette.getRgb(unknown, StarPalette.magnitudeBucket(2.0)));
+        Assert.assertEquals(0xFFFAF0, StarPalette.getRgb(unknown, faint));
+    }
+
+    @Test
+    public void sizesByMagnitudeTest() {
+        Assert.assertEquals(6.0, StarPalette.getDiameter(StarPalette.magnitudeBucket(-1.46)), 0.0);
+        Assert.assertEquals(5.0, StarPalette.getDiameter(StarPalette.magnitudeBucket(0.99)), 0.0);
+        Assert.assertEquals(4.0, StarPalette.getDiameter(StarPalette.magnitudeBucket(1.0)), 0.0);
+        Assert.assertEquals(1.5, StarPalette.getDiameter(StarPalette.magnitudeBucket(4.99)), 0.0);
+        Assert.assertEquals(1.0, StarPalette.getDiameter(StarPalette.magnitudeBucket(8.0)), 0.0);
+        Assert.assertTrue(StarPalette.hasGlow(StarPalette.magnitudeBucket(1.99)));
+        Assert.assertFalse(StarPalette.hasGlow(StarPalette.magnitudeBucket(2.0)));
+        for (int bucket = 1; bucket < StarPalette.MAG_BUCKETS; bucket++) {
+            Assert.assertTrue(StarPalette.getDiameter(bucket) <= StarPalette.getDiameter(bucket - 1));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.dqrapps.planetarium.logic.render;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.model.TimeLapseSequence;
+import com.dqrapps.planetarium.logic.service.CatalogSnapshot;
+import com.dqrapps.planetarium.logic.type.SpatialIndexType;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TimeLapseExporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void exportsNumberedFramesTest() throws Exception {
+        CatalogSnapshot snapshot = snapshot();
+        TimeLapseSequence sequence = TimeLapseSequence.builder()
+            .start(LocalDateTime.of(2024, 1, 15, 20, 0))
+            .end(LocalDateTime.of(2024, 1, 15, 21, 0))
+            .step(Duration.ofMinutes(15))
+            .latitude(40.0)
+            .longitude(-75.0)
+            .build();
+        Assert.assertEquals(5, sequence.getFrameCount());
+
+        Path directory = folder.getRoot().toPath().resolve("night");
+        AtomicInteger reported = new AtomicInteger();
+        int written = new TimeLapseExporter(new DomeMasterRenderer(), 2).export(snapshot, sequence, directory,
+            count -> reported.accumulateAndGet(count, Math::max));
+
+        Assert.assertEquals(5, written);
+        Assert.assertEquals(5, reported.get());
+        for (int i = 0; i < 5; i++) {
+            File file = directory.resolve(sequence.getFileName(i)).toFile();
+            Assert.assertTrue(file.getName(), file.isFile());
+        }
+        BufferedImage first = ImageIO.read(directory.resolve("frame_00000.png").toFile());
+        Assert.assertEquals(2048, first.getWidth());
+        Assert.assertEquals(2048, first.getHeight());
+    }
+
+    @Test
+    public void interruptCancelsTest() throws Exception {
+        CatalogSnapshot snapshot = snapshot();
+        TimeLapseSequence sequence = TimeLapseSequence.builder()
+            .start(LocalDateTime.of(2024, 1, 15, 20, 0))
+            .end(LocalDateTime.of(2024, 1, 16, 8, 0))
+            .step(Duration.ofMinutes(1))
+            .latitude(40.0)
+            .longitude(-75.0)
+            .build();
+        Path directory = folder.getRoot().toPath().resolve("cancelled");
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicReference<Throwable> outcome = new AtomicReference<>();
+        Thread export = new Thread(() -> {
+            try {
+                new TimeLapseExporter(new DomeMasterRenderer(), 2).export(snapshot, sequence, directory,
+                    count -> started.countDown());
+            } catch (Throwable e) {
+                outcome.set(e);
+            }
+        });
+        export.start();
+        started.await();
+        export.interrupt();
+        export.join();
+
+        Assert.assertTrue(String.valueOf(outcome.get()), outcome.get() instanceof InterruptedException);
+        File[] files = directory.toFile().listFiles();
+        Assert.assertTrue(files.length >= 2 && files.length < sequence.getFrameCount());
+        for (File file : files) {
+            Assert.assertEquals(file.getName(), 2048, ImageIO.read(file).getWidth());  // None left half written
+        }
+        Thread.sleep(200);
+        Assert.assertEquals(files.length, directory.toFile().listFiles().length);
+    }
+
+    private static CatalogSnapshot snapshot() {
+        StarStore store = new StarStore.Builder(2)
+            .add(6.75, -16.7, -1.46, "Sirius", "A1V")
+            .add(5.92, 7.4, 0.5, "Betelgeuse", "M1I")
+            .build();
+        return CatalogSnapshot.build(null, store, "test", SpatialIndexType.HEALPIX);
+    }
+}
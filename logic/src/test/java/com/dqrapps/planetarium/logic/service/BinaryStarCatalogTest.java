@@ -0,0 +1,109 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.Star;
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.model.Stars;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BinaryStarCatalogTest {
+
+    private Path file;
+    private Stars stars;
+
+    @Before
+    public void doBefore() throws IOException {
+        file = Files.createTempFile("stars", BinaryStarCatalog.EXTENSION);
+        stars = Stars.builder().starList(Arrays.asList(
+            Star.builder().ra(6.752481).dec(-16.716116).mag(-1.44).name("SIRIUS").spectralType("A0m...").build(),
+            Star.builder().ra(17.12).dec(-43.1).mag(5.0).name("ETA SCORPIO").build(),
+            Star.builder().ra(0.5).dec(89.0).mag(7.5).spectralType("A0m...").build()
+        )).build();
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void writeAndOpenTest() throws IOException {
+        BinaryStarCatalog.write(stars, file);
+        BinaryStarCatalog catalog = BinaryStarCatalog.open(file);
+
+        Assert.assertEquals(3, catalog.size());
+        Assert.assertEquals(6.752481, catalog.getRa(0), 0.0);
+        Assert.assertEquals(-43.1, catalog.getDec(1), 0.0);
+        Assert.assertEquals(7.5f, catalog.getMag(2), 0.0f);
+        Assert.assertEquals("SIRIUS", catalog.getName(0));
+        Assert.assertEquals("ETA SCORPIO", catalog.getName(1));
+        Assert.assertNull(catalog.getName(2));
+        Assert.assertEquals("A0m...", catalog.getSpectralType(2));
+        Assert.assertEquals('A', catalog.getSpectralClass(0));
+        Assert.assertEquals(0, catalog.getSpectralClass(1));
+    }
+
+    @Test
+    public void toStarsTest() throws IOException {
+        BinaryStarCatalog.write(stars, file);
+        Stars loaded = BinaryStarCatalog.open(file).toStars();
+
+        Assert.assertEquals(stars.getStarList().size(), loaded.getStarList().size());
+        Star star = loaded.getStarList().get(1);
+        Assert.assertEquals(17.12, star.getRa(), 0.0);
+        Assert.assertEquals(5.0, star.getMag(), 0.0);
+        Assert.assertEquals("ETA SCORPIO", star.getName());
+    }
+
+    @Test
+    public void writeStoreMatchesWriteStarsTest() throws IOException {
+        BinaryStarCatalog.write(stars, file);
+        byte[] fromStars = Files.readAllBytes(file);
+        BinaryStarCatalog.write(StarStore.fromStars(stars), file);
+        BinaryStarCatalog catalog = BinaryStarCatalog.open(file);
+
+        Assert.assertEquals(3, catalog.size());
+        Assert.assertEquals(-16.716116, catalog.getDec(0), 0.0);
+        Assert.assertEquals(-1.44f, catalog.getMag(0), 0.0f);
+        Assert.assertEquals("SIRIUS", catalog.getName(0));
+        Assert.assertNull(catalog.getSpectralType(1));
+        Assert.assertEquals('A', catalog.getSpectralClass(2));
+        Assert.assertEquals(0, catalog.getSpectralClass(1));
+
+        // No string repeats across names and spectral types here, so both string tables come out the same
+        Assert.assertArrayEquals(fromStars, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void writeLeavesNoTemporaryFilesTest() throws IOException {
+        Path directory = Files.createTempDirectory("catalogs");
+        Path target = directory.resolve("stars" + BinaryStarCatalog.EXTENSION);
+        try {
+            BinaryStarCatalog.write(stars, target);
+            BinaryStarCatalog.write(stars, target);  // Replaces the existing file
+            try (Stream<Path> files = Files.list(directory)) {
+                Assert.assertEquals(Collections.singletonList(target), files.collect(Collectors.toList()));
+            }
+            Assert.assertEquals(3, BinaryStarCatalog.open(target).size());
+        } finally {
+            Files.deleteIfExists(target);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsNonCatalogTest() throws IOException {
+        Files.write(file, new byte[64]);
+        BinaryStarCatalog.open(file);
+    }
+}
@@ -0,0 +1,124 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.type.SpatialIndexType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class CatalogLoaderTest {
+
+    private static final int STAR_COUNT = CatalogLoader.BATCH_SIZE * 2 + 17;
+
+    private Path file;
+    private CatalogLoader loader;
+
+    @Before
+    public void doBefore() throws IOException {
+        file = Files.createTempFile("stars", ".json");
+        StringBuilder json = new StringBuilder("{\"catalog\": \"test\", \"objects\": [");
+        for (int i = 0; i < STAR_COUNT; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format("{\"ra\": %.4f, \"dec\": %.4f, \"mag\": %.2f, \"name\": \"STAR %d\", \"extra\": [1, 2]}",
+                (i * 0.01) % 24.0, (i % 180) - 89.5, (i % 100) / 10.0, i));
+        }
+        json.append("], \"starCount\": ").append(STAR_COUNT).append('}');
+        Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+        loader = new CatalogLoader();
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void loadJsonTest() throws Exception {
+        List<CatalogLoadProgress> progress = Collections.synchronizedList(new ArrayList<>());
+        CatalogSnapshot loaded = loader.loadJson(file, null, SpatialIndexType.QUADTREE, progress::add).get(10, TimeUnit.SECONDS);
+
+        StarStore store = loaded.getStore();
+        Assert.assertEquals(STAR_COUNT, store.size());
+        Assert.assertEquals(STAR_COUNT, loaded.getIndex().size());
+        Assert.assertEquals("STAR 5", store.getName(5));
+        Assert.assertEquals(-84.5, store.getDec(5), 1e-9);
+        Assert.assertNull(store.getSpectralType(5));
+
+        Assert.assertFalse(progress.isEmpty());
+        Assert.assertEquals(1.0, progress.get(progress.size() - 1).getFraction(), 1e-9);
+        Assert.assertEquals(1, loaded.getIndex().queryCone(store.getRa(5), store.getDec(5), 0.001).length);
+    }
+
+    @Test
+    public void cancelTest() throws Exception {
+        CompletableFuture<CatalogSnapshot> cancelled = loader.loadJson(file, null, SpatialIndexType.QUADTREE, null);
+        cancelled.cancel(false);
+        Assert.assertTrue(cancelled.isCancelled());
+
+        // The abandoned load must not wedge the loader for the next one
+        CatalogSnapshot loaded = loader.loadJson(file, null, SpatialIndexType.QUADTREE, null).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(STAR_COUNT, loaded.getStore().size());
+    }
+
+    @Test
+    public void failedIndexThreadReleasesParserTest() throws Exception {
+        // Far more batches than the queue holds, so the parser blocks unless the failed side keeps draining
+        StringBuilder json = new StringBuilder("{\"objects\": [");
+        for (int i = 0; i < CatalogLoader.BATCH_SIZE * 16; i++) {
+            json.append(i > 0 ? "," : "").append("{\"ra\": 1.0, \"dec\": 2.0, \"mag\": 3.0}");
+        }
+        Files.write(file, json.append("]}").toString().getBytes(StandardCharsets.UTF_8));
+
+        CompletableFuture<CatalogSnapshot> failed = loader.loadJson(file, null, SpatialIndexType.QUADTREE, progress -> {
+            try {
+                Thread.sleep(500);  // Let the parser fill the queue and block on it
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new AssertionError("listener failure");
+        });
+        try {
+            failed.get(10, TimeUnit.SECONDS);
+            Assert.fail("load should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof AssertionError);
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (isParsing() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assert.assertFalse("parser thread is stuck", isParsing());
+    }
+
+    private static boolean isParsing() {
+        for (StackTraceElement[] stack : Thread.getAllStackTraces().values()) {
+            for (StackTraceElement frame : stack) {
+                if (frame.getClassName().equals(CatalogLoader.class.getName()) && frame.getMethodName().equals("parse")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void rejectsNonCatalogTest() throws Exception {
+        Files.write(file, "[1, 2, 3]".getBytes(StandardCharsets.UTF_8));
+        loader.loadJson(file, null, SpatialIndexType.QUADTREE, null).get(10, TimeUnit.SECONDS);
+    }
+}
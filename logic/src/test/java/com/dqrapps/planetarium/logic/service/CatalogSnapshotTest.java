@@ -0,0 +1,54 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.type.SpatialIndexType;
+import com.dqrapps.planetarium.logic.type.StarCatalog;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class CatalogSnapshotTest {
+
+    private CatalogSnapshot snapshot;
+
+    @Before
+    public void doBefore() {
+        StarStore store = new StarStore.Builder(4)
+            .add(6.752481, -16.716116, -1.44, "SIRIUS", "A1V")
+            .add(6.4, -52.7, -0.62, "CANOPUS", "F0II")
+            .add(5.9, 7.4, 0.45, "BETELGEUSE", "M1Iab")
+            .add(5.25, -8.2, 0.18, "RIGEL", "B8Ia")
+            .build();
+        snapshot = CatalogSnapshot.build(StarCatalog.BRIGHT_STARS_166, store, "test", SpatialIndexType.QUADTREE);
+    }
+
+    @Test
+    public void buildTest() {
+        Assert.assertEquals(4, snapshot.size());
+        Assert.assertEquals(4, snapshot.getIndex().size());
+        Assert.assertEquals(StarCatalog.BRIGHT_STARS_166, snapshot.getCatalog());
+    }
+
+    @Test
+    public void queryTest() {
+        int[] ids = snapshot.getStarsInRadius(5.5, 0.0, 20.0);
+        Arrays.sort(ids);
+        Assert.assertArrayEquals(new int[]{2, 3}, ids);
+        Assert.assertEquals(0, snapshot.findNearestStar(6.75, -16.7, 1.0));
+    }
+
+    @Test
+    public void searchByNameTest() {
+        Assert.assertArrayEquals(new int[]{3, 2}, snapshot.searchByName("e", 10));
+        Assert.assertArrayEquals(new int[]{3}, snapshot.searchByName("E", 1));
+        Assert.assertEquals(0, snapshot.searchByName("vega", 10).length);
+    }
+
+    @Test
+    public void emptyTest() {
+        Assert.assertEquals(0, CatalogSnapshot.empty().size());
+        Assert.assertEquals(0, CatalogSnapshot.empty().getStarsInRadius(0, 0, 90).length);
+    }
+}
@@ -0,0 +1,61 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.spatial.SkyRegion;
+import com.dqrapps.planetarium.logic.type.HorizonClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class HorizonClassificationTest {
+
+    private static final int STAR_COUNT = 5000;
+
+    private final AstroService astroService = new AstroService(null);
+    private StarStore store;
+
+    @Before
+    public void doBefore() {
+        Random random = new Random(11);
+        StarStore.Builder builder = new StarStore.Builder(STAR_COUNT);
+        for (int i = 0; i < STAR_COUNT; i++) {
+            double ra = random.nextDouble() * 24.0;
+            double dec = Math.toDegrees(Math.asin(2.0 * random.nextDouble() - 1.0));
+            builder.add(ra, dec, random.nextDouble() * 10.0, null, null);
+        }
+        store = builder.build();
+    }
+
+    @Test
+    public void classesAgreeWithHorizonTest() {
+        for (double latitude : new double[] {51.5, -33.9, 0.0, 89.0}) {
+            HorizonClassification classification = HorizonClassification.build(store, latitude,
+                ForkJoinPool.commonPool());
+            SkyRegion everVisible = classification.getEverVisibleRegion();
+
+            for (int id = 0; id < STAR_COUNT; id++) {
+                HorizonClass horizonClass = classification.classify(id);
+                double ra = store.getRa(id);
+                double dec = store.getDec(id);
+                boolean everUp = false;
+                for (int step = 0; step < 96; step++) {
+                    boolean up = astroService.isVisible(ra, dec, step * 0.25, latitude);
+                    everUp |= up;
+                    if (horizonClass == HorizonClass.CIRCUMPOLAR) {
+                        Assert.assertTrue("circumpolar star " + id + " set at " + latitude, up);
+                    }
+                }
+                if (horizonClass == HorizonClass.NEVER_RISES) {
+                    Assert.assertFalse("star " + id + " rose at " + latitude, everUp);
+                } else {
+                    Assert.assertTrue("star " + id + " outside ever-visible region at " + latitude,
+                        everVisible.contains(ra, dec));
+                }
+                Assert.assertEquals(horizonClass == HorizonClass.RISES_AND_SETS, classification.risesAndSets(id));
+            }
+        }
+    }
+}
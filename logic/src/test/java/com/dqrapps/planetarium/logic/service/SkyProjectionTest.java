@@ -0,0 +1,186 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.spatial.SkyRegion;
+import com.dqrapps.planetarium.logic.spatial.SkyVectors;
+import com.dqrapps.planetarium.logic.type.ProjectionBackend;
+import com.dqrapps.planetarium.logic.type.SkyViewMode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class SkyProjectionTest {
+
+    private static final int STAR_COUNT = 5000;
+
+    @Test
+    public void horizonCullMatchesSingleTest() {
+        Random random = new Random(5);
+        double[] ra = new double[STAR_COUNT];
+        double[] dec = new double[STAR_COUNT];
+        float[] ux = new float[STAR_COUNT];
+        float[] uy = new float[STAR_COUNT];
+        float[] uz = new float[STAR_COUNT];
+        double[] v = new double[3];
+        for (int i = 0; i < STAR_COUNT; i++) {
+            ra[i] = random.nextDouble() * 24.0;
+            dec[i] = random.nextDouble() * 180.0 - 90.0;
+            SkyVectors.toVector(ra[i], dec[i], v, 0);
+            ux[i] = (float) v[0];
+            uy[i] = (float) v[1];
+            uz[i] = (float) v[2];
+        }
+
+        // Horizon culling agrees with the per-star altitude test
+        AstroService astroService = new AstroService(null);
+        long[] visible = new long[(STAR_COUNT + 63) / 64];
+        Arrays.fill(visible, -1L);
+        int above = astroService.cullBelowHorizon(ux, uy, uz, 0, STAR_COUNT, 13.5, 51.5, visible);
+        int expected = 0;
+        for (int i = 0; i < STAR_COUNT; i++) {
+            boolean shown = (visible[i >> 6] & (1L << i)) != 0;
+            boolean up = astroService.isVisible(ra[i], dec[i], 13.5, 51.5);
+            Assert.assertEquals("horizon star " + i, up, shown);
+            expected += up ? 1 : 0;
+        }
+        Assert.assertEquals(expected, above);
+    }
+
+    @Test
+    public void floatBackendsMatchSingleTest() {
+        Random random = new Random(7);
+        double[] ra = new double[STAR_COUNT];
+        double[] dec = new double[STAR_COUNT];
+        float[] ux = new float[STAR_COUNT];
+        float[] uy = new float[STAR_COUNT];
+        float[] uz = new float[STAR_COUNT];
+        double[] v = new double[3];
+        for (int i = 0; i < STAR_COUNT; i++) {
+            ra[i] = random.nextDouble() * 24.0;
+            dec[i] = random.nextDouble() * 180.0 - 90.0;
+            SkyVectors.toVector(ra[i], dec[i], v, 0);
+            ux[i] = (float) v[0];
+            uy[i] = (float) v[1];
+            uz[i] = (float) v[2];
+        }
+
+        float[] x = new float[STAR_COUNT];
+        float[] y = new float[STAR_COUNT];
+        long[] visible = new long[(STAR_COUNT + 63) / 64];
+        for (ProjectionBackend backend : ProjectionBackend.values()) {
+            for (SkyViewMode mode : SkyViewMode.values()) {
+                SkyProjection projection = new SkyProjection(15.75, 60.0, 100.0, 1200, 800);
+                projection.setViewMode(mode);
+                projection.setBackend(backend);
+                int count = projection.project(ux, uy, uz, 0, STAR_COUNT, x, y, visible);
+
+                int expected = 0;
+                for (int i = 0; i < STAR_COUNT; i++) {
+                    double[] coords = projection.raDecToScreen(ra[i], dec[i]);
+                    boolean shown = (visible[i >> 6] & (1L << i)) != 0;
+                    Assert.assertEquals(backend + " " + mode + " star " + i, coords != null, shown);
+                    if (coords != null) {
+                        expected++;
+                        Assert.assertEquals(coords[0], x[i], 1e-2);
+                        Assert.assertEquals(coords[1], y[i], 1e-2);
+                    }
+                }
+                Assert.assertEquals(expected, count);
+            }
+        }
+    }
+
+    @Test
+    public void inverseRoundTripTest() {
+        Random random = new Random(11);
+        for (SkyViewMode mode : SkyViewMode.values()) {
+            SkyProjection projection = new SkyProjection(3.5, 41.0, 120.0, 1200, 800);
+            projection.setViewMode(mode);
+            for (int i = 0; i < STAR_COUNT; i++) {
+                double ra = random.nextDouble() * 24.0;
+                double dec = random.nextDouble() * 180.0 - 90.0;
+                double[] screen = projection.raDecToScreen(ra, dec);
+                if (screen == null) {
+                    continue;
+                }
+                double[] sky = projection.screenToRaDec(screen[0], screen[1]);
+                Assert.assertNotNull(mode + " star " + i, sky);
+                double error = Math.toDegrees(SkyVectors.angularDistance(ra, dec, sky[0], sky[1]));
+                Assert.assertEquals(mode + " star " + i, 0.0, error, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void visibleRegionTest() {
+        Random random = new Random(13);
+        AstroService astroService = new AstroService(null);
+        for (SkyViewMode mode : SkyViewMode.values()) {
+            for (double fov : new double[]{30.0, 90.0, 170.0}) {
+                SkyProjection projection = new SkyProjection(18.0, -65.0, fov, 1600, 700);
+                projection.setViewMode(mode);
+                projection.setLatitude(-33.9);
+                projection.setLocalSiderealTime(4.25);
+                SkyRegion region = projection.getVisibleRegion();
+                SkyRegion aboveHorizon = projection.getVisibleRegionAboveHorizon();
+                for (int i = 0; i < STAR_COUNT; i++) {
+                    double ra = random.nextDouble() * 24.0;
+                    double dec = random.nextDouble() * 180.0 - 90.0;
+                    boolean drawn = projection.raDecToScreen(ra, dec) != null;
+                    boolean up = astroService.isVisible(ra, dec, 4.25, -33.9);
+                    String star = mode + " fov " + fov + " star " + i;
+                    if (mode == SkyViewMode.HORIZON) {
+                        // The fisheye's canvas edges are not circles on the sky, so its region only covers the view
+                        Assert.assertTrue(star, !drawn || region.contains(ra, dec) && aboveHorizon.contains(ra, dec));
+                        Assert.assertTrue(star, !aboveHorizon.contains(ra, dec) || up);
+                        continue;
+                    }
+                    Assert.assertEquals(star, drawn, region.contains(ra, dec));
+                    Assert.assertEquals(star, drawn && up, aboveHorizon.contains(ra, dec));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void horizonViewTest() {
+        SkyProjection projection = new SkyProjection(0.0, 0.0, 180.0, 1000, 1000);
+        projection.setViewMode(SkyViewMode.HORIZON);
+        projection.setLatitude(51.5);
+        projection.setLocalSiderealTime(7.0);
+
+        // Zenith at the center, the celestial pole due north at the pole's altitude, east to the left
+        double[] zenith = projection.raDecToScreen(7.0, 51.5);
+        Assert.assertEquals(500.0, zenith[0], 1e-9);
+        Assert.assertEquals(500.0, zenith[1], 1e-9);
+        double[] pole = projection.raDecToScreen(0.0, 90.0);
+        Assert.assertEquals(500.0, pole[0], 1e-9);
+        Assert.assertEquals(500.0 - (90.0 - 51.5) / 90.0 * 500.0, pole[1], 1e-9);
+        double[] east = projection.raDecToScreen(13.0, 0.0);
+        Assert.assertEquals(0.0, east[0], 1e-9);
+        Assert.assertEquals(500.0, east[1], 1e-9);
+
+        // The celestial equator below the meridian is under the horizon
+        Assert.assertNull(projection.raDecToScreen(19.0, 0.0));
+        Assert.assertTrue(projection.dependsOnTime());
+    }
+
+    @Test
+    public void detectBackendTest() {
+        // Without an override the choice follows the JIT probe
+        Assert.assertEquals(SkyProjection.superWordAvailable() ? ProjectionBackend.AUTO_VECTORIZED
+            : ProjectionBackend.SCALAR, SkyProjection.detectBackend());
+
+        try {
+            System.setProperty("planetarium.projection.backend", "scalar");
+            Assert.assertEquals(ProjectionBackend.SCALAR, SkyProjection.detectBackend());
+            System.setProperty("planetarium.projection.backend", "auto_vectorized");
+            Assert.assertEquals(ProjectionBackend.AUTO_VECTORIZED, SkyProjection.detectBackend());
+            System.setProperty("planetarium.projection.backend", "simd");
+            Assert.assertEquals(ProjectionBackend.SCALAR, SkyProjection.detectBackend());
+        } finally {
+            System.clearProperty("planetarium.projection.backend");
+        }
+    }
+}
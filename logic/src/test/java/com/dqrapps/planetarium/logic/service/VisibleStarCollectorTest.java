@@ -0,0 +1,251 @@
+package com.dqrapps.planetarium.logic.service;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import com.dqrapps.planetarium.logic.spatial.HealpixIndex;
+import com.dqrapps.planetarium.logic.spatial.SkyIndex;
+import com.dqrapps.planetarium.logic.spatial.SkyRegion;
+import com.dqrapps.planetarium.logic.spatial.StarIdSink;
+import com.dqrapps.planetarium.logic.type.SkyViewMode;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+
+public class VisibleStarCollectorTest {
+
+    private static final int STAR_COUNT = 20000;
+    private static final int LIMIT = 1000;
+
+    private final AstroService astroService = new AstroService(null);
+    private StarStore store;
+    private CountingIndex index;
+    private CatalogSnapshot snapshot;
+    private HorizonClassification horizon;
+    private VisibleStarCollector collector;
+
+    @Before
+    public void doBefore() {
+        store = randomStore(5);
+        index = new CountingIndex(HealpixIndex.build(store));
+        snapshot = CatalogSnapshot.of(null, store, index, "test");
+        horizon = HorizonClassification.build(store, 40.0, ForkJoinPool.commonPool());
+        collector = new VisibleStarCollector(astroService);
+    }
+
+    @Test
+    public void timeOnlyChangeKeepsPositionsTest() {
+        SkyProjection projection = projection(SkyViewMode.SINGLE_HEMISPHERE);
+        VisibleStars first = collector.collect(snapshot, projection, 6.0, horizon, LIMIT);
+        assertBrightestOnScreen(first, projection, 6.0, LIMIT);
+        Assert.assertEquals(1, index.queries);
+
+        // Eighteen minutes later some stars have set and others risen, all within the cached headroom
+        VisibleStars later = collector.collect(snapshot, projection, 6.3, horizon, LIMIT);
+        Assert.assertEquals(1, index.queries);
+        assertBrightestOnScreen(later, projection, 6.3, LIMIT);
+        Assert.assertNotEquals(ids(first), ids(later));
+
+        int common = 0;
+        for (int slot = 0; slot < later.size(); slot++) {
+            int before = first.slotOf(later.getId(slot));
+            if (before >= 0) {
+                Assert.assertEquals(first.getX(before), later.getX(slot), 0.0f);
+                Assert.assertEquals(first.getY(before), later.getY(slot), 0.0f);
+                common++;
+            }
+        }
+        Assert.assertTrue(common > LIMIT / 2);
+    }
+
+    @Test
+    public void unchangedFrameIsReusedTest() {
+        SkyProjection projection = projection(SkyViewMode.SINGLE_HEMISPHERE);
+        VisibleStars first = collector.collect(snapshot, projection, 6.0, horizon, LIMIT);
+
+        // Same view and time, or a clock tick too short for any star to rise or set: the same frame
+        Assert.assertSame(first, collector.collect(snapshot, projection, 6.0, horizon, LIMIT));
+        Assert.assertSame(first, collector.collect(snapshot, projection, 6.0 + 1e-9, horizon, LIMIT));
+
+        // Stars have set: a new frame, which is itself reused while nothing changes
+        VisibleStars later = collector.collect(snapshot, projection, 6.3, horizon, LIMIT);
+        Assert.assertNotSame(first, later);
+        Assert.assertSame(later, collector.collect(snapshot, projection, 6.3, horizon, LIMIT));
+
+        // Another view with the same stars still moves them on screen
+        projection.setCenterRA(0.01);
+        VisibleStars moved = collector.collect(snapshot, projection, 6.3, horizon, LIMIT);
+        Assert.assertNotSame(later, moved);
+        assertBrightestOnScreen(moved, projection, 6.3, LIMIT);
+    }
+
+    @Test
+    public void viewLatitudeOrCatalogChangeRebuildsTest() {
+        SkyProjection projection = projection(SkyViewMode.SINGLE_HEMISPHERE);
+        collector.collect(snapshot, projection, 6.0, horizon, LIMIT);
+        Assert.assertEquals(1, index.queries);
+
+        projection.setCenterRA(8.0);
+        assertBrightestOnScreen(collector.collect(snapshot, projection, 6.0, horizon, LIMIT), projection, 6.0, LIMIT);
+        Assert.assertEquals(2, index.queries);
+
+        projection.setFieldOfView(90.0);
+        assertBrightestOnScreen(collector.collect(snapshot, projection, 6.0, horizon, LIMIT), projection, 6.0, LIMIT);
+        Assert.assertEquals(3, index.queries);
+
+        horizon = HorizonClassification.build(store, -20.0, ForkJoinPool.commonPool());
+        assertBrightestOnScreen(collector.collect(snapshot, projection, 6.0, horizon, LIMIT), projection, 6.0, LIMIT);
+        Assert.assertEquals(4, index.queries);
+
+        // Another catalog: its stars, its index
+        store = randomStore(9);
+        CountingIndex otherIndex = new CountingIndex(HealpixIndex.build(store));
+        snapshot = CatalogSnapshot.of(null, store, otherIndex, "other");
+        horizon = HorizonClassification.build(store, -20.0, ForkJoinPool.commonPool());
+        VisibleStars other = collector.collect(snapshot, projection, 6.0, horizon, LIMIT);
+        Assert.assertSame(snapshot, other.getSnapshot());
+        assertBrightestOnScreen(other, projection, 6.0, LIMIT);
+        Assert.assertEquals(1, otherIndex.queries);
+
+        // Positions in the horizon view follow the sidereal time
+        SkyProjection dome = projection(SkyViewMode.HORIZON);
+        dome.setLatitude(-20.0);
+        dome.setLocalSiderealTime(6.0);
+        collector.collect(snapshot, dome, 6.0, horizon, LIMIT);
+        dome.setLocalSiderealTime(6.1);
+        assertBrightestOnScreen(collector.collect(snapshot, dome, 6.1, horizon, LIMIT), dome, 6.1, LIMIT);
+        Assert.assertEquals(3, otherIndex.queries);
+    }
+
+    @Test
+    public void shortCacheRefetchesFainterStarsTest() {
+        SkyProjection projection = projection(SkyViewMode.SINGLE_HEMISPHERE);
+        collector.collect(snapshot, projection, 6.0, horizon, LIMIT);
+        Assert.assertEquals(1, index.queries);
+
+        // Hours later more than the quarter of headroom has set, so fainter stars are fetched
+        VisibleStars later = collector.collect(snapshot, projection, 10.0, horizon, LIMIT);
+        Assert.assertEquals(2, index.queries);
+        Assert.assertEquals(LIMIT, later.size());
+        assertBrightestOnScreen(later, projection, 10.0, LIMIT);
+
+        // A cache holding every on-screen star of the view never needs to fetch more
+        int all = STAR_COUNT;
+        collector.collect(snapshot, projection, 6.0, horizon, all);
+        Assert.assertEquals(3, index.queries);
+        VisibleStars exhausted = collector.collect(snapshot, projection, 10.0, horizon, all);
+        Assert.assertEquals(3, index.queries);
+        Assert.assertTrue(exhausted.size() < all);
+        assertBrightestOnScreen(exhausted, projection, 10.0, all);
+    }
+
+    /**
+     * Check a frame against a brute-force pass: the limit brightest stars the projection shows that are above
+     * the horizon, brightest first.
+     */
+    private void assertBrightestOnScreen(VisibleStars visible, SkyProjection projection, double lst, int limit) {
+        List<Integer> expected = new ArrayList<>();
+        for (int id : byMagnitude()) {
+            if (expected.size() == limit) break;
+            double ra = store.getRa(id);
+            double dec = store.getDec(id);
+            if (projection.raDecToScreen(ra, dec) != null
+                    && astroService.isVisible(ra, dec, lst, horizon.getLatitude())) {
+                expected.add(id);
+            }
+        }
+        Assert.assertEquals(expected, ids(visible));
+
+        for (int slot = 0; slot < visible.size(); slot++) {
+            double[] screen = projection.raDecToScreen(store.getRa(visible.getId(slot)),
+                store.getDec(visible.getId(slot)));
+            Assert.assertEquals(screen[0], visible.getX(slot), 1e-2);
+            Assert.assertEquals(screen[1], visible.getY(slot), 1e-2);
+        }
+    }
+
+    private int[] byMagnitude() {
+        int[] ids = new int[store.size()];
+        for (int id = 0; id < ids.length; id++) {
+            ids[id] = id;
+        }
+        store.sortByMagnitude(ids, 0, ids.length);
+        return ids;
+    }
+
+    private static List<Integer> ids(VisibleStars visible) {
+        List<Integer> ids = new ArrayList<>();
+        for (int slot = 0; slot < visible.size(); slot++) {
+            ids.add(visible.getId(slot));
+        }
+        return ids;
+    }
+
+    /**
+     * View centered on the western horizon at sidereal time 6h, where stars set as time goes on.
+     */
+    private static SkyProjection projection(SkyViewMode mode) {
+        SkyProjection projection = new SkyProjection(0.0, 0.0, 120.0, 1200, 800);
+        projection.setViewMode(mode);
+        return projection;
+    }
+
+    /**
+     * Stars uniform on the sphere with distinct magnitudes, so brightest-first order is unambiguous.
+     */
+    private static StarStore randomStore(long seed) {
+        Random random = new Random(seed);
+        List<Integer> magnitudes = new ArrayList<>();
+        for (int i = 0; i < STAR_COUNT; i++) {
+            magnitudes.add(i);
+        }
+        Collections.shuffle(magnitudes, random);
+
+        StarStore.Builder builder = new StarStore.Builder(STAR_COUNT);
+        for (int i = 0; i < STAR_COUNT; i++) {
+            double ra = random.nextDouble() * 24.0;
+            double dec = Math.toDegrees(Math.asin(2.0 * random.nextDouble() - 1.0));
+            builder.add(ra, dec, magnitudes.get(i) * 0.002, null, null);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Index wrapper counting the brightest-first queries the collector makes.
+     */
+    private static final class CountingIndex implements SkyIndex {
+        private final SkyIndex index;
+        private int queries;
+
+        CountingIndex(SkyIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public void forEach(SkyRegion region, StarIdSink sink) {
+            index.forEach(region, sink);
+        }
+
+        @Override
+        public void forEachBrightest(SkyRegion region, IntPredicate visitor) {
+            queries++;
+            index.forEachBrightest(region, visitor);
+        }
+
+        @Override
+        public int findNearest(double raHours, double decDeg, double maxRadiusDeg, IntPredicate filter,
+                               int[] nearest) {
+            return index.findNearest(raHours, decDeg, maxRadiusDeg, filter, nearest);
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class HealpixIndexTest {
+
+    private SkyIndexFixture fixture;
+    private StarStore store;
+    private HealpixIndex healpix;
+
+    @Before
+    public void doBefore() {
+        fixture = SkyIndexFixture.starField();
+        store = fixture.getStore();
+        healpix = HealpixIndex.build(store);
+    }
+
+    @Test
+    public void pixelRoundTripTest() {
+        double[] center = new double[3];
+        for (int order = 0; order <= 6; order++) {
+            for (int pixel = 0; pixel < Healpix.pixelCount(order); pixel++) {
+                Healpix.pixelCenter(order, pixel, center, 0);
+                Assert.assertEquals(pixel, Healpix.vectorToPixel(order, center[0], center[1], center[2]));
+            }
+        }
+    }
+
+    @Test
+    public void maxPixelRadiusTest() {
+        Random random = new Random(7);
+        double[] center = new double[3];
+        for (int order = 0; order <= 8; order++) {
+            double bound = Healpix.maxPixelRadius(order);
+            for (int i = 0; i < 20000; i++) {
+                double z = 2.0 * random.nextDouble() - 1.0;
+                double phi = random.nextDouble() * 2.0 * Math.PI;
+                double s = Math.sqrt(1.0 - z * z);
+                double x = s * Math.cos(phi);
+                double y = s * Math.sin(phi);
+                Healpix.pixelCenter(order, Healpix.vectorToPixel(order, x, y, z), center, 0);
+                Assert.assertTrue(SkyVectors.angle(x, y, z, center[0], center[1], center[2]) <= bound);
+            }
+        }
+    }
+
+    @Test
+    public void coneTest() {
+        assertMatches(SkyRegion.cone(0.0, 89.5, 2.0));    // Around the pole
+        assertMatches(SkyRegion.cone(23.95, 10.0, 5.0));  // Across the RA seam
+        assertMatches(SkyRegion.cone(12.0, -30.0, 0.5));
+        assertMatches(SkyRegion.cone(6.0, 0.0, 120.0));   // More than a hemisphere
+        assertMatches(SkyRegion.cone(3.0, -89.9, 180.0)); // Whole sky
+    }
+
+    @Test
+    public void ringTest() {
+        assertMatches(SkyRegion.ring(0.0, 90.0, 10.0, 20.0));
+        assertMatches(SkyRegion.ring(18.0, 45.0, 0.5, 30.0));
+    }
+
+    @Test
+    public void polygonTest() {
+        assertMatches(SkyRegion.polygon(new double[]{23.0, 1.0, 1.0, 23.0}, new double[]{-10.0, -10.0, 10.0, 10.0}));
+        // Clockwise winding around the north pole
+        assertMatches(SkyRegion.polygon(new double[]{0.0, 18.0, 12.0, 6.0}, new double[]{80.0, 80.0, 80.0, 80.0}));
+    }
+
+    @Test
+    public void boxTest() {
+        assertMatches(SkyRegion.box(22.0, 2.0, -20.0, 20.0));  // Wraps across 0h
+        assertMatches(SkyRegion.box(0.0, 24.0, 85.0, 90.0));
+        assertMatches(SkyRegion.box(5.0, 7.0, -90.0, -60.0));
+    }
+
+    @Test
+    public void capsAndUnionTest() {
+        double[] north = {0.0, 0.0, 1.0};
+        double[] vernal = {1.0, 0.0, 0.0};
+        double[] both = {0.0, 0.0, 1.0, 1.0, 0.0, 0.0};
+        assertMatches(SkyRegion.caps(north, new double[]{Math.toRadians(30.0)}));
+        assertMatches(SkyRegion.caps(both, new double[]{Math.toRadians(80.0), Math.toRadians(40.0)}));
+        assertMatches(SkyRegion.caps(both, new double[]{Math.toRadians(120.0), Math.toRadians(100.0)}));
+        assertMatches(SkyRegion.union(SkyRegion.caps(north, new double[]{Math.toRadians(15.0)}),
+            SkyRegion.caps(vernal, new double[]{Math.toRadians(25.0)}), SkyRegion.box(10.0, 14.0, -30.0, -10.0)));
+    }
+
+    @Test
+    public void forEachReusedRegionTest() {
+        SkyRegion.Ring cone = new SkyRegion.Ring();
+        StarIdList found = new StarIdList();
+        for (double ra = 0.0; ra < 24.0; ra += 3.7) {
+            cone.set(ra, ra * 7.0 - 80.0, 0.0, 6.0);
+
+            found.clear();
+            healpix.forEach(cone, found);
+            Assert.assertArrayEquals(fixture.bruteForce(cone), SkyIndexFixture.sorted(found.toArray()));
+        }
+    }
+
+    @Test
+    public void forEachBrightestTest() {
+        SkyRegion[] regions = {
+            SkyRegion.cone(0.0, 0.0, 20.0),
+            SkyRegion.cone(12.0, 89.0, 5.0),
+            SkyRegion.ring(6.0, -30.0, 10.0, 40.0),
+            SkyRegion.box(23.0, 1.0, -10.0, 10.0)
+        };
+        for (SkyRegion region : regions) {
+            Assert.assertArrayEquals(fixture.brightest(region, 300),
+                fixture.magnitudes(healpix.queryBrightest(region, 300)));
+        }
+
+        // Stars the visitor rejects do not count towards the limit
+        int[] kept = new int[1];
+        Assert.assertEquals(50, healpix.forEachBrightest(regions[0], 50, id -> id % 3 == 0 && ++kept[0] > 0));
+        Assert.assertEquals(50, kept[0]);
+    }
+
+    @Test
+    public void parallelBuildTest() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            HealpixIndex sequentialHealpix = HealpixIndex.build(store, single);
+            HealpixIndex parallelHealpix = HealpixIndex.build(store, parallel);
+
+            SkyRegion region = SkyRegion.cone(18.0, -25.0, 30.0);
+            int[] expected = fixture.bruteForce(region);
+            Assert.assertArrayEquals(expected, SkyIndexFixture.sorted(sequentialHealpix.query(region)));
+            Assert.assertArrayEquals(expected, SkyIndexFixture.sorted(parallelHealpix.query(region)));
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsConcavePolygonTest() {
+        SkyRegion.polygon(new double[]{0.0, 2.0, 1.0, 2.0, 0.0}, new double[]{0.0, 0.0, 5.0, 10.0, 10.0});
+    }
+
+    @Test
+    public void findNearestTest() {
+        int id = 1234;
+        Assert.assertEquals(id, healpix.findNearest(store.getRa(id), store.getDec(id), 0.5));
+    }
+
+    @Test
+    public void findKNearestTest() {
+        Random random = new Random(11);
+        for (int i = 0; i < 50; i++) {
+            double ra = random.nextDouble() * 24.0;
+            double dec = i % 5 == 0 ? 89.5 : random.nextDouble() * 180.0 - 90.0;
+            Assert.assertArrayEquals(fixture.bruteForceNearest(ra, dec, 25),
+                fixture.distances(ra, dec, healpix.findNearest(ra, dec, 25)), 1e-12);
+        }
+
+        // Radius limit and filter
+        int[] nearest = new int[10];
+        int found = healpix.findNearest(3.0, 20.0, 5.0, id -> id % 2 == 0, nearest);
+        Assert.assertEquals(fixture.countNearby(3.0, 20.0, 5.0, id -> id % 2 == 0, 10), found);
+        for (int i = 0; i < found; i++) {
+            Assert.assertEquals(0, nearest[i] % 2);
+            Assert.assertTrue(SkyVectors.angularDistance(3.0, 20.0, store.getRa(nearest[i]), store.getDec(nearest[i]))
+                    <= Math.toRadians(5.0));
+        }
+    }
+
+    private void assertMatches(SkyRegion region) {
+        Assert.assertArrayEquals(fixture.bruteForce(region), SkyIndexFixture.sorted(healpix.query(region)));
+    }
+}
@@ -0,0 +1,183 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class QuadTreeTest {
+
+    private SkyIndexFixture fixture;
+    private StarStore store;
+    private QuadTree quadTree;
+
+    @Before
+    public void doBefore() {
+        fixture = SkyIndexFixture.starField();
+        store = fixture.getStore();
+        quadTree = QuadTree.build(store);
+    }
+
+    @Test
+    public void structureTest() {
+        Assert.assertEquals(SkyIndexFixture.STAR_COUNT, quadTree.size());
+        Assert.assertEquals(quadTree.getNodeCount(), assertSubtree(store, quadTree, 0, 0));
+        Assert.assertEquals(0, quadTree.getRunStart(0));
+        Assert.assertEquals(quadTree.size(), quadTree.getRunEnd(0));
+    }
+
+    @Test
+    public void regionQueryTest() {
+        assertMatches(fixture, quadTree, SkyRegion.cone(0.0, 89.5, 2.0));      // Around the pole
+        assertMatches(fixture, quadTree, SkyRegion.cone(23.95, 10.0, 5.0));    // Across the RA seam
+        assertMatches(fixture, quadTree, SkyRegion.cone(6.0, 0.0, 120.0));     // More than a hemisphere
+        assertMatches(fixture, quadTree, SkyRegion.ring(18.0, 45.0, 0.5, 30.0));
+        assertMatches(fixture, quadTree, SkyRegion.box(22.0, 2.0, -20.0, 20.0));
+        assertMatches(fixture, quadTree,
+            SkyRegion.polygon(new double[]{0.0, 18.0, 12.0, 6.0}, new double[]{80.0, 80.0, 80.0, 80.0}));
+
+        SkyRegion.Ring cone = new SkyRegion.Ring();
+        StarIdList found = new StarIdList();
+        for (double ra = 0.0; ra < 24.0; ra += 3.7) {
+            cone.set(ra, ra * 7.0 - 80.0, 0.0, 6.0);
+            found.clear();
+            quadTree.forEach(cone, found);
+            Assert.assertArrayEquals(fixture.bruteForce(cone), SkyIndexFixture.sorted(found.toArray()));
+        }
+    }
+
+    @Test
+    public void forEachBrightestTest() {
+        SkyRegion[] regions = {
+            SkyRegion.cone(0.0, 0.0, 20.0),
+            SkyRegion.cone(12.0, 89.0, 5.0),
+            SkyRegion.ring(6.0, -30.0, 10.0, 40.0),
+            SkyRegion.box(23.0, 1.0, -10.0, 10.0)
+        };
+        for (SkyRegion region : regions) {
+            Assert.assertArrayEquals(fixture.brightest(region, 300),
+                fixture.magnitudes(quadTree.queryBrightest(region, 300)));
+        }
+
+        // Stars the visitor rejects do not count towards the limit
+        int[] kept = new int[1];
+        Assert.assertEquals(50, quadTree.forEachBrightest(regions[0], 50, id -> id % 3 == 0 && ++kept[0] > 0));
+        Assert.assertEquals(50, kept[0]);
+    }
+
+    @Test
+    public void findKNearestTest() {
+        int id = 1234;
+        Assert.assertEquals(id, quadTree.findNearest(store.getRa(id), store.getDec(id), 0.5));
+
+        Random random = new Random(11);
+        for (int i = 0; i < 50; i++) {
+            double ra = random.nextDouble() * 24.0;
+            double dec = i % 5 == 0 ? 89.5 : random.nextDouble() * 180.0 - 90.0;
+            Assert.assertArrayEquals(fixture.bruteForceNearest(ra, dec, 25),
+                fixture.distances(ra, dec, quadTree.findNearest(ra, dec, 25)), 1e-12);
+        }
+
+        // Radius limit and filter
+        int[] nearest = new int[10];
+        int found = quadTree.findNearest(3.0, 20.0, 5.0, star -> star % 2 == 0, nearest);
+        Assert.assertEquals(fixture.countNearby(3.0, 20.0, 5.0, star -> star % 2 == 0, 10), found);
+        for (int i = 0; i < found; i++) {
+            Assert.assertEquals(0, nearest[i] % 2);
+            Assert.assertTrue(SkyVectors.angularDistance(3.0, 20.0, store.getRa(nearest[i]), store.getDec(nearest[i]))
+                    <= Math.toRadians(5.0));
+        }
+    }
+
+    @Test
+    public void parallelBuildTest() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        try {
+            QuadTree sequentialTree = QuadTree.build(store, single);
+            QuadTree parallelTree = QuadTree.build(store, parallel);
+            Assert.assertEquals(sequentialTree.getNodeCount(), parallelTree.getNodeCount());
+            Assert.assertEquals(parallelTree.getNodeCount(), assertSubtree(store, parallelTree, 0, 0));
+            for (int slot = 0; slot < sequentialTree.size(); slot++) {
+                Assert.assertEquals(sequentialTree.getStarId(slot), parallelTree.getStarId(slot));
+            }
+
+            SkyRegion region = SkyRegion.cone(18.0, -25.0, 30.0);
+            int[] expected = fixture.bruteForce(region);
+            Assert.assertArrayEquals(expected, SkyIndexFixture.sorted(sequentialTree.query(region)));
+            Assert.assertArrayEquals(expected, SkyIndexFixture.sorted(parallelTree.query(region)));
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    public void seamsAtMaxDepthTest() {
+        // Piles of stars on one spot can't be split, so they end in over-full leaves at the deepest level,
+        // on both sides of the 0h/24h seam and right at the poles
+        double[][] spots = {{0.0, 0.0}, {23.999999, 0.0}, {24.0, 10.0}, {0.0, 90.0}, {13.0, 90.0}, {6.0, -90.0}};
+        Random random = new Random(3);
+        StarStore.Builder builder = new StarStore.Builder(2000);
+        for (double[] spot : spots) {
+            for (int i = 0; i < QuadTree.MAX_CAPACITY * 2; i++) {
+                builder.add(spot[0], spot[1], random.nextDouble() * 10.0, null, null);
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            builder.add(random.nextDouble() * 24.0, random.nextDouble() * 180.0 - 90.0, random.nextDouble() * 10.0,
+                null, null);
+        }
+        SkyIndexFixture seams = new SkyIndexFixture(builder.build());
+        QuadTree tree = QuadTree.build(seams.getStore());
+
+        Assert.assertEquals(seams.getStore().size(), tree.size());
+        Assert.assertEquals(tree.getNodeCount(), assertSubtree(seams.getStore(), tree, 0, 0));
+
+        assertMatches(seams, tree, SkyRegion.cone(0.0, 0.0, 0.001));
+        assertMatches(seams, tree, SkyRegion.cone(23.9999, 5.0, 6.0));
+        assertMatches(seams, tree, SkyRegion.cone(0.0, 90.0, 0.001));
+        assertMatches(seams, tree, SkyRegion.cone(12.0, -89.99, 0.1));
+        assertMatches(seams, tree, SkyRegion.box(23.5, 0.5, -1.0, 1.0));
+        for (double[] spot : spots) {
+            Assert.assertArrayEquals(seams.bruteForceNearest(spot[0], spot[1], 150),
+                seams.distances(spot[0], spot[1], tree.findNearest(spot[0], spot[1], 150)), 1e-12);
+        }
+    }
+
+    /**
+     * Check that a node's children split its run into four consecutive runs, that leaves are full only at the
+     * deepest level and keep their stars brightest first, and return the number of nodes in the subtree.
+     */
+    private static int assertSubtree(StarStore stars, QuadTree tree, int node, int depth) {
+        int from = tree.getRunStart(node);
+        int to = tree.getRunEnd(node);
+        int first = tree.getFirstChild(node);
+        if (first < 0) {
+            Assert.assertTrue(depth <= QuadTree.MAX_DEPTH);
+            Assert.assertTrue(to - from <= QuadTree.MAX_CAPACITY || depth == QuadTree.MAX_DEPTH);
+            for (int slot = from + 1; slot < to; slot++) {
+                Assert.assertTrue(stars.getMag(tree.getStarId(slot - 1)) <= stars.getMag(tree.getStarId(slot)));
+            }
+            return 1;
+        }
+
+        Assert.assertTrue(to - from > QuadTree.MAX_CAPACITY);
+        int nodes = 1;
+        int next = from;
+        for (int child = first; child < first + 4; child++) {
+            Assert.assertEquals(next, tree.getRunStart(child));
+            next = tree.getRunEnd(child);
+            nodes += assertSubtree(stars, tree, child, depth + 1);
+        }
+        Assert.assertEquals(to, next);
+        return nodes;
+    }
+
+    private static void assertMatches(SkyIndexFixture fixture, QuadTree tree, SkyRegion region) {
+        Assert.assertArrayEquals(fixture.bruteForce(region), SkyIndexFixture.sorted(tree.query(region)));
+    }
+}
@@ -0,0 +1,113 @@
+package com.dqrapps.planetarium.logic.spatial;
+
+import com.dqrapps.planetarium.logic.model.StarStore;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * Star field and brute-force answers shared by the spatial index tests.
+ */
+final class SkyIndexFixture {
+
+    static final int STAR_COUNT = 20000;
+
+    private final StarStore store;
+
+    SkyIndexFixture(StarStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Stars uniform on the sphere, plus clusters at the north pole and the 0h/24h seam.
+     */
+    static SkyIndexFixture starField() {
+        Random random = new Random(42);
+        StarStore.Builder builder = new StarStore.Builder(STAR_COUNT);
+        for (int i = 0; i < STAR_COUNT; i++) {
+            double ra = random.nextDouble() * 24.0;
+            double dec = Math.toDegrees(Math.asin(2.0 * random.nextDouble() - 1.0));
+            if (i % 10 == 0) {
+                dec = 89.0 + random.nextDouble();
+            } else if (i % 10 == 1) {
+                ra = random.nextBoolean() ? random.nextDouble() * 0.1 : 23.9 + random.nextDouble() * 0.1;
+            }
+            builder.add(ra, dec, random.nextDouble() * 10.0, null, null);
+        }
+        return new SkyIndexFixture(builder.build());
+    }
+
+    StarStore getStore() {
+        return store;
+    }
+
+    /**
+     * IDs of all stars inside a region, ascending.
+     */
+    int[] bruteForce(SkyRegion region) {
+        StarIdList found = new StarIdList();
+        for (int id = 0; id < store.size(); id++) {
+            if (region.contains(store.getRa(id), store.getDec(id))) {
+                found.add(id);
+            }
+        }
+        return found.toArray();
+    }
+
+    /**
+     * Distances in radians to the k stars nearest to a position, ascending.
+     */
+    double[] bruteForceNearest(double ra, double dec, int k) {
+        double[] all = new double[store.size()];
+        for (int id = 0; id < store.size(); id++) {
+            all[id] = SkyVectors.angularDistance(ra, dec, store.getRa(id), store.getDec(id));
+        }
+        Arrays.sort(all);
+        return Arrays.copyOf(all, k);
+    }
+
+    /**
+     * Number of stars the filter accepts within a radius in degrees of a position, at most limit.
+     */
+    int countNearby(double ra, double dec, double radius, IntPredicate filter, int limit) {
+        int count = 0;
+        for (int id = 0; id < store.size(); id++) {
+            if (filter.test(id) && SkyVectors.angularDistance(ra, dec, store.getRa(id), store.getDec(id))
+                    <= Math.toRadians(radius)) {
+                count++;
+            }
+        }
+        return Math.min(count, limit);
+    }
+
+    /**
+     * Magnitudes of up to limit of the brightest stars inside a region, as sortable ints.
+     */
+    int[] brightest(SkyRegion region, int limit) {
+        int[] all = bruteForce(region);
+        store.sortByMagnitude(all, 0, all.length);
+        return magnitudes(Arrays.copyOf(all, Math.min(all.length, limit)));
+    }
+
+    int[] magnitudes(int[] ids) {
+        int[] result = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = StarStore.sortableMagnitude(store.getMag(ids[i]));
+        }
+        return result;
+    }
+
+    double[] distances(double ra, double dec, int[] ids) {
+        double[] result = new double[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = SkyVectors.angularDistance(ra, dec, store.getRa(ids[i]), store.getDec(ids[i]));
+        }
+        return result;
+    }
+
+    static int[] sorted(int[] ids) {
+        Arrays.sort(ids);
+        return ids;
+    }
+}